@@ -0,0 +1,99 @@
+package geometries;
+
+import org.openjdk.jmh.annotations.*;
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static geometries.Intersectable.GeoPoint;
+
+/**
+ * Microbenchmarks of the construction and the traversal of the bounding volume hierarchies,
+ * over a fixed random cloud of small spheres.
+ * The queries use the bounding boxes, without them the hierarchies check every sphere.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BVHBenchmark {
+    /**
+     * The number of rays, a power of 2 for cycling with a mask.
+     */
+    private static final int RAYS = 256;
+
+    @Param({"1000", "10000", "100000"})
+    public int objects;
+
+    @Param({"MEDIAN", "SAH"})
+    public BVH.SplitMethod splitMethod;
+
+    private Intersectable[] _spheres;
+    private BVH _bvh;
+    private LinearBVH _linearBVH;
+    private final Ray[] _rays = new Ray[RAYS];
+    private int _next = 0;
+
+    /**
+     * Creates the spheres in a 100X100X100 cube, the hierarchies over them,
+     * and rays from in front of the cube to random points inside it.
+     */
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        _spheres = new Intersectable[objects];
+        for (int i = 0; i < objects; ++i) {
+            _spheres[i] = new Sphere(1, new Point3D(
+                    random.nextDouble() * 100 - 50, random.nextDouble() * 100 - 50, random.nextDouble() * 100 - 50));
+        }
+        _bvh = new BVH(splitMethod, _spheres);
+        _linearBVH = new LinearBVH(splitMethod, _spheres);
+
+        Point3D p0 = new Point3D(0, 0, -200);
+        for (int i = 0; i < RAYS; ++i) {
+            Point3D target = new Point3D(
+                    random.nextDouble() * 100 - 50, random.nextDouble() * 100 - 50, random.nextDouble() * 100 - 50);
+            _rays[i] = new Ray(p0, target.subtract(p0));
+        }
+    }
+
+    private Ray nextRay() {
+        return _rays[_next++ & (RAYS - 1)];
+    }
+
+    @Benchmark
+    public BVH build() {
+        return new BVH(splitMethod, _spheres);
+    }
+
+    @Benchmark
+    public LinearBVH buildLinear() {
+        return new LinearBVH(splitMethod, _spheres);
+    }
+
+    @Benchmark
+    public GeoPoint closestIntersection() {
+        return _bvh.findClosestIntersection(nextRay(), Double.POSITIVE_INFINITY, true);
+    }
+
+    @Benchmark
+    public GeoPoint closestIntersectionLinear() {
+        return _linearBVH.findClosestIntersection(nextRay(), Double.POSITIVE_INFINITY, true);
+    }
+
+    @Benchmark
+    public List<GeoPoint> allIntersections() {
+        return _bvh.findGeoIntersections(nextRay(), Double.POSITIVE_INFINITY, true);
+    }
+
+    @Benchmark
+    public double occlusion() {
+        return _bvh.occlusion(nextRay(), Double.POSITIVE_INFINITY, 0.001, true);
+    }
+}
@@ -0,0 +1,104 @@
+package geometries;
+
+import org.openjdk.jmh.annotations.*;
+import primitives.BoundingBox;
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static geometries.Intersectable.GeoPoint;
+
+/**
+ * Microbenchmarks of the intersection kernels of the geometries and of the bounding box.
+ * Every invocation intersects the next ray of a fixed set of rays that hit about half of the geometries' area,
+ * so both the hit and the miss paths are measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntersectionBenchmark {
+    /**
+     * The number of rays, a power of 2 for cycling with a mask.
+     */
+    private static final int RAYS = 256;
+
+    private final Sphere _sphere = new Sphere(1, Point3D.ZERO);
+    private final Plane _plane = new Plane(Point3D.ZERO, new Vector(0, 0, 1));
+    private final Triangle _triangle = new Triangle(
+            new Point3D(-1, -1, 0), new Point3D(1, -1, 0), new Point3D(0, 1, 0));
+    private final TriangleMesh _triangleMesh = new TriangleMesh(
+            new double[]{-1, -1, 0, 1, -1, 0, 0, 1, 0}, new int[]{0, 1, 2});
+    private final Polygon _polygon = new Polygon(
+            new Point3D(-1, -1, 0), new Point3D(1, -1, 0), new Point3D(1, 1, 0), new Point3D(-1, 1, 0));
+    private final Tube _tube = new Tube(new Ray(Point3D.ZERO, new Vector(0, 1, 0)), 1);
+    private final Cylinder _cylinder = new Cylinder(new Ray(new Point3D(0, -1, 0), new Vector(0, 1, 0)), 1, 2);
+    private final BoundingBox _boundingBox = new BoundingBox(new Point3D(-1, -1, -1), new Point3D(1, 1, 1));
+
+    private final Ray[] _rays = new Ray[RAYS];
+    private int _next = 0;
+
+    /**
+     * Creates the rays from a point in front of the geometries to random points around them.
+     */
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        Point3D p0 = new Point3D(0, 0, -10);
+        for (int i = 0; i < RAYS; ++i) {
+            Point3D target = new Point3D(random.nextDouble() * 4 - 2, random.nextDouble() * 4 - 2, 0);
+            _rays[i] = new Ray(p0, target.subtract(p0));
+        }
+    }
+
+    private Ray nextRay() {
+        return _rays[_next++ & (RAYS - 1)];
+    }
+
+    @Benchmark
+    public List<GeoPoint> sphere() {
+        return _sphere.findGeoIntersections(nextRay());
+    }
+
+    @Benchmark
+    public List<GeoPoint> plane() {
+        return _plane.findGeoIntersections(nextRay());
+    }
+
+    @Benchmark
+    public List<GeoPoint> triangle() {
+        return _triangle.findGeoIntersections(nextRay());
+    }
+
+    @Benchmark
+    public List<GeoPoint> triangleMesh() {
+        // Through the mesh's hierarchy, as it is traversed in a scene
+        return _triangleMesh.findGeoIntersections(nextRay(), Double.POSITIVE_INFINITY, true);
+    }
+
+    @Benchmark
+    public List<GeoPoint> polygon() {
+        return _polygon.findGeoIntersections(nextRay());
+    }
+
+    @Benchmark
+    public List<GeoPoint> tube() {
+        return _tube.findGeoIntersections(nextRay());
+    }
+
+    @Benchmark
+    public List<GeoPoint> cylinder() {
+        return _cylinder.findGeoIntersections(nextRay());
+    }
+
+    @Benchmark
+    public boolean boundingBox() {
+        return _boundingBox.isIntersecting(nextRay());
+    }
+}
@@ -0,0 +1,68 @@
+package primitives;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmarks of the basic operations of vectors and points, the building blocks of every kernel.
+ * The operands are fields of the state, so the results can't be folded to constants.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VectorBenchmark {
+    private final Vector _v1 = new Vector(3, 1, 2);
+    private final Vector _v2 = new Vector(-5, 1.5, 12);
+    private final Point3D _p1 = new Point3D(1, 2, 3);
+    private final Point3D _p2 = new Point3D(-4, 0.5, 7);
+    private final Vec3 _vec3 = new Vec3();
+
+    @Benchmark
+    public Vector add() {
+        return _v1.add(_v2);
+    }
+
+    @Benchmark
+    public Vector scale() {
+        return _v1.scale(2.5);
+    }
+
+    @Benchmark
+    public double dotProduct() {
+        return _v1.dotProduct(_v2);
+    }
+
+    @Benchmark
+    public Vector crossProduct() {
+        return _v1.crossProduct(_v2);
+    }
+
+    @Benchmark
+    public Vector normalized() {
+        return _v1.normalized();
+    }
+
+    @Benchmark
+    public Point3D pointAdd() {
+        return _p1.add(_v1);
+    }
+
+    @Benchmark
+    public Vector pointSubtract() {
+        return _p1.subtract(_p2);
+    }
+
+    @Benchmark
+    public double pointDistance() {
+        return _p1.distance(_p2);
+    }
+
+    @Benchmark
+    public Vec3 vec3AddScaled() {
+        return _vec3.set(_v1).addScaled(_v2, 0.5).normalize();
+    }
+}
@@ -0,0 +1,41 @@
+package special;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Runs the benchmarks and writes the results as JSON, for tracking the performance across versions.
+ * The arguments are the command line options of JMH, e.g. a regular expression of the benchmarks to run
+ * ({@code IntersectionBenchmark}) or the parameters of a benchmark ({@code -p threads=8}).
+ * The results are written to the file of the system property {@code benchmarks.result},
+ * by default a file named by the current time in the results directory of the benchmarks.
+ */
+public class BenchmarkRunner {
+    private static final String RESULTS_PATH = System.getProperty("user.dir") + "/benchmarks/results";
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        String result = System.getProperty("benchmarks.result");
+        if (result == null) {
+            File directory = new File(RESULTS_PATH);
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IllegalStateException("Failed to create the directory " + directory);
+            }
+            result = new File(directory,
+                    LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss")) + ".json").getPath();
+        }
+
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .resultFormat(ResultFormatType.JSON)
+                .result(result)
+                .build()).run();
+    }
+}
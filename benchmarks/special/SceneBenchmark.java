@@ -0,0 +1,89 @@
+package special;
+
+import elements.Camera;
+import elements.PointLight;
+import org.openjdk.jmh.annotations.*;
+import primitives.Color;
+import primitives.Material;
+import primitives.Point3D;
+import primitives.Vector;
+import renderer.BasicRayTracer;
+import renderer.ImageWriter;
+import renderer.Render;
+import scene.Scene;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Macrobenchmarks of rendering whole frames of the scenes of {@link BVHTests},
+ * at a fixed resolution and a fixed number of threads.
+ * The renderings are seeded (see {@link Render#setSeed(Long)}), so every invocation traces exactly the same rays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SceneBenchmark {
+    private static final int WIDTH = 200;
+    private static final int HEIGHT = 200;
+
+    @Param({"teapot", "manyObjects"})
+    public String sceneName;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private ImageWriter _imageWriter;
+    private Render _render;
+
+    /**
+     * Builds the scene and the render of the frame.
+     */
+    @Setup
+    public void setup() {
+        Scene scene;
+        Camera camera;
+        if (sceneName.equals("teapot")) {
+            scene = Scene.Builder.create("Teapot")
+                    .setLights(new PointLight(new Color(500, 500, 500), new Point3D(95, 10, -170))
+                            .setKq(0.00003))
+                    .setGeometries(BVHTests.getTeapotModel(new Color(5, 50, 120),
+                            new Material().setKd(0.6).setKs(0.4).setShininess(50)))
+                    .build();
+            camera = new Camera(new Point3D(-100, 0, -1000), new Vector(0, 0, 1), new Vector(0, 1, 0))
+                    .setDistance(1000)
+                    .setViewPlaneSize(450, 450);
+        } else {
+            scene = new Scene("Many Objects");
+            BVHTests.setLights(scene);
+            BVHTests.setGeometries(scene);
+            camera = new Camera(new Point3D(0, 0, 1000), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                    .setViewPlaneSize(200, 125)
+                    .setDistance(800);
+        }
+
+        _imageWriter = new ImageWriter("benchmark " + sceneName, WIDTH, HEIGHT);
+        _render = new Render()
+                .setCamera(camera)
+                .setImageWriter(_imageWriter)
+                .setRayTracer(new BasicRayTracer(scene).setGlossinessRays(10))
+                .setSeed(1L)
+                .setMultithreading(threads);
+    }
+
+    /**
+     * Releases the threads of the render.
+     */
+    @TearDown
+    public void tearDown() {
+        _render.close();
+    }
+
+    @Benchmark
+    public ImageWriter render() {
+        _render.renderImage();
+        return _imageWriter;
+    }
+}
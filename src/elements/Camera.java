@@ -2,11 +2,9 @@ package elements;
 
 import primitives.*;
 
-import java.util.LinkedList;
 import java.util.List;
 
 import static primitives.Util.isZero;
-import static primitives.Util.random;
 
 /**
  * Camera object in 3d scene for creating rays through pixels.
@@ -44,6 +42,10 @@ public class Camera {
      * The number of rays sent by the camera.
      */
     private int _numOfRays = 10;
+    /**
+     * The distribution of the rays inside a pixel with Anti-Aliasing.
+     */
+    private Sampler _sampler = Sampler.RANDOM;
 
     /**
      * Constructs a camera with location, to and up vectors
@@ -66,6 +68,21 @@ public class Camera {
         _vRight = _vTo.crossProduct(_vUp);
     }
 
+    /**
+     * Copy constructor - the new camera doesn't share any mutable object with the given camera,
+     * so each of them can be moved and rotated without changing the other one
+     *
+     * @param other The camera to copy
+     */
+    public Camera(Camera other) {
+        this(other._p0, other._vTo, other._vUp);
+        _width = other._width;
+        _height = other._height;
+        _distance = other._distance;
+        _numOfRays = other._numOfRays;
+        _sampler = other._sampler;
+    }
+
     /**
      * Returns the camera location
      */
@@ -115,6 +132,33 @@ public class Camera {
         return _distance;
     }
 
+    /**
+     * Returns the number of random rays through a pixel with Anti-Aliasing
+     */
+    public int getNumOfRays() {
+        return _numOfRays;
+    }
+
+    /**
+     * Returns the distribution of the rays inside a pixel with Anti-Aliasing
+     */
+    public Sampler getSampler() {
+        return _sampler;
+    }
+
+    /**
+     * Creates an immutable snapshot of the camera for a given resolution of the view plane,
+     * for constructing the rays of a rendering (see {@link CameraView}).
+     * Constructing many rays by the view is faster than by the camera, which creates a view for every ray.
+     *
+     * @param nX Total number of pixels in the x dimension
+     * @param nY Total number of pixels in the y dimension
+     * @return The snapshot of the camera
+     */
+    public CameraView getView(int nX, int nY) {
+        return new CameraView(this, nX, nY);
+    }
+
     /**
      * Chaining method for setting the view plane's size
      *
@@ -170,6 +214,23 @@ public class Camera {
         return this;
     }
 
+    /**
+     * Chaining method for setting the distribution of the rays inside a pixel with Anti-Aliasing
+     * (independent random rays by default). Stratified or low-discrepancy rays cover the pixel more evenly,
+     * so they reach the same noise with fewer rays
+     *
+     * @param sampler The distribution of the rays
+     * @return The camera itself
+     */
+    public Camera setSampler(Sampler sampler) {
+        if (sampler == null) {
+            throw new NullPointerException("sampler cannot be null");
+        }
+
+        _sampler = sampler;
+        return this;
+    }
+
     /**
      * Adds the given amount to the camera's position
      *
@@ -216,6 +277,62 @@ public class Camera {
         return this;
     }
 
+    /**
+     * Creates a new camera between the current camera and another camera.
+     * The location and the view plane are interpolated linearly, and the directions
+     * are rotated from the current camera's directions towards the other camera's directions
+     * (spherical linear interpolation). The number of rays is of the current camera.
+     *
+     * @param other The camera at the end of the interpolation
+     * @param t     The position between the cameras - 0 for the current camera, 1 for the other camera
+     * @return The new camera
+     */
+    public Camera interpolate(Camera other, double t) {
+        Vec3 p0 = new Vec3().set(_p0).scale(1 - t).add(new Vec3().set(other._p0).scale(t));
+
+        // When a direction turns to the opposite side, the plane of the rotation is chosen by the other direction:
+        // forward only - turns right (yaw), up only - rolls right, both - turns up (pitch)
+        boolean toOpposite = isZero(_vTo.dotProduct(other._vTo) + 1);
+        boolean upOpposite = isZero(_vUp.dotProduct(other._vUp) + 1);
+        Vec3 vTo = slerp(_vTo, other._vTo, t, upOpposite ? new Vec3().set(_vUp) : new Vec3().set(_vRight));
+        Vec3 vUp = slerp(_vUp, other._vUp, t, toOpposite ? new Vec3().set(_vTo).scale(-1) : new Vec3().set(_vRight));
+        // Keeps the up direction orthogonal to the interpolated forward direction
+        vUp.addScaled(vTo, -vUp.dotProduct(vTo)).normalize();
+
+        Camera camera = new Camera(p0.toPoint3D(), vTo.toVector(), vUp.toVector())
+                .setViewPlaneSize(_width + (other._width - _width) * t, _height + (other._height - _height) * t)
+                .setDistance(_distance + (other._distance - _distance) * t);
+        camera._numOfRays = _numOfRays;
+        camera._sampler = _sampler;
+        return camera;
+    }
+
+    /**
+     * Spherical linear interpolation between two unit vectors
+     *
+     * @param a             The vector at the start of the interpolation
+     * @param b             The vector at the end of the interpolation
+     * @param t             The position between the vectors (0..1)
+     * @param perpendicular A unit vector perpendicular to a, to rotate towards when b is opposite to a
+     * @return The interpolated unit vector
+     */
+    private static Vec3 slerp(Vector a, Vector b, double t, Vec3 perpendicular) {
+        double cos = Math.max(-1, Math.min(1, a.dotProduct(b)));
+        if (isZero(cos - 1)) {
+            return new Vec3().set(a);
+        }
+        if (isZero(cos + 1)) {
+            return new Vec3().addScaled(a, Math.cos(Math.PI * t)).addScaled(perpendicular, Math.sin(Math.PI * t));
+        }
+
+        double theta = Math.acos(cos);
+        double sin = Math.sin(theta);
+        return new Vec3()
+                .addScaled(a, Math.sin((1 - t) * theta) / sin)
+                .addScaled(b, Math.sin(t * theta) / sin)
+                .normalize();
+    }
+
     /**
      * Constructs a ray through the center of a given pixel on the view plane
      *
@@ -226,40 +343,22 @@ public class Camera {
      * @return A ray from the camera going through the center of a given pixel
      */
     public Ray constructRayThroughPixel(int nX, int nY, int j, int i) {
-        // The center point of the pixel
-        Point3D pIJ = calculateCenterOfPixel(nX, nY, j, i);
-        // The ray from the camera to the center of the pixel
-        Vector vIJ = pIJ.subtract(_p0);
-
-        return new Ray(_p0, vIJ);
+        return getView(nX, nY).constructRayThroughPixel(j, i);
     }
 
     /**
-     * Calculates the center of a given pixel
+     * Constructs a ray through a given point on the view plane, in pixel units.
+     * The center of the pixel (j, i) is the point (j, i), and the pixel covers
+     * the square from (j - 0.5, i - 0.5) to (j + 0.5, i + 0.5).
+     *
      * @param nX Total number of pixels in the x dimension
      * @param nY Total number of pixels in the y dimension
-     * @param j  The index of the pixel on the x dimension
-     * @param i  The index of the pixel on the y dimension
-     * @return The center point of the pixel
+     * @param x  The x coordinate of the point on the view plane, in pixels
+     * @param y  The y coordinate of the point on the view plane, in pixels
+     * @return A ray from the camera going through the given point
      */
-    private Point3D calculateCenterOfPixel(int nX, int nY, int j, int i) {
-        Point3D pC = _p0.add(_vTo.scale(_distance));
-
-        double rX = _width / nX;
-        double rY = _height / nY;
-
-        Point3D pIJ = pC;
-        double xJ = rX * (j - (nX - 1) / 2d);
-        double yI = -rY * (i - (nY - 1) / 2d);
-
-        // prevents creation of the zero vector
-        if (!isZero(xJ)) {
-            pIJ = pIJ.add(_vRight.scale(xJ));
-        }
-        if (!isZero(yI)) {
-            pIJ = pIJ.add(_vUp.scale(yI));
-        }
-        return pIJ;
+    public Ray constructRayThroughPoint(int nX, int nY, double x, double y) {
+        return getView(nX, nY).constructRayThroughPoint(x, y);
     }
 
     /**
@@ -271,27 +370,6 @@ public class Camera {
      * @return A list of rays going through the pixel
      */
     public List<Ray> constructRayPixelWithAA(int nX, int nY, int j, int i) {
-        // Creates a list of rays to shut through the pixel
-        List<Ray> rays = new LinkedList<>();
-
-        double rX = _width / nX;
-        double rY = _height / nY;
-
-        double randX, randY;
-
-        // The center point of the pixel
-        Point3D pCenterPixel = calculateCenterOfPixel(nX, nY, j, i);
-        // Adds the ray from the camera to the center of the pixel to the list
-        rays.add(new Ray(_p0, pCenterPixel.subtract(_p0)));
-
-        Point3D pInPixel;
-        // Adds _numOfRays random rays from the camera to somewhere in the pixel to the list
-        for (int k = 0; k < _numOfRays; k++) {
-            randX = random(-rX / 2, rX / 2);
-            randY = random(-rY / 2, rY / 2);
-            pInPixel = new Point3D(pCenterPixel.getX() + randX, pCenterPixel.getY() + randY, pCenterPixel.getZ());
-            rays.add(new Ray(_p0, pInPixel.subtract(_p0)));
-        }
-        return rays;
+        return getView(nX, nY).constructRayPixelWithAA(j, i);
     }
 }
@@ -0,0 +1,212 @@
+package elements;
+
+import primitives.*;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Immutable snapshot of a camera for a given resolution of the view plane, for constructing the rays of a rendering.
+ * The constants of the view plane (its center and the steps between the pixels) are calculated once,
+ * instead of for every pixel, and changing the camera afterwards (e.g. moving or rotating it) doesn't change the view,
+ * so a view can be used by many threads at the same time, and several views of the same scene can be rendered at once.
+ */
+public final class CameraView {
+    /**
+     * Camera's location.
+     */
+    private final Point3D _p0;
+    /**
+     * The number of pixels in the x and y dimensions.
+     */
+    private final int _nX, _nY;
+    /**
+     * The center of the view plane relative to the camera's location (vTo * distance).
+     */
+    private final double _centerX, _centerY, _centerZ;
+    /**
+     * The step between 2 pixels of a row - a pixel's width to the right (vRight * rX).
+     */
+    private final double _stepRightX, _stepRightY, _stepRightZ;
+    /**
+     * The step between 2 pixels of a column - a pixel's height upwards (vUp * rY).
+     */
+    private final double _stepUpX, _stepUpY, _stepUpZ;
+    /**
+     * The number of random rays through a pixel with Anti-Aliasing.
+     */
+    private final int _numOfRays;
+    /**
+     * The distribution of the rays inside a pixel with Anti-Aliasing.
+     */
+    private final Sampler _sampler;
+
+    /**
+     * Creates a snapshot of a given camera for a given resolution.
+     *
+     * @param camera The camera
+     * @param nX     Total number of pixels in the x dimension
+     * @param nY     Total number of pixels in the y dimension
+     */
+    CameraView(Camera camera, int nX, int nY) {
+        _p0 = camera.getP0();
+        _nX = nX;
+        _nY = nY;
+        _numOfRays = camera.getNumOfRays();
+        _sampler = camera.getSampler();
+
+        Vector vTo = camera.getVTo();
+        Vector vRight = camera.getVRight();
+        Vector vUp = camera.getVUp();
+        double distance = camera.getDistance();
+        // The size of a pixel
+        double rX = camera.getWidth() / nX;
+        double rY = camera.getHeight() / nY;
+        _centerX = vTo.getX() * distance;
+        _centerY = vTo.getY() * distance;
+        _centerZ = vTo.getZ() * distance;
+        _stepRightX = vRight.getX() * rX;
+        _stepRightY = vRight.getY() * rX;
+        _stepRightZ = vRight.getZ() * rX;
+        _stepUpX = vUp.getX() * rY;
+        _stepUpY = vUp.getY() * rY;
+        _stepUpZ = vUp.getZ() * rY;
+    }
+
+    /**
+     * Returns the camera location
+     */
+    public Point3D getP0() {
+        return _p0;
+    }
+
+    /**
+     * Returns the number of pixels in the x dimension
+     */
+    public int getNx() {
+        return _nX;
+    }
+
+    /**
+     * Returns the number of pixels in the y dimension
+     */
+    public int getNy() {
+        return _nY;
+    }
+
+    /**
+     * Constructs a ray through the center of a given pixel on the view plane
+     *
+     * @param j The index of the pixel on the x dimension
+     * @param i The index of the pixel on the y dimension
+     * @return A ray from the camera going through the center of a given pixel
+     */
+    public Ray constructRayThroughPixel(int j, int i) {
+        return new Ray(_p0, calculateCenterOfPixel(j, i).toVector());
+    }
+
+    /**
+     * Constructs a ray through a given point on the view plane, in pixel units.
+     * The center of the pixel (j, i) is the point (j, i), and the pixel covers
+     * the square from (j - 0.5, i - 0.5) to (j + 0.5, i + 0.5).
+     *
+     * @param x The x coordinate of the point on the view plane, in pixels
+     * @param y The y coordinate of the point on the view plane, in pixels
+     * @return A ray from the camera going through the given point
+     */
+    public Ray constructRayThroughPoint(double x, double y) {
+        return new Ray(_p0, calculateCenterOfPixel(x, y).toVector());
+    }
+
+    /**
+     * Constructs the rays through the centers of a rectangle of pixels (e.g. a row or a tile), row by row.
+     * The offsets of the columns are calculated once for all the rows, and every row starts from its own
+     * offset, so every ray costs 3 additions instead of the calculation of the whole pixel.
+     * The rays are the same as {@link #constructRayThroughPixel(int, int)} of every pixel.
+     *
+     * @param col    The index of the left column of the rectangle
+     * @param row    The index of the top row of the rectangle
+     * @param width  The number of columns of the rectangle
+     * @param height The number of rows of the rectangle
+     * @param rays   A buffer to reuse for the rays, may be null or too small
+     * @return The buffer with the rays (a new buffer when the given buffer is null or too small)
+     */
+    public Ray[] constructRaysThroughPixels(int col, int row, int width, int height, Ray[] rays) {
+        if (rays == null || rays.length < width * height) {
+            rays = new Ray[width * height];
+        }
+
+        // The offsets of the columns from the vertical center line of the view plane
+        double[] columns = new double[width * 3];
+        for (int c = 0; c < width; ++c) {
+            double right = col + c - (_nX - 1) / 2d;
+            columns[c * 3] = _stepRightX * right;
+            columns[c * 3 + 1] = _stepRightY * right;
+            columns[c * 3 + 2] = _stepRightZ * right;
+        }
+
+        int k = 0;
+        for (int r = 0; r < height; ++r) {
+            // The center of the row on the vertical center line of the view plane
+            double up = (_nY - 1) / 2d - (row + r);
+            double rowX = _centerX + _stepUpX * up;
+            double rowY = _centerY + _stepUpY * up;
+            double rowZ = _centerZ + _stepUpZ * up;
+            for (int c = 0; c < width; ++c) {
+                rays[k++] = new Ray(_p0,
+                        new Vector(rowX + columns[c * 3], rowY + columns[c * 3 + 1], rowZ + columns[c * 3 + 2]));
+            }
+        }
+        return rays;
+    }
+
+    /**
+     * Constructs a list of rays to go through a given pixel - the ray through its center,
+     * and rays through points of the pixel distributed by the camera's sampler
+     *
+     * @param j The index of the pixel on the x dimension
+     * @param i The index of the pixel on the y dimension
+     * @return A list of rays going through the pixel
+     */
+    public List<Ray> constructRayPixelWithAA(int j, int i) {
+        // Creates a list of rays to shut through the pixel
+        List<Ray> rays = new LinkedList<>();
+
+        // The vector from the camera to the center point of the pixel
+        Vec3 vIJ = calculateCenterOfPixel(j, i);
+        // Adds the ray from the camera to the center of the pixel to the list
+        rays.add(new Ray(_p0, vIJ.toVector()));
+
+        // Adds _numOfRays rays from the camera to the sample points in the pixel to the list,
+        // the pixel is spanned by the right and up steps around its center
+        double[] samples = _sampler.samples(_numOfRays, Util.getRandom());
+        for (int k = 0; k < _numOfRays; k++) {
+            double right = samples[2 * k] - 0.5;
+            double up = 0.5 - samples[2 * k + 1];
+            rays.add(new Ray(_p0, new Vector(
+                    vIJ.x + _stepUpX * up + _stepRightX * right,
+                    vIJ.y + _stepUpY * up + _stepRightY * right,
+                    vIJ.z + _stepUpZ * up + _stepRightZ * right)));
+        }
+        return rays;
+    }
+
+    /**
+     * Calculates the center of a given pixel relative to the camera's location,
+     * by the precalculated center of the view plane and steps between the pixels.
+     *
+     * @param j The index of the pixel on the x dimension (may be fractional for a point inside the pixel)
+     * @param i The index of the pixel on the y dimension (may be fractional for a point inside the pixel)
+     * @return The center point of the pixel, relative to the camera's location
+     */
+    private Vec3 calculateCenterOfPixel(double j, double i) {
+        double right = j - (_nX - 1) / 2d;
+        double up = (_nY - 1) / 2d - i;
+
+        // pIJ - p0 = (vTo * distance + vUp * rY * up) + vRight * rX * right
+        return new Vec3(
+                _centerX + _stepUpX * up + _stepRightX * right,
+                _centerY + _stepUpY * up + _stepRightY * right,
+                _centerZ + _stepUpZ * up + _stepRightZ * right);
+    }
+}
@@ -21,6 +21,14 @@ public class DirectionalLight extends Light implements LightSource {
 		_direction = direction.normalized();
 	}
 
+	/**
+	 * Get the direction of the light
+	 * @return normalized direction
+	 */
+	public Vector getDirection() {
+		return _direction;
+	}
+
 	@Override
 	public Color getIntensity(Point3D p) {
 		return _intensity;
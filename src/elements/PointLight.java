@@ -57,6 +57,38 @@ public class PointLight extends Light implements LightSource {
 		return this;
 	}
 
+	/**
+	 * Get the position of the light
+	 * @return position
+	 */
+	public Point3D getPosition() {
+		return _position;
+	}
+
+	/**
+	 * Get k constant
+	 * @return kC
+	 */
+	public double getKc() {
+		return _kC;
+	}
+
+	/**
+	 * Get k linear
+	 * @return kL
+	 */
+	public double getKl() {
+		return _kL;
+	}
+
+	/**
+	 * Get k quadratic
+	 * @return kQ
+	 */
+	public double getKq() {
+		return _kQ;
+	}
+
 	@Override
 	public Color getIntensity(Point3D p) {
 		// The distance between the light source and the object
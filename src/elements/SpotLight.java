@@ -24,6 +24,14 @@ public class SpotLight extends PointLight {
 		_direction = direction.normalized();
 	}
 
+	/**
+	 * Get the direction of the light
+	 * @return normalized direction
+	 */
+	public Vector getDirection() {
+		return _direction;
+	}
+
 	@Override
 	public Color getIntensity(Point3D p) {
 		return super.getIntensity(p).scale(Math.max(0, _direction.dotProduct(getL(p))));
@@ -1,8 +1,8 @@
 package geometries;
 
-import primitives.Axis;
 import primitives.BoundingBox;
-import primitives.Median;
+import primitives.Metrics;
+import primitives.Point3D;
 import primitives.Ray;
 
 import java.util.*;
@@ -15,57 +15,130 @@ import java.util.stream.Stream;
  */
 public class BVH implements Intersectable {
 
+    /**
+     * The method of splitting the intersectables between the tree's nodes.
+     */
+    public enum SplitMethod {
+        /**
+         * Splits at the median center, cycling the axes X->Y->Z.
+         */
+        MEDIAN,
+        /**
+         * Splits by the Surface Area Heuristic, see {@link SAHBuilder}.
+         */
+        SAH
+    }
+
+    /**
+     * The root of the tree of the bounded intersectables, or null if there are none.
+     */
     private final Intersectable _root;
+    /**
+     * The intersectables without a bounding box (e.g. planes), which can't be split and are checked on every ray.
+     */
+    private final Intersectable[] _unbounded;
 
     /**
      * Constructs the BVH from a given intersectables.
+     * Splits the intersectables at the median.
      */
     public BVH(Intersectable... intersectables) {
-        _root = generateRoot(Arrays.asList(intersectables), Axis.X);
+        this(SplitMethod.MEDIAN, intersectables);
     }
 
     /**
-     * Generates a binary tree for the BVH by comparing the center of the bounding boxes.
-     * Source: https://github.com/eregon/raytracer/blob/master/src/raytracer/BVH.java#L21
+     * Constructs the BVH from a given intersectables with a given split method.
+     * The subtrees of many intersectables are built in parallel, see {@link TreeBuilder}.
      */
-    private static Intersectable generateRoot(List<Intersectable> intersectables, Axis axis) {
-        if (intersectables.size() == 1) {
-            return intersectables.get(0);
-        }
+    public BVH(SplitMethod splitMethod, Intersectable... intersectables) {
+        List<Intersectable> unbounded = new ArrayList<>();
+        _root = generateRoot(splitMethod, intersectables, unbounded);
+        _unbounded = unbounded.toArray(Intersectable[]::new);
+    }
 
-        Comparator<Intersectable> comparator = Intersectable.getComparatorByAxis(axis);
-        Intersectable median = new Median<>(intersectables, comparator).findMedian();
+    /**
+     * Generates a binary tree for the BVH.
+     * The bounds and the centers of the bounding boxes are saved once in arrays that the builder splits in place.
+     * Intersectables without a bounding box (e.g. planes) can't be split,
+     * so they are left out of the tree and added to the given list.
+     * @return the root of the tree, or null if all the intersectables are unbounded
+     */
+    private static Intersectable generateRoot(SplitMethod splitMethod, Intersectable[] intersectables,
+                                              List<Intersectable> unbounded) {
+        Intersectable[] bounded = new Intersectable[intersectables.length];
+        double[] bounds = new double[intersectables.length * 6];
+        double[] centers = new double[intersectables.length * 3];
+        int count = 0;
+        for (Intersectable intersectable : intersectables) {
+            BoundingBox bb = intersectable.getBoundingBox();
+            if (bb == null) {
+                unbounded.add(intersectable);
+                continue;
+            }
 
-        // Splits the intersectables around the median
-        int maxLeftSize = (intersectables.size() + 1) / 2;
-        List<Intersectable> left = new ArrayList<>(maxLeftSize);
-        List<Intersectable> right = new ArrayList<>(intersectables.size() - maxLeftSize);
-        for(Intersectable intersectable : intersectables) {
-            // We need to ensure no less than half go to the right (happens when many are equal)
-            if (comparator.compare(intersectable, median) <= 0 && left.size() < maxLeftSize) {
-                left.add(intersectable);
-            } else {
-                right.add(intersectable);
+            Point3D min = bb.getMin();
+            Point3D max = bb.getMax();
+            bounds[count * 6] = min.getX();
+            bounds[count * 6 + 1] = min.getY();
+            bounds[count * 6 + 2] = min.getZ();
+            bounds[count * 6 + 3] = max.getX();
+            bounds[count * 6 + 4] = max.getY();
+            bounds[count * 6 + 5] = max.getZ();
+            for (int axis = 0; axis < 3; ++axis) {
+                centers[count * 3 + axis] = (bounds[count * 6 + axis] + bounds[count * 6 + 3 + axis]) / 2;
             }
+            bounded[count++] = intersectable;
+        }
+
+        if (count == 0) {
+            return null;
         }
 
-        // Generate the node's children with the next axis
-        Axis nextAxis = axis.getNext();
-        return new Node(
-                generateRoot(left, nextAxis),
-                generateRoot(right, nextAxis));
+        bounds = Arrays.copyOf(bounds, count * 6);
+        centers = Arrays.copyOf(centers, count * 3);
+        TreeBuilder builder = switch (splitMethod) {
+            case MEDIAN -> new MedianBuilder(bounds, centers);
+            case SAH -> new SAHBuilder(bounds, centers);
+        };
+        int[] indices = builder.getIndices();
+        return builder.build(new TreeBuilder.NodeFactory<Intersectable>() {
+            @Override
+            public Intersectable createLeaf(int start, int end) {
+                if (end - start == 1) {
+                    return bounded[indices[start]];
+                }
+
+                Intersectable[] leaf = new Intersectable[end - start];
+                for (int i = start; i < end; ++i) {
+                    leaf[i - start] = bounded[indices[i]];
+                }
+                return new Geometries(leaf);
+            }
+
+            @Override
+            public Intersectable createNode(Intersectable left, Intersectable right) {
+                return new Node(left, right);
+            }
+        });
     }
 
     @Override
     public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance, boolean useBB) {
         if (useBB) {
             BoundingBox bb = getBoundingBox();
-            if (bb != null && !bb.isIntersecting(ray)) {
+            if (bb != null && !bb.isIntersecting(ray, maxDistance)) {
                 return null;
             }
         }
 
-        return _root.findGeoIntersections(ray, maxDistance, useBB);
+        List<GeoPoint> result = null;
+        for (Intersectable unbounded : _unbounded) {
+            result = concat(result, unbounded.findGeoIntersections(ray, maxDistance, useBB));
+        }
+        if (_root != null) {
+            result = concat(result, _root.findGeoIntersections(ray, maxDistance, useBB));
+        }
+        return result;
     }
 
     @Override
@@ -73,16 +146,191 @@ public class BVH implements Intersectable {
         return findGeoIntersections(ray, maxDistance, false);
     }
 
+    @Override
+    public GeoPoint findClosestIntersection(Ray ray, double maxDistance, boolean useBB) {
+        if (useBB) {
+            BoundingBox bb = getBoundingBox();
+            if (bb != null && !bb.isIntersecting(ray, maxDistance)) {
+                return null;
+            }
+        }
+
+        GeoPoint closest = null;
+        for (Intersectable unbounded : _unbounded) {
+            GeoPoint gp = unbounded.findClosestIntersection(ray, maxDistance, useBB);
+            if (gp != null) {
+                // The next intersectables can only replace it with a closer intersection
+                closest = gp;
+                maxDistance = gp.point.distance(ray.getP0());
+            }
+        }
+        if (_root != null) {
+            GeoPoint gp = _root.findClosestIntersection(ray, maxDistance, useBB);
+            if (gp != null && (closest == null || gp.point.distance(ray.getP0()) < maxDistance)) {
+                closest = gp;
+            }
+        }
+        return closest;
+    }
+
+    @Override
+    public GeoPoint findClosestIntersection(Ray ray, double maxDistance) {
+        return findClosestIntersection(ray, maxDistance, false);
+    }
+
+    @Override
+    public double occlusion(Ray ray, double maxDistance, double threshold, boolean useBB) {
+        if (useBB) {
+            BoundingBox bb = getBoundingBox();
+            if (bb != null && !bb.isIntersecting(ray, maxDistance)) {
+                return 1.0;
+            }
+        }
+
+        double ktr = 1.0;
+        for (Intersectable unbounded : _unbounded) {
+            ktr *= unbounded.occlusion(ray, maxDistance, threshold / ktr, useBB);
+            if (ktr < threshold) {
+                return 0.0;
+            }
+        }
+        if (_root != null) {
+            ktr *= _root.occlusion(ray, maxDistance, threshold / ktr, useBB);
+        }
+        return ktr < threshold ? 0.0 : ktr;
+    }
+
+    @Override
+    public double occlusion(Ray ray, double maxDistance, double threshold) {
+        return occlusion(ray, maxDistance, threshold, false);
+    }
 
     @Override
     public BoundingBox getBoundingBox() {
-        return _root.getBoundingBox();
+        // The unbounded intersectables can be hit outside of the root's bounding box
+        return _root == null || _unbounded.length > 0 ? null : _root.getBoundingBox();
+    }
+
+    /**
+     * Returns the root of the tree of the BVH's bounded intersectables, or null if there are none.
+     */
+    Intersectable getRoot() {
+        return _root;
+    }
+
+    /**
+     * Returns the BVH's intersectables without a bounding box, which aren't in the tree.
+     */
+    Intersectable[] getUnbounded() {
+        return _unbounded;
+    }
+
+    /**
+     * Helper function that concatenates 2 lists of intersections, each of them may be null.
+     */
+    private static List<GeoPoint> concat(List<GeoPoint> first, List<GeoPoint> second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+
+        List<GeoPoint> result = new ArrayList<>(first);
+        result.addAll(second);
+        return result;
+    }
+
+    /**
+     * Calculates the statistics of the BVH's tree.
+     * @return the calculated statistics
+     */
+    public Statistics getStatistics() {
+        Statistics statistics = new Statistics();
+        if (_root == null) {
+            return statistics;
+        }
+
+        BoundingBox bb = _root.getBoundingBox();
+        double rootArea = bb == null ? 0 : bb.getSurfaceArea();
+        collectStatistics(_root, 1, rootArea, statistics);
+        return statistics;
+    }
+
+    /**
+     * Helper function that walks the tree and collects the statistics of the given subtree.
+     */
+    private static void collectStatistics(Intersectable intersectable, int depth, double rootArea, Statistics statistics) {
+        statistics.depth = Math.max(statistics.depth, depth);
+
+        // The probability of a ray that hits the root to hit the current node
+        BoundingBox bb = intersectable.getBoundingBox();
+        double probability = bb == null || rootArea <= 0 ? 1 : bb.getSurfaceArea() / rootArea;
+
+        if (intersectable instanceof Node) {
+            Node node = (Node) intersectable;
+            statistics.innerNodes++;
+            statistics.sahCost += SAHBuilder.TRAVERSAL_COST * probability;
+            collectStatistics(node._left, depth + 1, rootArea, statistics);
+            collectStatistics(node._right, depth + 1, rootArea, statistics);
+            return;
+        }
+
+        int count = intersectable instanceof Geometries ? ((Geometries) intersectable).size() : 1;
+        statistics.leaves++;
+        statistics.intersectables += count;
+        statistics.sahCost += SAHBuilder.INTERSECTION_COST * count * probability;
+    }
+
+    /**
+     * Statistics of the BVH's tree, used to compare between the split methods.
+     */
+    public static class Statistics {
+        /**
+         * The number of the tree's inner nodes.
+         */
+        public int innerNodes;
+        /**
+         * The number of the tree's leaves.
+         */
+        public int leaves;
+        /**
+         * The number of intersectables in all the leaves.
+         */
+        public int intersectables;
+        /**
+         * The number of levels of the tree.
+         */
+        public int depth;
+        /**
+         * The expected cost of a ray that hits the root, by the Surface Area Heuristic.
+         */
+        public double sahCost;
+
+        /**
+         * Returns the total number of nodes in the tree.
+         */
+        public int getNodes() {
+            return innerNodes + leaves;
+        }
+
+        @Override
+        public String toString() {
+            return "Statistics{" +
+                    "nodes=" + getNodes() +
+                    ", innerNodes=" + innerNodes +
+                    ", leaves=" + leaves +
+                    ", intersectables=" + intersectables +
+                    ", depth=" + depth +
+                    ", sahCost=" + sahCost +
+                    '}';
+        }
     }
 
     /**
      * Helper class for the BVH binary tree.
      */
-    private static class Node implements Intersectable {
+    static class Node implements Intersectable {
 
         private final Intersectable _left, _right;
         private final BoundingBox _boundingBox;
@@ -100,9 +348,10 @@ public class BVH implements Intersectable {
 
         @Override
         public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance, boolean useBB) {
+            Metrics.count(Metrics.Counter.NODES_VISITED);
             if (useBB) {
                 BoundingBox bb = getBoundingBox();
-                if (bb != null && !bb.isIntersecting(ray)) {
+                if (bb != null && !bb.isIntersecting(ray, maxDistance)) {
                     return null;
                 }
             }
@@ -126,6 +375,77 @@ public class BVH implements Intersectable {
             return findGeoIntersections(ray, maxDistance, false);
         }
 
+        @Override
+        public GeoPoint findClosestIntersection(Ray ray, double maxDistance, boolean useBB) {
+            Metrics.count(Metrics.Counter.NODES_VISITED);
+            if (useBB) {
+                BoundingBox bb = getBoundingBox();
+                if (bb != null && !bb.isIntersecting(ray, maxDistance)) {
+                    return null;
+                }
+            }
+
+            GeoPoint left = _left.findClosestIntersection(ray, maxDistance, useBB);
+            if (left != null) {
+                // The right child can only replace the left intersection with a closer one
+                maxDistance = left.point.distance(ray.getP0());
+            }
+
+            GeoPoint right = _right.findClosestIntersection(ray, maxDistance, useBB);
+            if (right == null) {
+                return left;
+            }
+            if (left == null) {
+                return right;
+            }
+
+            return right.point.distance(ray.getP0()) < maxDistance ? right : left;
+        }
+
+        @Override
+        public GeoPoint findClosestIntersection(Ray ray, double maxDistance) {
+            return findClosestIntersection(ray, maxDistance, false);
+        }
+
+        @Override
+        public double occlusion(Ray ray, double maxDistance, double threshold, boolean useBB) {
+            Metrics.count(Metrics.Counter.NODES_VISITED);
+            if (useBB) {
+                BoundingBox bb = getBoundingBox();
+                if (bb != null && !bb.isIntersecting(ray, maxDistance)) {
+                    return 1.0;
+                }
+            }
+
+            double ktr = _left.occlusion(ray, maxDistance, threshold, useBB);
+            // The left child already blocks the light, no need to check the right one
+            if (ktr < threshold) {
+                return 0.0;
+            }
+
+            ktr *= _right.occlusion(ray, maxDistance, threshold / ktr, useBB);
+            return ktr < threshold ? 0.0 : ktr;
+        }
+
+        @Override
+        public double occlusion(Ray ray, double maxDistance, double threshold) {
+            return occlusion(ray, maxDistance, threshold, false);
+        }
+
+        /**
+         * Returns the left child.
+         */
+        Intersectable getLeft() {
+            return _left;
+        }
+
+        /**
+         * Returns the right child.
+         */
+        Intersectable getRight() {
+            return _right;
+        }
+
         @Override
         public BoundingBox getBoundingBox() {
             return _boundingBox;
@@ -142,6 +142,50 @@ public class Cylinder extends Tube {
         return result;
     }
 
+    @Override
+    public GeoPoint findClosestIntersection(Ray ray, double maxDistance) {
+        Point3D rayP0 = ray.getP0();
+        GeoPoint closest = null;
+
+        // Finds the closest tube's intersection that is on the cylinder
+        List<GeoPoint> tubePoints = super.findGeoIntersections(ray, maxDistance);
+        if (tubePoints != null) {
+            for (GeoPoint q : tubePoints) {
+                if (!isBetweenCaps(q.point)) {
+                    continue;
+                }
+
+                double distance = q.point.distance(rayP0);
+                if (closest == null || distance < maxDistance) {
+                    closest = q;
+                    maxDistance = distance;
+                }
+            }
+        }
+
+        // Checks the caps only for intersections that are closer than the one found so far
+        Point3D p0 = _axisRay.getP0();
+        GeoPoint cap0Point = bottomCap.findClosestIntersection(ray, maxDistance);
+        if (cap0Point != null && cap0Point.point.distanceSquared(p0) < _radius * _radius) {
+            double distance = cap0Point.point.distance(rayP0);
+            if (closest == null || distance < maxDistance) {
+                closest = new GeoPoint(this, cap0Point.point);
+                maxDistance = distance;
+            }
+        }
+
+        Point3D p1 = _axisRay.getPoint(_height);
+        GeoPoint cap1Point = topCap.findClosestIntersection(ray, maxDistance);
+        if (cap1Point != null && cap1Point.point.distanceSquared(p1) < _radius * _radius) {
+            double distance = cap1Point.point.distance(rayP0);
+            if (closest == null || distance < maxDistance) {
+                closest = new GeoPoint(this, cap1Point.point);
+            }
+        }
+
+        return closest;
+    }
+
     /**
      * Helper function that checks if a points is between the two caps (not on them, even on the edge)
      * @param p The point that will be checked.
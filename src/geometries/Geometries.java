@@ -43,6 +43,20 @@ public class Geometries implements Intersectable {
         _bb = createBoundingBox();
     }
 
+    /**
+     * Returns the number of intersectables in the collection.
+     */
+    public int size() {
+        return _intersectables.size();
+    }
+
+    /**
+     * Returns the intersectables in the collection.
+     */
+    public List<Intersectable> getIntersectables() {
+        return _intersectables;
+    }
+
     @Override
     public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
         return findGeoIntersections(ray, maxDistance, false);
@@ -52,7 +66,7 @@ public class Geometries implements Intersectable {
     public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance, boolean useBB) {
         if (useBB) {
             BoundingBox bb = getBoundingBox();
-            if (bb != null && !bb.isIntersecting(ray)) {
+            if (bb != null && !bb.isIntersecting(ray, maxDistance)) {
                 return null;
             }
         }
@@ -80,6 +94,70 @@ public class Geometries implements Intersectable {
         return result;
     }
 
+    @Override
+    public GeoPoint findClosestIntersection(Ray ray, double maxDistance) {
+        return findClosestIntersection(ray, maxDistance, false);
+    }
+
+    @Override
+    public GeoPoint findClosestIntersection(Ray ray, double maxDistance, boolean useBB) {
+        if (useBB) {
+            BoundingBox bb = getBoundingBox();
+            if (bb != null && !bb.isIntersecting(ray, maxDistance)) {
+                return null;
+            }
+        }
+        // The closest geoPoint found so far
+        GeoPoint closest = null;
+
+        // Loops on every intersectable in the list of geometries
+        for (Intersectable intersectable : _intersectables) {
+            GeoPoint gp = intersectable.findClosestIntersection(ray, maxDistance, useBB);
+
+            // If the current intersectable has no intersections, go to the next intersectable
+            if (gp == null) {
+                continue;
+            }
+
+            // Shrinks the max distance, so the next intersectables
+            // will reject every intersection that is farther than the current one
+            double distance = gp.point.distance(ray.getP0());
+            if (closest == null || distance < maxDistance) {
+                closest = gp;
+                maxDistance = distance;
+            }
+        }
+
+        return closest;
+    }
+
+    @Override
+    public double occlusion(Ray ray, double maxDistance, double threshold) {
+        return occlusion(ray, maxDistance, threshold, false);
+    }
+
+    @Override
+    public double occlusion(Ray ray, double maxDistance, double threshold, boolean useBB) {
+        if (useBB) {
+            BoundingBox bb = getBoundingBox();
+            if (bb != null && !bb.isIntersecting(ray, maxDistance)) {
+                return 1.0;
+            }
+        }
+
+        double ktr = 1.0;
+        // Loops on every intersectable and multiplies their transmittance
+        for (Intersectable intersectable : _intersectables) {
+            // The intersectable can stop as soon as it can't keep the total above the threshold
+            ktr *= intersectable.occlusion(ray, maxDistance, threshold / ktr, useBB);
+            if (ktr < threshold) {
+                return 0.0;
+            }
+        }
+
+        return ktr;
+    }
+
     @Override
     public BoundingBox getBoundingBox() {
         return _bb;
@@ -87,9 +165,16 @@ public class Geometries implements Intersectable {
 
     /**
      * Creates a new bounding box that surround the intersectables
-     * @return The Bounding Box
+     * @return The Bounding Box, or null if one of the intersectables has no bounding box (e.g. a plane),
+     * so it is never culled by the box of the others
      */
     private BoundingBox createBoundingBox() {
+        for (Intersectable intersectable : _intersectables) {
+            if (intersectable.getBoundingBox() == null) {
+                return null;
+            }
+        }
+
         return BoundingBox.surround(
                 _intersectables.stream()
                         .map(Intersectable::getBoundingBox)
@@ -2,14 +2,33 @@ package geometries;
 
 import primitives.*;
 
+import java.util.List;
+
 /**
  * An abstract class to represent a geometry.
  */
 public abstract class Geometry implements Intersectable {
-    protected Color _emission = Color.BLACK;
-    protected Material _material = new Material();
+    protected Color _emission;
+    protected Material _material;
     protected BoundingBox _boundingBox;
 
+    /**
+     * Constructs a geometry with black emission and the default material.
+     */
+    protected Geometry() {
+        this(Color.BLACK, new Material());
+    }
+
+    /**
+     * Constructs a geometry with a given emission and material.
+     * @param emission the emission color
+     * @param material the material
+     */
+    protected Geometry(Color emission, Material material) {
+        _emission = emission;
+        _material = material;
+    }
+
     /**
      * Returns a normal for a given point on the geometry.
      * @param point A point on the geometry.
@@ -27,6 +46,8 @@ public abstract class Geometry implements Intersectable {
 
     /**
      * Chaining method for setting the geometry's emission color.
+     * A geometry that is a part of a larger intersectable sets it there too
+     * (e.g. a {@link TriangleMesh.Face} sets it for its triangle in the mesh).
      * @param emission the new emission color to set
      * @return the current geometry
      */
@@ -45,6 +66,8 @@ public abstract class Geometry implements Intersectable {
 
     /**
      * Chaining method for setting the geometry's material.
+     * A geometry that is a part of a larger intersectable sets it there too
+     * (e.g. a {@link TriangleMesh.Face} sets it for its triangle in the mesh).
      * @param material the new material to set
      * @return the current geometry
      */
@@ -53,6 +76,23 @@ public abstract class Geometry implements Intersectable {
         return this;
     }
 
+    @Override
+    public double occlusion(Ray ray, double maxDistance, double threshold) {
+        // An opaque geometry blocks the light with any intersection
+        double kT = _material.kT;
+        if (kT < threshold) {
+            return findClosestIntersection(ray, maxDistance) == null ? 1.0 : 0.0;
+        }
+
+        List<GeoPoint> intersections = findGeoIntersections(ray, maxDistance);
+        if (intersections == null) {
+            return 1.0;
+        }
+
+        double ktr = Math.pow(kT, intersections.size());
+        return ktr < threshold ? 0.0 : ktr;
+    }
+
     @Override
     public BoundingBox getBoundingBox() {
         if (_boundingBox != null) {
@@ -1,11 +1,10 @@
 package geometries;
 
-import primitives.Axis;
 import primitives.BoundingBox;
+import primitives.Metrics;
 import primitives.Point3D;
 import primitives.Ray;
 
-import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -74,14 +73,105 @@ public interface Intersectable {
     default List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance, boolean useBB) {
         if (useBB) {
             BoundingBox bb = getBoundingBox();
-            if (bb != null && !bb.isIntersecting(ray)) {
+            if (bb != null && !bb.isIntersecting(ray, maxDistance)) {
                 return null;
             }
         }
 
+        Metrics.count(Metrics.Counter.PRIMITIVE_TESTS);
         return findGeoIntersections(ray, maxDistance);
     }
 
+    /**
+     * Gives the closest geo point where the given ray is intersecting with the object.
+     * @param ray A ray to check if is intersecting with the object.
+     * @return The closest {@code GeoPoint} to the ray's origin,
+     * or {@code null} if no intersections at all.
+     */
+    default GeoPoint findClosestIntersection(Ray ray) {
+        return findClosestIntersection(ray, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Gives the closest geo point where the given ray is intersecting with the object within the given distance.
+     * @param ray A ray to check if is intersecting with the object.
+     * @param maxDistance the maximum distance of the intersection point
+     * @return The closest {@code GeoPoint} to the ray's origin,
+     * or {@code null} if no intersections at all.
+     */
+    default GeoPoint findClosestIntersection(Ray ray, double maxDistance) {
+        return ray.findClosestGeoPoint(findGeoIntersections(ray, maxDistance));
+    }
+
+    /**
+     * Gives the closest geo point where the given ray is intersecting with the object within the given distance.
+     * Composite objects override it in order to shrink the max distance
+     * every time a closer intersection is found, instead of collecting all the intersections.
+     * @param ray A ray to check if is intersecting with the object.
+     * @param maxDistance the maximum distance of the intersection point
+     * @param useBB whether to check the bounding box before the intersection
+     * @return The closest {@code GeoPoint} to the ray's origin,
+     * or {@code null} if no intersections at all.
+     */
+    default GeoPoint findClosestIntersection(Ray ray, double maxDistance, boolean useBB) {
+        if (useBB) {
+            BoundingBox bb = getBoundingBox();
+            if (bb != null && !bb.isIntersecting(ray, maxDistance)) {
+                return null;
+            }
+        }
+
+        Metrics.count(Metrics.Counter.PRIMITIVE_TESTS);
+        return findClosestIntersection(ray, maxDistance);
+    }
+
+    /**
+     * Calculates how much light passes through the object along the given ray within the given distance.
+     * @param ray A ray from a point towards a light source.
+     * @param maxDistance the distance to the light source
+     * @param threshold the transmittance under which the light is considered fully blocked
+     * @return The product of the transparency ({@code kT}) of all the intersections,
+     * 1 if there are no intersections at all, or 0 if the product is smaller than {@code threshold}.
+     */
+    default double occlusion(Ray ray, double maxDistance, double threshold) {
+        List<GeoPoint> intersections = findGeoIntersections(ray, maxDistance);
+        if (intersections == null) {
+            return 1.0;
+        }
+
+        double ktr = 1.0;
+        for (GeoPoint gp : intersections) {
+            ktr *= gp.geometry.getMaterial().kT;
+            if (ktr < threshold) {
+                return 0.0;
+            }
+        }
+        return ktr;
+    }
+
+    /**
+     * Calculates how much light passes through the object along the given ray within the given distance.
+     * Composite objects override it in order to stop the traversal
+     * as soon as the accumulated transmittance drops below {@code threshold}.
+     * @param ray A ray from a point towards a light source.
+     * @param maxDistance the distance to the light source
+     * @param threshold the transmittance under which the light is considered fully blocked
+     * @param useBB whether to check the bounding box before the intersection
+     * @return The product of the transparency ({@code kT}) of all the intersections,
+     * 1 if there are no intersections at all, or 0 if the product is smaller than {@code threshold}.
+     */
+    default double occlusion(Ray ray, double maxDistance, double threshold, boolean useBB) {
+        if (useBB) {
+            BoundingBox bb = getBoundingBox();
+            if (bb != null && !bb.isIntersecting(ray, maxDistance)) {
+                return 1.0;
+            }
+        }
+
+        Metrics.count(Metrics.Counter.PRIMITIVE_TESTS);
+        return occlusion(ray, maxDistance, threshold);
+    }
+
     /**
      * Gets the boundingBox surrounding the object
      * @return The bounding box
@@ -101,25 +191,4 @@ public interface Intersectable {
 
         return bb.getCenter();
     }
-
-    /**
-     * Creates a comparator between intersectables' bounding boxes' center by a given axis.
-     * @param axis the axis to compare between the bounding boxes.
-     * @return the created comparator.
-     */
-    static Comparator<Intersectable> getComparatorByAxis(Axis axis) {
-        return (bb1, bb2) -> {
-            Point3D center1 = bb1.getBoundingBoxCenter();
-            if (center1 == null) {
-                return 0;
-            }
-
-            Point3D center2 = bb2.getBoundingBoxCenter();
-            if (center2 == null) {
-                return 0;
-            }
-
-            return Double.compare(center1.get(axis), center2.get(axis));
-        };
-    }
 }
@@ -0,0 +1,547 @@
+package geometries;
+
+import primitives.BoundingBox;
+import primitives.Metrics;
+import primitives.Point3D;
+import primitives.Ray;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Bounded Volume Hierarchy stored in linear arrays.
+ * The binary tree of a {@link BVH} is flattened in depth first order,
+ * so the first child of a node is always right after it and only the index of the second child is saved.
+ * The traversal is iterative with an explicit stack of node indices,
+ * it checks the bounds of both children of a node, visits the child that the ray enters first,
+ * and skips every node that is farther than the closest intersection found so far.
+ * Source: https://pbr-book.org/3ed-2018/Primitives_and_Intersection_Acceleration/Bounding_Volume_Hierarchies#CompactBVHForTraversal
+ */
+public class LinearBVH implements Intersectable {
+    /**
+     * The count of an inner node (a leaf's count is the number of its intersectables).
+     */
+    static final int INNER_NODE = -1;
+
+    /**
+     * The bounds of every node - (minX, minY, minZ, maxX, maxY, maxZ).
+     */
+    private final double[] _bounds;
+    /**
+     * Every node is saved as (count, offset):
+     * for a leaf - the number of intersectables and the offset of the first one in {@code _intersectables},
+     * for an inner node - {@code INNER_NODE} and the index of the second child.
+     */
+    private final int[] _nodes;
+    /**
+     * The intersectables of all the leaves, every leaf has a continuous range.
+     */
+    private final Intersectable[] _intersectables;
+    /**
+     * Intersectables without a bounding box (e.g. planes), which are checked on every ray.
+     */
+    private final Intersectable[] _unbounded;
+    private final BoundingBox _boundingBox;
+    private final int _depth;
+
+    private int _nodeCount = 0;
+    private int _intersectableCount = 0;
+    private int _maxDepth = 0;
+
+    /**
+     * Constructs the BVH from a given intersectables.
+     * Splits the intersectables at the median.
+     */
+    public LinearBVH(Intersectable... intersectables) {
+        this(BVH.SplitMethod.MEDIAN, intersectables);
+    }
+
+    /**
+     * Constructs the BVH from a given intersectables with a given split method.
+     */
+    public LinearBVH(BVH.SplitMethod splitMethod, Intersectable... intersectables) {
+        this(buildRoot(splitMethod, intersectables), filterUnbounded(intersectables));
+    }
+
+    /**
+     * Constructs the BVH by flattening the tree of an existing {@link BVH}.
+     * The BVH's intersectables without a bounding box stay out of the tree, as they are in the BVH.
+     */
+    public LinearBVH(BVH bvh) {
+        this(bvh.getRoot(), bvh.getUnbounded().clone());
+    }
+
+    /**
+     * Constructs the BVH from an already flattened tree (e.g. of a saved scene) without building it.
+     * The arrays are used as is without copying.
+     * @param bounds the bounds of every node, see {@link #getBounds()}
+     * @param nodes the (count, offset) of every node, see {@link #getNodes()}
+     * @param intersectables the intersectables of all the leaves
+     * @param unbounded the intersectables without a bounding box
+     * @exception IllegalArgumentException When the nodes aren't a tree in depth first order
+     * or a leaf's range isn't in the intersectables
+     */
+    public LinearBVH(double[] bounds, int[] nodes, Intersectable[] intersectables, Intersectable[] unbounded) {
+        if (nodes.length % 2 != 0 || bounds.length != nodes.length * 3) {
+            throw new IllegalArgumentException("Every node should have 6 bounds and 2 values");
+        }
+
+        _bounds = bounds;
+        _nodes = nodes;
+        _intersectables = intersectables;
+        _unbounded = unbounded;
+        _depth = nodes.length == 0 ? 0 : checkTree(nodes, intersectables.length);
+        _boundingBox = unbounded.length == 0 ? createBoundingBox(bounds) : null;
+    }
+
+    /**
+     * Helper constructor that flattens a tree.
+     * @param root the root of the tree, null when there are no bounded intersectables
+     * @param unbounded the intersectables without a bounding box
+     */
+    private LinearBVH(Intersectable root, Intersectable[] unbounded) {
+        _unbounded = unbounded;
+        if (root == null) {
+            _bounds = new double[0];
+            _nodes = new int[0];
+            _intersectables = new Intersectable[0];
+            _boundingBox = null;
+            _depth = 0;
+            return;
+        }
+
+        // Allocates the arrays by the size of the tree
+        int[] sizes = new int[2];
+        countNodes(root, sizes);
+        _bounds = new double[sizes[0] * 6];
+        _nodes = new int[sizes[0] * 2];
+        _intersectables = new Intersectable[sizes[1]];
+
+        flatten(root, 1);
+        _depth = _maxDepth;
+        _boundingBox = _unbounded.length == 0 ? createBoundingBox(_bounds) : null;
+    }
+
+    /**
+     * Helper function that builds the tree of the intersectables that have a bounding box.
+     * @return the root of the tree, or null if none of the intersectables has a bounding box
+     */
+    private static Intersectable buildRoot(BVH.SplitMethod splitMethod, Intersectable[] intersectables) {
+        List<Intersectable> bounded = new ArrayList<>(intersectables.length);
+        for (Intersectable intersectable : intersectables) {
+            if (intersectable.getBoundingBox() != null) {
+                bounded.add(intersectable);
+            }
+        }
+        return bounded.isEmpty() ? null : new BVH(splitMethod, bounded.toArray(Intersectable[]::new)).getRoot();
+    }
+
+    /**
+     * Helper function that returns the intersectables that have no bounding box.
+     */
+    private static Intersectable[] filterUnbounded(Intersectable[] intersectables) {
+        List<Intersectable> unbounded = new ArrayList<>();
+        for (Intersectable intersectable : intersectables) {
+            if (intersectable.getBoundingBox() == null) {
+                unbounded.add(intersectable);
+            }
+        }
+        return unbounded.toArray(Intersectable[]::new);
+    }
+
+    /**
+     * Helper function that creates the bounding box of the root.
+     * @return the bounding box, or null if there are no nodes or the root's bounds are infinite
+     */
+    private static BoundingBox createBoundingBox(double[] bounds) {
+        if (bounds.length == 0) {
+            return null;
+        }
+        for (int i = 0; i < 6; ++i) {
+            if (Double.isInfinite(bounds[i])) {
+                return null;
+            }
+        }
+        return new BoundingBox(new Point3D(bounds[0], bounds[1], bounds[2]), new Point3D(bounds[3], bounds[4], bounds[5]));
+    }
+
+    /**
+     * Checks that the nodes are a binary tree in depth first order (the first child of a node is right after it),
+     * and that the range of every leaf is in the primitives.
+     * @param nodes the (count, offset) of every node
+     * @param primitives the number of the leaves' primitives
+     * @return the number of levels of the tree
+     * @exception IllegalArgumentException When the nodes aren't a valid tree
+     */
+    static int checkTree(int[] nodes, int primitives) {
+        int nodeCount = nodes.length / 2;
+        int[] stack = new int[nodeCount * 2];
+        int size = 0;
+        int next = 0;
+        int depth = 0;
+
+        // Visits the nodes in depth first order, every node should be the next one
+        stack[size++] = 0;
+        stack[size++] = 1;
+        while (size > 0) {
+            int nodeDepth = stack[--size];
+            int node = stack[--size];
+            if (node != next++) {
+                throw new IllegalArgumentException("Node " + node + " isn't in depth first order");
+            }
+            depth = Math.max(depth, nodeDepth);
+
+            int count = nodes[node * 2];
+            int offset = nodes[node * 2 + 1];
+            if (count == INNER_NODE) {
+                if (offset <= node + 1 || offset >= nodeCount) {
+                    throw new IllegalArgumentException("Node " + node + " has no second child " + offset);
+                }
+                stack[size++] = offset;
+                stack[size++] = nodeDepth + 1;
+                stack[size++] = node + 1;
+                stack[size++] = nodeDepth + 1;
+            } else if (count < 0 || offset < 0 || offset > primitives - count) {
+                throw new IllegalArgumentException("Leaf " + node + " isn't in the range of the primitives");
+            }
+        }
+
+        if (next != nodeCount) {
+            throw new IllegalArgumentException("Not all the nodes are in the tree");
+        }
+        return depth;
+    }
+
+    /**
+     * Helper function that counts the nodes and the leaves' intersectables of the given subtree.
+     * @param intersectable the root of the subtree
+     * @param sizes (number of nodes, number of intersectables) to add the counts to
+     */
+    private static void countNodes(Intersectable intersectable, int[] sizes) {
+        sizes[0]++;
+        if (intersectable instanceof BVH.Node) {
+            BVH.Node node = (BVH.Node) intersectable;
+            countNodes(node.getLeft(), sizes);
+            countNodes(node.getRight(), sizes);
+        } else if (intersectable instanceof Geometries) {
+            sizes[1] += ((Geometries) intersectable).size();
+        } else {
+            sizes[1]++;
+        }
+    }
+
+    /**
+     * Helper function that saves the given subtree in the arrays in depth first order.
+     * @param intersectable the root of the subtree
+     * @param depth the depth of the subtree's root
+     * @return the index of the subtree's root
+     */
+    private int flatten(Intersectable intersectable, int depth) {
+        int index = _nodeCount++;
+        _maxDepth = Math.max(_maxDepth, depth);
+        double[] bounds = getBounds(intersectable);
+        System.arraycopy(bounds, 0, _bounds, index * 6, 6);
+
+        if (intersectable instanceof BVH.Node) {
+            BVH.Node node = (BVH.Node) intersectable;
+            _nodes[index * 2] = INNER_NODE;
+            flatten(node.getLeft(), depth + 1);
+            _nodes[index * 2 + 1] = flatten(node.getRight(), depth + 1);
+            return index;
+        }
+
+        // Saves the leaf's intersectables
+        _nodes[index * 2 + 1] = _intersectableCount;
+        if (intersectable instanceof Geometries) {
+            for (Intersectable child : ((Geometries) intersectable).getIntersectables()) {
+                _intersectables[_intersectableCount++] = child;
+            }
+        } else {
+            _intersectables[_intersectableCount++] = intersectable;
+        }
+        _nodes[index * 2] = _intersectableCount - _nodes[index * 2 + 1];
+        return index;
+    }
+
+    /**
+     * Gets the bounds of an intersectable as (minX, minY, minZ, maxX, maxY, maxZ).
+     * Infinite bounds when it has no bounding box.
+     */
+    private static double[] getBounds(Intersectable intersectable) {
+        BoundingBox bb = intersectable.getBoundingBox();
+        if (bb == null) {
+            double inf = Double.POSITIVE_INFINITY;
+            return new double[]{-inf, -inf, -inf, inf, inf, inf};
+        }
+
+        Point3D min = bb.getMin();
+        Point3D max = bb.getMax();
+        return new double[]{min.getX(), min.getY(), min.getZ(), max.getX(), max.getY(), max.getZ()};
+    }
+
+    /**
+     * Helper function that calculates the distance where a ray enters the bounds of a node.
+     * @param node the index of the node
+     * @param ray the ray to check
+     * @param maxDistance the maximum distance of the intersection
+     * @return the entry distance in range [0, maxDistance], or {@link BoundingBox#MISS} if the ray misses the node
+     */
+    private double intersectNode(int node, Ray ray, double maxDistance) {
+        return BoundingBox.intersect(_bounds, node * 6, ray, 0, maxDistance);
+    }
+
+    @Override
+    public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance, boolean useBB) {
+        List<GeoPoint> result = null;
+        for (Intersectable intersectable : _unbounded) {
+            result = addAll(result, intersectable.findGeoIntersections(ray, maxDistance, useBB));
+        }
+
+        if (!useBB) {
+            for (Intersectable intersectable : _intersectables) {
+                result = addAll(result, intersectable.findGeoIntersections(ray, maxDistance, false));
+            }
+            return result;
+        }
+
+        if (_nodes.length == 0) {
+            return result;
+        }
+
+        TraversalStack stack = TraversalStack.get();
+        int bottom = stack.begin(_depth);
+        try {
+            int node = intersectNode(0, ray, maxDistance) == BoundingBox.MISS ? -1 : 0;
+            while (node >= 0) {
+                int count = _nodes[node * 2];
+                if (count == INNER_NODE) {
+                    Metrics.count(Metrics.Counter.NODES_VISITED);
+                    node = stack.descend(_bounds, _nodes, node, ray, maxDistance);
+                    continue;
+                }
+
+                int offset = _nodes[node * 2 + 1];
+                for (int i = offset; i < offset + count; ++i) {
+                    // A nested hierarchy alone in a leaf still needs its own bounding boxes
+                    result = addAll(result, _intersectables[i].findGeoIntersections(ray, maxDistance, true));
+                }
+
+                node = stack.pop(maxDistance);
+            }
+        } finally {
+            stack.end(bottom);
+        }
+
+        return result;
+    }
+
+    /**
+     * Helper function that adds the intersections to the result list.
+     * @return the result list, created if needed
+     */
+    private static List<GeoPoint> addAll(List<GeoPoint> result, List<GeoPoint> intersections) {
+        if (intersections == null) {
+            return result;
+        }
+
+        if (result == null) {
+            result = new LinkedList<>();
+        }
+        result.addAll(intersections);
+        return result;
+    }
+
+    @Override
+    public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+        return findGeoIntersections(ray, maxDistance, false);
+    }
+
+    @Override
+    public GeoPoint findClosestIntersection(Ray ray, double maxDistance, boolean useBB) {
+        Point3D p0 = ray.getP0();
+        GeoPoint closest = null;
+        for (Intersectable intersectable : _unbounded) {
+            GeoPoint gp = intersectable.findClosestIntersection(ray, maxDistance, useBB);
+            if (gp != null) {
+                double distance = gp.point.distance(p0);
+                if (closest == null || distance < maxDistance) {
+                    closest = gp;
+                    maxDistance = distance;
+                }
+            }
+        }
+
+        if (!useBB) {
+            for (Intersectable intersectable : _intersectables) {
+                GeoPoint gp = intersectable.findClosestIntersection(ray, maxDistance, false);
+                if (gp != null) {
+                    double distance = gp.point.distance(p0);
+                    if (closest == null || distance < maxDistance) {
+                        closest = gp;
+                        maxDistance = distance;
+                    }
+                }
+            }
+            return closest;
+        }
+
+        if (_nodes.length == 0) {
+            return closest;
+        }
+
+        TraversalStack stack = TraversalStack.get();
+        int bottom = stack.begin(_depth);
+        try {
+            int node = intersectNode(0, ray, maxDistance) == BoundingBox.MISS ? -1 : 0;
+            while (node >= 0) {
+                int count = _nodes[node * 2];
+                if (count == INNER_NODE) {
+                    Metrics.count(Metrics.Counter.NODES_VISITED);
+                    node = stack.descend(_bounds, _nodes, node, ray, maxDistance);
+                    continue;
+                }
+
+                int offset = _nodes[node * 2 + 1];
+                for (int i = offset; i < offset + count; ++i) {
+                    // A nested hierarchy alone in a leaf still needs its own bounding boxes
+                    GeoPoint gp = _intersectables[i].findClosestIntersection(ray, maxDistance, true);
+                    if (gp == null) {
+                        continue;
+                    }
+
+                    double distance = gp.point.distance(p0);
+                    if (closest == null || distance < maxDistance) {
+                        closest = gp;
+                        maxDistance = distance;
+                    }
+                }
+
+                // Skips the nodes that are farther than the closest intersection found so far
+                node = stack.pop(maxDistance);
+            }
+        } finally {
+            stack.end(bottom);
+        }
+
+        return closest;
+    }
+
+    @Override
+    public GeoPoint findClosestIntersection(Ray ray, double maxDistance) {
+        return findClosestIntersection(ray, maxDistance, false);
+    }
+
+    @Override
+    public double occlusion(Ray ray, double maxDistance, double threshold, boolean useBB) {
+        double ktr = 1.0;
+        for (Intersectable intersectable : _unbounded) {
+            ktr *= intersectable.occlusion(ray, maxDistance, threshold / ktr, useBB);
+            if (ktr < threshold) {
+                return 0.0;
+            }
+        }
+
+        if (!useBB) {
+            for (Intersectable intersectable : _intersectables) {
+                ktr *= intersectable.occlusion(ray, maxDistance, threshold / ktr, false);
+                if (ktr < threshold) {
+                    return 0.0;
+                }
+            }
+            return ktr;
+        }
+
+        if (_nodes.length == 0) {
+            return ktr;
+        }
+
+        TraversalStack stack = TraversalStack.get();
+        int bottom = stack.begin(_depth);
+        try {
+            int node = intersectNode(0, ray, maxDistance) == BoundingBox.MISS ? -1 : 0;
+            while (node >= 0) {
+                int count = _nodes[node * 2];
+                if (count == INNER_NODE) {
+                    Metrics.count(Metrics.Counter.NODES_VISITED);
+                    node = stack.descend(_bounds, _nodes, node, ray, maxDistance);
+                    continue;
+                }
+
+                int offset = _nodes[node * 2 + 1];
+                for (int i = offset; i < offset + count; ++i) {
+                    // A nested hierarchy alone in a leaf still needs its own bounding boxes
+                    ktr *= _intersectables[i].occlusion(ray, maxDistance, threshold / ktr, true);
+                    // Stops on the first blocking objects that reduce the transmittance under the threshold
+                    if (ktr < threshold) {
+                        return 0.0;
+                    }
+                }
+
+                node = stack.pop(maxDistance);
+            }
+        } finally {
+            stack.end(bottom);
+        }
+
+        return ktr;
+    }
+
+    @Override
+    public double occlusion(Ray ray, double maxDistance, double threshold) {
+        return occlusion(ray, maxDistance, threshold, false);
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return _boundingBox;
+    }
+
+    /**
+     * Returns the number of nodes in the tree.
+     */
+    public int getNodeCount() {
+        return _nodes.length / 2;
+    }
+
+    /**
+     * Returns the number of levels of the tree.
+     */
+    public int getDepth() {
+        return _depth;
+    }
+
+    /**
+     * Returns the bounds of every node - (minX, minY, minZ, maxX, maxY, maxZ).
+     * The array itself is returned for saving the tree, it must not be modified.
+     */
+    public double[] getBounds() {
+        return _bounds;
+    }
+
+    /**
+     * Returns the (count, offset) of every node:
+     * for a leaf - the number of intersectables and the offset of the first one in {@link #getIntersectables()},
+     * for an inner node - -1 and the index of the second child (the first child is right after the node).
+     * The array itself is returned for saving the tree, it must not be modified.
+     */
+    public int[] getNodes() {
+        return _nodes;
+    }
+
+    /**
+     * Returns the intersectables of all the leaves, every leaf has a continuous range.
+     * The array itself is returned for saving the tree, it must not be modified.
+     */
+    public Intersectable[] getIntersectables() {
+        return _intersectables;
+    }
+
+    /**
+     * Returns the intersectables without a bounding box, which are checked on every ray.
+     * The array itself is returned for saving the tree, it must not be modified.
+     */
+    public Intersectable[] getUnbounded() {
+        return _unbounded;
+    }
+}
@@ -0,0 +1,58 @@
+package geometries;
+
+/**
+ * Builds a binary tree for the BVH by splitting every node at the median center, cycling the axes X->Y->Z.
+ * The first half (rounded up) of the primitives by their centers goes to the first child,
+ * and every leaf has a single primitive. The median is found by selection in place on the centers,
+ * without sorting and without comparing objects.
+ * Source: https://en.wikipedia.org/wiki/Quickselect
+ */
+class MedianBuilder extends TreeBuilder {
+    /**
+     * Constructs the builder over the bounds of the primitives, see {@link TreeBuilder}.
+     */
+    MedianBuilder(double[] bounds, double[] centers) {
+        super(bounds, centers);
+    }
+
+    @Override
+    int split(int start, int end, int depth) {
+        int mid = start + (end - start + 1) / 2;
+        select(start, end - 1, mid - 1, depth % 3);
+        return mid;
+    }
+
+    /**
+     * Partitions the given range in place, so the primitive at position k is the one that would be there if the range
+     * was sorted by the centers on the axis, no primitive before it is greater and no primitive after it is smaller.
+     * @param left the first index of the range (inclusive)
+     * @param right the last index of the range (inclusive)
+     * @param k the position to select
+     * @param axis the axis of the centers
+     */
+    private void select(int left, int right, int k, int axis) {
+        while (left < right) {
+            double pivot = _centers[k * 3 + axis];
+            int i = left, j = right;
+            do {
+                while (_centers[i * 3 + axis] < pivot) {
+                    i++;
+                }
+                while (pivot < _centers[j * 3 + axis]) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            } while (i <= j);
+
+            // Continues on the part that has position k, unless k is between the parts
+            if (j < k) {
+                left = i;
+            }
+            if (k < i) {
+                right = j;
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package geometries;
 
 import primitives.Point3D;
 import primitives.Ray;
+import primitives.Vec3;
 import primitives.Vector;
 
 import java.util.List;
@@ -72,6 +73,13 @@ public class Plane extends Geometry {
 
     @Override
     public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+        // A plane has at most one intersection, which is also the closest one
+        GeoPoint gp = findClosestIntersection(ray, maxDistance);
+        return gp == null ? null : List.of(gp);
+    }
+
+    @Override
+    public GeoPoint findClosestIntersection(Ray ray, double maxDistance) {
         //source: https://imgur.com/QwKWg10
 
         // Checks if the ray is starting on the plane's point (q0)
@@ -81,7 +89,7 @@ public class Plane extends Geometry {
         }
 
         // Checks if the ray is starting on the plane
-        double nQMinusP0 = _normal.dotProduct(_q0.subtract(p0));
+        double nQMinusP0 = new Vec3().setSubtract(_q0, p0).dotProduct(_normal);
         if (isZero(nQMinusP0)) {
             return null;
         }
@@ -97,7 +105,7 @@ public class Plane extends Geometry {
         // Finds the distance from the ray's point to the intersection point
         double t = alignZero(nQMinusP0 / nv);
         if (t > 0 && alignZero(t - maxDistance) <= 0) {
-            return List.of(new GeoPoint(this, ray.getPoint(t)));
+            return new GeoPoint(this, ray.getPoint(t));
         }
 
         // Gets here when the intersection is behind the ray,
@@ -83,6 +83,14 @@ public class Polygon extends Geometry {
 		}
 	}
 
+	/**
+	 * Returns the polygon's vertices.
+	 * @return The vertices in their order by edge path.
+	 */
+	public List<Point3D> getVertices() {
+		return _vertices;
+	}
+
 	@Override
 	public Vector getNormal(Point3D point) {
 		//return plane.getNormal();
@@ -91,10 +99,17 @@ public class Polygon extends Geometry {
 
 	@Override
 	public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+		// A polygon has at most one intersection, which is also the closest one
+		GeoPoint gp = findClosestIntersection(ray, maxDistance);
+		return gp == null ? null : List.of(gp);
+	}
+
+	@Override
+	public GeoPoint findClosestIntersection(Ray ray, double maxDistance) {
 	    // source: https://imgur.com/OTv37br
 
-		// Finds Plane's intersections
-		List<GeoPoint> result = _plane.findGeoIntersections(ray, maxDistance);
+		// Finds Plane's intersection
+		GeoPoint result = _plane.findClosestIntersection(ray, maxDistance);
 		// If the plane has no intersections - the polygon has none too
 		if (result == null) {
 			return null;
@@ -105,22 +120,24 @@ public class Polygon extends Geometry {
 		Point3D p0 = ray.getP0();
 		Vector v = ray.getDir();
 
-		Vector v1 = _vertices.get(numVertices - 1).subtract(p0);
-		Vector v2 = _vertices.get(0).subtract(p0);
-		Vector n = v1.crossProduct(v2).normalize();
-		double vn = v.dotProduct(n);
-		if (isZero(vn)) {
+		// Reuses the same vectors for all the edges instead of allocating new ones
+		Vec3 v1 = new Vec3().setSubtract(_vertices.get(numVertices - 1), p0);
+		Vec3 v2 = new Vec3().setSubtract(_vertices.get(0), p0);
+		Vec3 n = new Vec3().setCrossProduct(v1, v2).normalize();
+		double vn = n.dotProduct(v);
+		// NaN when the ray's origin is on the line of the edge
+		if (isZero(vn) || Double.isNaN(vn)) {
 			return null;
 		}
 
 		boolean isPositive = vn > 0;
 		for (int i = 1; i < numVertices; ++i) {
-			v1 = v2;
-			v2 = _vertices.get(i).subtract(p0);
-			n = v1.crossProduct(v2).normalize();
-			vn = v.dotProduct(n);
+			v1.set(v2);
+			v2.setSubtract(_vertices.get(i), p0);
+			n.setCrossProduct(v1, v2).normalize();
+			vn = n.dotProduct(v);
 
-			if (isZero(vn)) {
+			if (isZero(vn) || Double.isNaN(vn)) {
 				return null;
 			}
 
@@ -129,7 +146,7 @@ public class Polygon extends Geometry {
 			}
 		}
 
-		return List.of(new GeoPoint(this, result.get(0).point));
+		return new GeoPoint(this, result.point);
 	}
 
 	@Override
@@ -0,0 +1,217 @@
+package geometries;
+
+import java.util.Arrays;
+
+/**
+ * Builds a binary tree for the BVH by the Surface Area Heuristic (SAH).
+ * Every node is split on the axis and position with the lowest expected traversal cost,
+ * estimated by binning the centers of the bounding boxes.
+ * When splitting a node costs more than intersecting all of its intersectables,
+ * a leaf with multiple intersectables is created instead.
+ * All three axes are binned in a single pass over the node's range.
+ * Source: https://pbr-book.org/3ed-2018/Primitives_and_Intersection_Acceleration/Bounding_Volume_Hierarchies
+ */
+class SAHBuilder extends TreeBuilder {
+    /**
+     * The cost of traversing a node, relative to the cost of an intersection test.
+     */
+    static final double TRAVERSAL_COST = 0.125;
+    /**
+     * The cost of an intersection test with a single intersectable.
+     */
+    static final double INTERSECTION_COST = 1;
+
+    private static final int BINS = 12;
+    private static final int MAX_LEAF_SIZE = 4;
+
+    /**
+     * Constructs the builder over the bounds of the primitives, see {@link TreeBuilder}.
+     */
+    SAHBuilder(double[] bounds, double[] centers) {
+        super(bounds, centers);
+    }
+
+    /**
+     * The arrays of a split, reused by every split on the same thread.
+     */
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    @Override
+    int split(int start, int end, int depth) {
+        int count = end - start;
+        Scratch scratch = SCRATCH.get();
+
+        // Finds the bounds of the node and the bounds of the centers
+        double[] nodeBounds = clear(scratch.nodeBounds, 1);
+        double[] centerBounds = clear(scratch.centerBounds, 1);
+        for (int i = start; i < end; ++i) {
+            grow(nodeBounds, 0, _bounds, i * 6);
+            for (int axis = 0; axis < 3; ++axis) {
+                double center = _centers[i * 3 + axis];
+                if (center < centerBounds[axis]) {
+                    centerBounds[axis] = center;
+                }
+                if (center > centerBounds[axis + 3]) {
+                    centerBounds[axis + 3] = center;
+                }
+            }
+        }
+        double nodeArea = surfaceArea(nodeBounds, 0);
+
+        // Puts every primitive in a bin of every axis by its center, the bins of axis a are [a * BINS, (a + 1) * BINS)
+        int[] binCounts = scratch.binCounts;
+        double[] binBounds = clear(scratch.binBounds, 3 * BINS);
+        Arrays.fill(binCounts, 0);
+        for (int i = start; i < end; ++i) {
+            for (int axis = 0; axis < 3; ++axis) {
+                double extent = centerBounds[axis + 3] - centerBounds[axis];
+                if (extent <= 0) {
+                    continue;
+                }
+
+                int b = axis * BINS + findBin(_centers[i * 3 + axis], centerBounds[axis], extent);
+                binCounts[b]++;
+                grow(binBounds, b * 6, _bounds, i * 6);
+            }
+        }
+
+        // Finds the split with the lowest cost over all axes
+        int bestAxis = -1, bestBin = -1;
+        double bestCost = Double.POSITIVE_INFINITY;
+        double[] rightAreas = scratch.rightAreas;
+        int[] rightCounts = scratch.rightCounts;
+        double[] accumulated = scratch.accumulated;
+        for (int axis = 0; axis < 3; ++axis) {
+            if (centerBounds[axis + 3] - centerBounds[axis] <= 0) {
+                continue;
+            }
+            int first = axis * BINS;
+
+            // Sweeps from the right to save the area and count right of every split
+            clear(accumulated, 1);
+            int accumulatedCount = 0;
+            for (int b = BINS - 1; b > 0; --b) {
+                grow(accumulated, 0, binBounds, (first + b) * 6);
+                accumulatedCount += binCounts[first + b];
+                rightAreas[b] = surfaceArea(accumulated, 0);
+                rightCounts[b] = accumulatedCount;
+            }
+
+            // Sweeps from the left and calculates the cost of splitting between bin b - 1 and bin b
+            clear(accumulated, 1);
+            accumulatedCount = 0;
+            for (int b = 1; b < BINS; ++b) {
+                grow(accumulated, 0, binBounds, (first + b - 1) * 6);
+                accumulatedCount += binCounts[first + b - 1];
+                if (accumulatedCount == 0 || rightCounts[b] == 0) {
+                    continue;
+                }
+
+                double cost = TRAVERSAL_COST + INTERSECTION_COST *
+                        (surfaceArea(accumulated, 0) * accumulatedCount + rightAreas[b] * rightCounts[b]) / nodeArea;
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestAxis = axis;
+                    bestBin = b;
+                }
+            }
+        }
+
+        // Creates a leaf when splitting isn't worth it
+        double leafCost = INTERSECTION_COST * count;
+        if (count <= MAX_LEAF_SIZE && (bestAxis == -1 || bestCost >= leafCost)) {
+            return -1;
+        }
+
+        if (bestAxis == -1) {
+            // All the centers are the same, splits the range in the middle
+            return start + count / 2;
+        }
+        return partition(start, end, bestAxis, bestBin, centerBounds[bestAxis],
+                centerBounds[bestAxis + 3] - centerBounds[bestAxis]);
+    }
+
+    /**
+     * Partitions the given range in place, so the primitives that are in the bins before {@code splitBin} will come first.
+     * @return the index of the first primitive of the second part
+     */
+    private int partition(int start, int end, int axis, int splitBin, double min, double extent) {
+        int mid = start;
+        for (int i = start; i < end; ++i) {
+            if (findBin(_centers[i * 3 + axis], min, extent) < splitBin) {
+                if (i != mid) {
+                    swap(i, mid);
+                }
+                mid++;
+            }
+        }
+        return mid;
+    }
+
+    /**
+     * Finds the bin of a given center on an axis.
+     */
+    private static int findBin(double center, double min, double extent) {
+        int b = (int) (BINS * (center - min) / extent);
+        return Math.min(b, BINS - 1);
+    }
+
+    /**
+     * Grows the bounds at the given offset to surround the bounds at the offset of the other array.
+     * Compares directly instead of {@link Math#min(double, double)}, since the bounds are never NaN.
+     */
+    private static void grow(double[] bounds, int offset, double[] other, int otherOffset) {
+        for (int axis = 0; axis < 3; ++axis) {
+            double min = other[otherOffset + axis];
+            double max = other[otherOffset + 3 + axis];
+            if (min < bounds[offset + axis]) {
+                bounds[offset + axis] = min;
+            }
+            if (max > bounds[offset + 3 + axis]) {
+                bounds[offset + 3 + axis] = max;
+            }
+        }
+    }
+
+    /**
+     * Sets the given number of bounds in the array to surround nothing.
+     * @return the array
+     */
+    private static double[] clear(double[] bounds, int count) {
+        double inf = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < count; ++i) {
+            for (int axis = 0; axis < 3; ++axis) {
+                bounds[i * 6 + axis] = inf;
+                bounds[i * 6 + 3 + axis] = -inf;
+            }
+        }
+        return bounds;
+    }
+
+    /**
+     * Calculates the surface area of the bounds at the given offset (0 for empty bounds).
+     */
+    private static double surfaceArea(double[] bounds, int offset) {
+        if (bounds[offset] > bounds[offset + 3]) {
+            return 0;
+        }
+
+        double dx = bounds[offset + 3] - bounds[offset];
+        double dy = bounds[offset + 4] - bounds[offset + 1];
+        double dz = bounds[offset + 5] - bounds[offset + 2];
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    /**
+     * The arrays of a split.
+     */
+    private static final class Scratch {
+        final double[] nodeBounds = new double[6];
+        final double[] centerBounds = new double[6];
+        final int[] binCounts = new int[3 * BINS];
+        final double[] binBounds = new double[3 * BINS * 6];
+        final double[] rightAreas = new double[BINS];
+        final int[] rightCounts = new int[BINS];
+        final double[] accumulated = new double[6];
+    }
+}
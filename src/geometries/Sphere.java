@@ -3,6 +3,7 @@ package geometries;
 import primitives.BoundingBox;
 import primitives.Point3D;
 import primitives.Ray;
+import primitives.Vec3;
 import primitives.Vector;
 
 import java.util.List;
@@ -65,7 +66,7 @@ public class Sphere extends Geometry {
             return List.of(new GeoPoint(this, p1));
         }
 
-        Vector u = _center.subtract(p0);
+        Vec3 u = new Vec3().setSubtract(_center, p0);
         double tm = u.dotProduct(v);
         double dSquared = u.lengthSquared() - tm * tm;
         double thSquared = alignZero(_radius * _radius - dSquared);
@@ -81,7 +82,7 @@ public class Sphere extends Geometry {
 
         if (t1 > 0 && t2 > 0 && alignZero(t1 - maxDistance) <= 0 && alignZero(t2 - maxDistance) <= 0) {
             Point3D p1 = ray.getPoint(t1);
-            Point3D p2 = p0.add(v.scale(t2));
+            Point3D p2 = ray.getPoint(t2);
             return List.of(new GeoPoint(this,p1), new GeoPoint(this,p2));
         }
 
@@ -97,6 +98,40 @@ public class Sphere extends Geometry {
         return null;
     }
 
+    @Override
+    public GeoPoint findClosestIntersection(Ray ray, double maxDistance) {
+        // source: https://imgur.com/Zh4CSDU
+
+        Point3D p0 = ray.getP0();
+        Vector v = ray.getDir();
+        // When the ray starts on the center, there is only one intersection
+        if (p0.equals(_center)) {
+            return alignZero(_radius - maxDistance) <= 0 ? new GeoPoint(this, ray.getPoint(_radius)) : null;
+        }
+
+        Vec3 u = new Vec3().setSubtract(_center, p0);
+        double tm = u.dotProduct(v);
+        double dSquared = u.lengthSquared() - tm * tm;
+        double thSquared = alignZero(_radius * _radius - dSquared);
+
+        // d is greater or equals to r
+        if (thSquared <= 0) {
+            return null;
+        }
+
+        double th = Math.sqrt(thSquared);
+        double t1 = alignZero(tm + th);
+        double t2 = alignZero(tm - th);
+
+        // t2 is always smaller than t1, so it is the closest one when it is in front of the ray
+        double t = t2 > 0 ? t2 : t1;
+        if (t > 0 && alignZero(t - maxDistance) <= 0) {
+            return new GeoPoint(this, ray.getPoint(t));
+        }
+
+        return null;
+    }
+
     @Override
     protected BoundingBox calculateBoundingBox() {
         return new BoundingBox(
@@ -0,0 +1,115 @@
+package geometries;
+
+import primitives.BoundingBox;
+import primitives.Ray;
+
+import java.util.Arrays;
+
+/**
+ * Stack of the nodes of a flattened hierarchy that are left to visit, with the distance where the ray enters each of them.
+ * The hierarchy is saved in depth first order as in {@link LinearBVH} - the bounds of every node
+ * are 6 values in the bounds array, and every node is 2 values (count, offset) in the nodes array,
+ * where an inner node has the count {@link LinearBVH#INNER_NODE} and the offset of its second child.
+ * <p>
+ * Every thread has a single stack (see {@link #get()}), so the traversals don't allocate it on every ray.
+ * A traversal may start inside another one (e.g. of a mesh in a leaf of a {@link LinearBVH}),
+ * so every traversal uses only the top of the stack from {@link #begin(int)} until {@link #end(int)}.
+ */
+final class TraversalStack {
+    private static final ThreadLocal<TraversalStack> STACKS = ThreadLocal.withInitial(TraversalStack::new);
+
+    private int[] _nodes = new int[0];
+    private double[] _entries = new double[0];
+    private int _top = 0;
+    /**
+     * The bottom of the current traversal, the nodes under it belong to the traversals that contain it.
+     */
+    private int _bottom = 0;
+
+    private TraversalStack() {
+    }
+
+    /**
+     * Returns the stack of the current thread.
+     */
+    static TraversalStack get() {
+        return STACKS.get();
+    }
+
+    /**
+     * Starts a new traversal on top of the stack.
+     * @param depth the depth of the tree, no path pushes more nodes than that
+     * @return the bottom of the containing traversal, to pass to {@link #end(int)}
+     */
+    int begin(int depth) {
+        if (_top + depth > _nodes.length) {
+            _nodes = Arrays.copyOf(_nodes, _top + depth);
+            _entries = Arrays.copyOf(_entries, _top + depth);
+        }
+
+        int bottom = _bottom;
+        _bottom = _top;
+        return bottom;
+    }
+
+    /**
+     * Ends the current traversal and removes its nodes, so the containing traversal can continue.
+     * @param bottom the bottom of the containing traversal, returned by {@link #begin(int)}
+     */
+    void end(int bottom) {
+        _top = _bottom;
+        _bottom = bottom;
+    }
+
+    void push(int node, double entry) {
+        _nodes[_top] = node;
+        _entries[_top++] = entry;
+    }
+
+    /**
+     * Pops the next node that the ray enters within the given distance.
+     * @param maxDistance the maximum distance of the intersection
+     * @return the index of the node, or -1 if there are no more nodes of the current traversal
+     */
+    int pop(double maxDistance) {
+        while (_top > _bottom) {
+            --_top;
+            if (_entries[_top] <= maxDistance) {
+                return _nodes[_top];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the next node to visit from an inner node.
+     * Checks the bounds of both children, pushes the farther child to the stack
+     * and returns the nearer one. If the ray misses both children, pops the next node from the stack.
+     * @param bounds the bounds of the nodes
+     * @param nodes the (count, offset) of the nodes
+     * @param node the index of the inner node
+     * @param ray the ray to check
+     * @param maxDistance the maximum distance of the intersection
+     * @return the index of the next node to visit, or -1 if there are no more nodes
+     */
+    int descend(double[] bounds, int[] nodes, int node, Ray ray, double maxDistance) {
+        int first = node + 1;
+        int second = nodes[node * 2 + 1];
+        double firstEntry = BoundingBox.intersect(bounds, first * 6, ray, 0, maxDistance);
+        double secondEntry = BoundingBox.intersect(bounds, second * 6, ray, 0, maxDistance);
+
+        if (firstEntry == BoundingBox.MISS) {
+            return secondEntry == BoundingBox.MISS ? pop(maxDistance) : second;
+        }
+        if (secondEntry == BoundingBox.MISS) {
+            return first;
+        }
+
+        if (secondEntry < firstEntry) {
+            push(first, firstEntry);
+            return second;
+        }
+        push(second, secondEntry);
+        return first;
+    }
+}
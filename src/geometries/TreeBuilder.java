@@ -0,0 +1,145 @@
+package geometries;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Base of the builders of binary trees of bounding boxes over primitives (intersectables or triangles of a mesh).
+ * The bounds and the centers of the primitives are precomputed into flat arrays, and are partitioned in place
+ * together with the indices of the primitives, so the primitives of every node are a continuous range
+ * of the arrays and splitting a node scans its range sequentially.
+ * The subtrees of large ranges are split in parallel as fork/join tasks, which is safe since every task
+ * partitions only its own range. The tree doesn't depend on the order of the tasks,
+ * so it is the same as the tree of a sequential build.
+ */
+abstract class TreeBuilder {
+    /**
+     * The number of primitives under which a subtree is built on the current thread.
+     */
+    static final int PARALLEL_THRESHOLD = 4096;
+
+    /**
+     * The bounds of every primitive - (minX, minY, minZ, maxX, maxY, maxZ), in the order of {@code _indices}.
+     */
+    protected final double[] _bounds;
+    /**
+     * The center of every primitive's bounds - (x, y, z), in the order of {@code _indices}.
+     */
+    protected final double[] _centers;
+    /**
+     * The indices of the primitives, partitioned in place while building.
+     */
+    protected final int[] _indices;
+
+    /**
+     * Constructs the builder over the bounds of the primitives.
+     * The arrays are used as is and are reordered while building.
+     * @param bounds the bounds of every primitive - (minX, minY, minZ, maxX, maxY, maxZ)
+     * @param centers the center of every primitive's bounds - (x, y, z)
+     */
+    TreeBuilder(double[] bounds, double[] centers) {
+        _bounds = bounds;
+        _centers = centers;
+        _indices = new int[centers.length / 3];
+        for (int i = 0; i < _indices.length; ++i) {
+            _indices[i] = i;
+        }
+    }
+
+    /**
+     * Creates the nodes of the built tree.
+     * @param <T> the type of the nodes
+     */
+    interface NodeFactory<T> {
+        /**
+         * Creates a leaf of the primitives in the given range of {@link #getIndices()}.
+         */
+        T createLeaf(int start, int end);
+
+        /**
+         * Creates an inner node of the given children.
+         */
+        T createNode(T left, T right);
+    }
+
+    /**
+     * Splits the given range in place.
+     * @param start the first index of the range (inclusive)
+     * @param end the last index of the range (exclusive), more than one primitive after {@code start}
+     * @param depth the depth of the range's node, 0 for the root
+     * @return the index of the first primitive of the second part, or -1 when the range should be a leaf
+     */
+    abstract int split(int start, int end, int depth);
+
+    /**
+     * Builds the tree over all the primitives.
+     * @param factory creates the nodes of the tree
+     * @return the root of the tree
+     */
+    <T> T build(NodeFactory<T> factory) {
+        SplitTask<T> task = new SplitTask<>(factory, 0, _indices.length, 0);
+        return _indices.length < PARALLEL_THRESHOLD ? task.compute() : ForkJoinPool.commonPool().invoke(task);
+    }
+
+    /**
+     * Returns the indices of the primitives, in the order of the leaves after building.
+     */
+    int[] getIndices() {
+        return _indices;
+    }
+
+    /**
+     * Swaps two primitives with their bounds and centers.
+     */
+    protected void swap(int i, int j) {
+        int index = _indices[i];
+        _indices[i] = _indices[j];
+        _indices[j] = index;
+        for (int k = 0; k < 3; ++k) {
+            double center = _centers[i * 3 + k];
+            _centers[i * 3 + k] = _centers[j * 3 + k];
+            _centers[j * 3 + k] = center;
+        }
+        for (int k = 0; k < 6; ++k) {
+            double bound = _bounds[i * 6 + k];
+            _bounds[i * 6 + k] = _bounds[j * 6 + k];
+            _bounds[j * 6 + k] = bound;
+        }
+    }
+
+    /**
+     * Splits a range recursively. The two parts of a large range are split in parallel.
+     */
+    @SuppressWarnings("serial") // The tasks aren't serialized
+    private final class SplitTask<T> extends RecursiveTask<T> {
+        private final NodeFactory<T> _factory;
+        private final int _start;
+        private final int _end;
+        private final int _depth;
+
+        SplitTask(NodeFactory<T> factory, int start, int end, int depth) {
+            _factory = factory;
+            _start = start;
+            _end = end;
+            _depth = depth;
+        }
+
+        @Override
+        protected T compute() {
+            int mid = _end - _start == 1 ? -1 : split(_start, _end, _depth);
+            if (mid < 0) {
+                return _factory.createLeaf(_start, _end);
+            }
+
+            SplitTask<T> left = new SplitTask<>(_factory, _start, mid, _depth + 1);
+            SplitTask<T> right = new SplitTask<>(_factory, mid, _end, _depth + 1);
+            if (_end - _start < PARALLEL_THRESHOLD) {
+                return _factory.createNode(left.compute(), right.compute());
+            }
+
+            left.fork();
+            T rightNode = right.compute();
+            return _factory.createNode(left.join(), rightNode);
+        }
+    }
+}
@@ -0,0 +1,933 @@
+package geometries;
+
+import primitives.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
+/**
+ * A mesh of triangles that share their vertices.
+ * The vertices are saved in a single array of coordinates and every triangle is 3 indices of its vertices,
+ * so a mesh of thousands of triangles is a single intersectable with a few arrays instead of thousands of
+ * {@link Triangle}s. Every triangle has an index of its material and of its emission in the palettes of the mesh.
+ * The triangles are intersected by the Moller-Trumbore algorithm straight on the arrays without allocating anything,
+ * and are arranged in an internal hierarchy of bounding boxes, flattened like {@link LinearBVH}.
+ * The subtrees of a large mesh are built in parallel.
+ * A {@link Face} (the geometry of an intersection point) is created only for the intersections that are returned.
+ * Unlike {@link Polygon}, the edges of a triangle are inside it, so rays don't slip between adjacent triangles.
+ * Source: https://en.wikipedia.org/wiki/M%C3%B6ller%E2%80%93Trumbore_intersection_algorithm
+ */
+public class TriangleMesh implements Intersectable {
+    /**
+     * The coordinates of the vertices - (x, y, z) for every vertex.
+     */
+    private final double[] _vertices;
+    /**
+     * The indices of the vertices of every triangle - (a, b, c), in the order of the leaves of the hierarchy.
+     */
+    private final int[] _indices;
+    /**
+     * The unit normal of every triangle - (x, y, z), in the direction of (b - a) X (c - a).
+     */
+    private final double[] _normals;
+    private final int[] _materialIndices;
+    private final int[] _emissionIndices;
+    private Material[] _materials;
+    private Color[] _emissions;
+
+    /**
+     * The bounds of every node - (minX, minY, minZ, maxX, maxY, maxZ).
+     */
+    private final double[] _bounds;
+    /**
+     * Every node is saved as (count, offset):
+     * for a leaf - the number of triangles and the index of the first one,
+     * for an inner node - {@link LinearBVH#INNER_NODE} and the index of the second child.
+     */
+    private final int[] _nodes;
+    private final BoundingBox _boundingBox;
+    private int _depth = 0;
+    private int _nodeCount = 0;
+
+    /**
+     * Constructs a mesh whose triangles have the same default material and emission.
+     * @param vertices the coordinates of the vertices - (x, y, z) for every vertex, used as is without copying
+     * @param indices the indices of the vertices of every triangle - (a, b, c) for every triangle
+     * @exception IllegalArgumentException When the arrays aren't made of whole vertices and triangles,
+     * when there are no triangles, or when an index isn't of a vertex.
+     */
+    public TriangleMesh(double[] vertices, int[] indices) {
+        this(vertices, indices,
+                new Material[]{new Material()}, new int[indices.length / 3],
+                new Color[]{Color.BLACK}, new int[indices.length / 3]);
+    }
+
+    /**
+     * Constructs a mesh whose every triangle has its own material and emission from the given palettes.
+     * @param vertices the coordinates of the vertices - (x, y, z) for every vertex, used as is without copying
+     * @param indices the indices of the vertices of every triangle - (a, b, c) for every triangle
+     * @param materials the palette of the materials
+     * @param materialIndices the index of the material of every triangle
+     * @param emissions the palette of the emission colors
+     * @param emissionIndices the index of the emission of every triangle
+     * @exception IllegalArgumentException When the arrays aren't made of whole vertices and triangles,
+     * when there are no triangles, or when an index isn't of a vertex or of a palette's entry.
+     */
+    public TriangleMesh(double[] vertices, int[] indices,
+                        Material[] materials, int[] materialIndices,
+                        Color[] emissions, int[] emissionIndices) {
+        int triangles = checkTriangles(vertices, indices, materials, materialIndices, emissions, emissionIndices);
+        _vertices = vertices;
+        _materials = materials;
+        _emissions = emissions;
+
+        // Saves the bounds and the center of every triangle for building the hierarchy
+        double[] triangleBounds = new double[triangles * 6];
+        double[] centers = new double[triangles * 3];
+        for (int i = 0; i < triangles; ++i) {
+            for (int axis = 0; axis < 3; ++axis) {
+                double a = vertices[indices[i * 3] * 3 + axis];
+                double b = vertices[indices[i * 3 + 1] * 3 + axis];
+                double c = vertices[indices[i * 3 + 2] * 3 + axis];
+                triangleBounds[i * 6 + axis] = Math.min(a, Math.min(b, c));
+                triangleBounds[i * 6 + 3 + axis] = Math.max(a, Math.max(b, c));
+                centers[i * 3 + axis] = (triangleBounds[i * 6 + axis] + triangleBounds[i * 6 + 3 + axis]) / 2;
+            }
+        }
+
+        // Splits the triangles in parallel, then saves the tree in depth first order
+        SAHBuilder builder = new SAHBuilder(triangleBounds, centers);
+        BuildNode root = builder.build(new TreeBuilder.NodeFactory<BuildNode>() {
+            @Override
+            public BuildNode createLeaf(int start, int end) {
+                return new BuildNode(start, end, null, null);
+            }
+
+            @Override
+            public BuildNode createNode(BuildNode left, BuildNode right) {
+                return new BuildNode(left.start, right.end, left, right);
+            }
+        });
+        // A binary tree with a triangle in every leaf has the most nodes
+        double[] bounds = new double[(2 * triangles - 1) * 6];
+        int[] nodes = new int[(2 * triangles - 1) * 2];
+        // The builder has reordered the triangles' bounds in the order of the leaves
+        flatten(root, triangleBounds, bounds, nodes, 1);
+        _bounds = Arrays.copyOf(bounds, _nodeCount * 6);
+        _nodes = Arrays.copyOf(nodes, _nodeCount * 2);
+        _boundingBox = new BoundingBox(
+                new Point3D(_bounds[0], _bounds[1], _bounds[2]),
+                new Point3D(_bounds[3], _bounds[4], _bounds[5]));
+
+        // Saves the triangles in the order of the leaves, so every leaf has a continuous range
+        int[] order = builder.getIndices();
+        _indices = new int[triangles * 3];
+        _materialIndices = new int[triangles];
+        _emissionIndices = new int[triangles];
+        _normals = new double[triangles * 3];
+        for (int i = 0; i < triangles; ++i) {
+            int triangle = order[i];
+            System.arraycopy(indices, triangle * 3, _indices, i * 3, 3);
+            _materialIndices[i] = materialIndices[triangle];
+            _emissionIndices[i] = emissionIndices[triangle];
+            calculateNormal(i);
+        }
+    }
+
+    /**
+     * Constructs a mesh from an already built hierarchy (e.g. of a saved scene) without building it.
+     * The arrays are used as is without copying, the triangles should be in the order of the leaves.
+     * @param vertices the coordinates of the vertices, see {@link #getVertices()}
+     * @param indices the indices of the vertices of every triangle, see {@link #getIndices()}
+     * @param normals the unit normal of every triangle, see {@link #getNormals()}
+     * @param materials the palette of the materials
+     * @param materialIndices the index of the material of every triangle
+     * @param emissions the palette of the emission colors
+     * @param emissionIndices the index of the emission of every triangle
+     * @param bounds the bounds of every node, see {@link #getBounds()}
+     * @param nodes the (count, offset) of every node, see {@link #getNodes()}
+     * @exception IllegalArgumentException When the arrays aren't made of whole vertices, triangles and nodes,
+     * when an index isn't of a vertex or of a palette's entry, or when the nodes aren't a valid hierarchy.
+     */
+    public TriangleMesh(double[] vertices, int[] indices, double[] normals,
+                        Material[] materials, int[] materialIndices,
+                        Color[] emissions, int[] emissionIndices,
+                        double[] bounds, int[] nodes) {
+        checkTriangles(vertices, indices, materials, materialIndices, emissions, emissionIndices);
+        if (normals.length != indices.length) {
+            throw new IllegalArgumentException("Every triangle should have a normal");
+        }
+        if (nodes.length == 0 || nodes.length % 2 != 0 || bounds.length != nodes.length * 3) {
+            throw new IllegalArgumentException("Every node should have 6 bounds and 2 values");
+        }
+
+        _vertices = vertices;
+        _indices = indices;
+        _normals = normals;
+        _materials = materials;
+        _materialIndices = materialIndices;
+        _emissions = emissions;
+        _emissionIndices = emissionIndices;
+        _bounds = bounds;
+        _nodes = nodes;
+        _nodeCount = nodes.length / 2;
+        _depth = LinearBVH.checkTree(nodes, indices.length / 3);
+        _boundingBox = new BoundingBox(
+                new Point3D(_bounds[0], _bounds[1], _bounds[2]),
+                new Point3D(_bounds[3], _bounds[4], _bounds[5]));
+    }
+
+    /**
+     * Helper function that checks the arrays of the triangles.
+     * @return the number of triangles
+     */
+    private static int checkTriangles(double[] vertices, int[] indices,
+                                      Material[] materials, int[] materialIndices,
+                                      Color[] emissions, int[] emissionIndices) {
+        if (vertices.length % 3 != 0 || indices.length % 3 != 0) {
+            throw new IllegalArgumentException("Every vertex should have 3 coordinates and every triangle 3 vertices");
+        }
+
+        int triangles = indices.length / 3;
+        if (triangles == 0) {
+            throw new IllegalArgumentException("A mesh should have at least one triangle");
+        }
+        if (materialIndices.length != triangles || emissionIndices.length != triangles) {
+            throw new IllegalArgumentException("Every triangle should have a material and an emission");
+        }
+        checkIndices(indices, vertices.length / 3, "vertex");
+        checkIndices(materialIndices, materials.length, "material");
+        checkIndices(emissionIndices, emissions.length, "emission");
+        return triangles;
+    }
+
+    /**
+     * Helper function that checks that all the given indices are in the range [0, size).
+     */
+    private static void checkIndices(int[] indices, int size, String name) {
+        for (int index : indices) {
+            if (index < 0 || index >= size) {
+                throw new IllegalArgumentException("No " + name + " of index " + index);
+            }
+        }
+    }
+
+    /**
+     * Helper function that saves the given subtree in the arrays in depth first order.
+     * @param buildNode the root of the subtree
+     * @param triangleBounds the bounds of the triangles in the order of the leaves
+     * @param depth the depth of the subtree's root
+     * @return the index of the subtree's root
+     */
+    private int flatten(BuildNode buildNode, double[] triangleBounds, double[] bounds, int[] nodes, int depth) {
+        int node = _nodeCount++;
+        _depth = Math.max(_depth, depth);
+
+        if (buildNode.left == null) {
+            // The bounds of a leaf surround the bounds of all its triangles
+            for (int axis = 0; axis < 3; ++axis) {
+                bounds[node * 6 + axis] = Double.POSITIVE_INFINITY;
+                bounds[node * 6 + 3 + axis] = Double.NEGATIVE_INFINITY;
+            }
+            for (int i = buildNode.start; i < buildNode.end; ++i) {
+                for (int axis = 0; axis < 3; ++axis) {
+                    bounds[node * 6 + axis] = Math.min(bounds[node * 6 + axis], triangleBounds[i * 6 + axis]);
+                    bounds[node * 6 + 3 + axis] =
+                            Math.max(bounds[node * 6 + 3 + axis], triangleBounds[i * 6 + 3 + axis]);
+                }
+            }
+            nodes[node * 2] = buildNode.end - buildNode.start;
+            nodes[node * 2 + 1] = buildNode.start;
+            return node;
+        }
+
+        nodes[node * 2] = LinearBVH.INNER_NODE;
+        int left = flatten(buildNode.left, triangleBounds, bounds, nodes, depth + 1);
+        int right = flatten(buildNode.right, triangleBounds, bounds, nodes, depth + 1);
+        nodes[node * 2 + 1] = right;
+
+        // The bounds of an inner node surround the bounds of its children
+        for (int axis = 0; axis < 3; ++axis) {
+            bounds[node * 6 + axis] = Math.min(bounds[left * 6 + axis], bounds[right * 6 + axis]);
+            bounds[node * 6 + 3 + axis] = Math.max(bounds[left * 6 + 3 + axis], bounds[right * 6 + 3 + axis]);
+        }
+        return node;
+    }
+
+    /**
+     * A node of the tree while it is built - a range of the builder's indices, and its children if it is split.
+     */
+    private static final class BuildNode {
+        final int start, end;
+        final BuildNode left, right;
+
+        BuildNode(int start, int end, BuildNode left, BuildNode right) {
+            this.start = start;
+            this.end = end;
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    /**
+     * Helper function that calculates the unit normal of a triangle, zero for a degenerate triangle.
+     */
+    private void calculateNormal(int triangle) {
+        int a = _indices[triangle * 3] * 3;
+        int b = _indices[triangle * 3 + 1] * 3;
+        int c = _indices[triangle * 3 + 2] * 3;
+        double e1x = _vertices[b] - _vertices[a], e1y = _vertices[b + 1] - _vertices[a + 1];
+        double e1z = _vertices[b + 2] - _vertices[a + 2];
+        double e2x = _vertices[c] - _vertices[a], e2y = _vertices[c + 1] - _vertices[a + 1];
+        double e2z = _vertices[c + 2] - _vertices[a + 2];
+
+        double nx = e1y * e2z - e1z * e2y;
+        double ny = e1z * e2x - e1x * e2z;
+        double nz = e1x * e2y - e1y * e2x;
+        double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+        if (isZero(length)) {
+            return;
+        }
+
+        _normals[triangle * 3] = nx / length;
+        _normals[triangle * 3 + 1] = ny / length;
+        _normals[triangle * 3 + 2] = nz / length;
+    }
+
+    /**
+     * Helper function that intersects a ray with a single triangle by the Moller-Trumbore algorithm.
+     * @param triangle the index of the triangle
+     * @param ray the ray to check
+     * @param maxDistance the maximum distance of the intersection
+     * @return the distance of the intersection in range (0, maxDistance],
+     * or {@link BoundingBox#MISS} if the ray misses the triangle
+     */
+    private double intersect(int triangle, Ray ray, double maxDistance) {
+        Metrics.count(Metrics.Counter.PRIMITIVE_TESTS);
+        int a = _indices[triangle * 3] * 3;
+        int b = _indices[triangle * 3 + 1] * 3;
+        int c = _indices[triangle * 3 + 2] * 3;
+        double ax = _vertices[a], ay = _vertices[a + 1], az = _vertices[a + 2];
+        double e1x = _vertices[b] - ax, e1y = _vertices[b + 1] - ay, e1z = _vertices[b + 2] - az;
+        double e2x = _vertices[c] - ax, e2y = _vertices[c + 1] - ay, e2z = _vertices[c + 2] - az;
+
+        // p = v X e2, the determinant is zero when the ray is parallel to the triangle
+        Vector v = ray.getDir();
+        double vx = v.getX(), vy = v.getY(), vz = v.getZ();
+        double px = vy * e2z - vz * e2y, py = vz * e2x - vx * e2z, pz = vx * e2y - vy * e2x;
+        double det = e1x * px + e1y * py + e1z * pz;
+        if (isZero(det)) {
+            return BoundingBox.MISS;
+        }
+        double invDet = 1 / det;
+
+        // The barycentric coordinates (u, w) of the intersection must be inside the triangle
+        Point3D p0 = ray.getP0();
+        double sx = p0.getX() - ax, sy = p0.getY() - ay, sz = p0.getZ() - az;
+        double u = (sx * px + sy * py + sz * pz) * invDet;
+        if (u < 0 || u > 1) {
+            return BoundingBox.MISS;
+        }
+
+        // q = s X e1
+        double qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+        double w = (vx * qx + vy * qy + vz * qz) * invDet;
+        if (w < 0 || u + w > 1) {
+            return BoundingBox.MISS;
+        }
+
+        double t = alignZero((e2x * qx + e2y * qy + e2z * qz) * invDet);
+        return t > 0 && alignZero(t - maxDistance) <= 0 ? t : BoundingBox.MISS;
+    }
+
+    /**
+     * Helper function that creates the intersection point of a ray with a triangle.
+     */
+    private GeoPoint createGeoPoint(int triangle, Ray ray, double distance) {
+        return new GeoPoint(new Face(this, triangle), ray.getPoint(distance));
+    }
+
+    /**
+     * Helper function that finds the first node to visit, -1 if the ray misses the mesh.
+     * Without the bounding boxes only the test of the mesh's own bounding box is skipped,
+     * the hierarchy is a part of the mesh and is always traversed.
+     * @param useBB whether to check the mesh's bounding box
+     */
+    private int findRoot(Ray ray, double maxDistance, boolean useBB) {
+        if (!useBB) {
+            return 0;
+        }
+        return BoundingBox.intersect(_bounds, 0, ray, 0, maxDistance) == BoundingBox.MISS ? -1 : 0;
+    }
+
+    /**
+     * Checks every triangle without the hierarchy.
+     */
+    @Override
+    public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+        List<GeoPoint> result = null;
+        for (int i = 0; i < getTriangleCount(); ++i) {
+            double distance = intersect(i, ray, maxDistance);
+            if (distance != BoundingBox.MISS) {
+                if (result == null) {
+                    result = new LinkedList<>();
+                }
+                result.add(createGeoPoint(i, ray, distance));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance, boolean useBB) {
+        List<GeoPoint> result = null;
+        TraversalStack stack = TraversalStack.get();
+        int bottom = stack.begin(_depth);
+        try {
+            int node = findRoot(ray, maxDistance, useBB);
+            while (node >= 0) {
+                int count = _nodes[node * 2];
+                if (count == LinearBVH.INNER_NODE) {
+                    Metrics.count(Metrics.Counter.NODES_VISITED);
+                    node = stack.descend(_bounds, _nodes, node, ray, maxDistance);
+                    continue;
+                }
+
+                int offset = _nodes[node * 2 + 1];
+                for (int i = offset; i < offset + count; ++i) {
+                    double distance = intersect(i, ray, maxDistance);
+                    if (distance != BoundingBox.MISS) {
+                        if (result == null) {
+                            result = new LinkedList<>();
+                        }
+                        result.add(createGeoPoint(i, ray, distance));
+                    }
+                }
+
+                node = stack.pop(maxDistance);
+            }
+        } finally {
+            stack.end(bottom);
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks every triangle without the hierarchy.
+     */
+    @Override
+    public GeoPoint findClosestIntersection(Ray ray, double maxDistance) {
+        int closest = -1;
+        for (int i = 0; i < getTriangleCount(); ++i) {
+            double distance = intersect(i, ray, maxDistance);
+            if (distance != BoundingBox.MISS) {
+                closest = i;
+                maxDistance = distance;
+            }
+        }
+        return closest < 0 ? null : createGeoPoint(closest, ray, maxDistance);
+    }
+
+    @Override
+    public GeoPoint findClosestIntersection(Ray ray, double maxDistance, boolean useBB) {
+        // Only the distance and the triangle of the closest intersection are kept until the end
+        int closest = -1;
+        TraversalStack stack = TraversalStack.get();
+        int bottom = stack.begin(_depth);
+        try {
+            int node = findRoot(ray, maxDistance, useBB);
+            while (node >= 0) {
+                int count = _nodes[node * 2];
+                if (count == LinearBVH.INNER_NODE) {
+                    Metrics.count(Metrics.Counter.NODES_VISITED);
+                    node = stack.descend(_bounds, _nodes, node, ray, maxDistance);
+                    continue;
+                }
+
+                int offset = _nodes[node * 2 + 1];
+                for (int i = offset; i < offset + count; ++i) {
+                    double distance = intersect(i, ray, maxDistance);
+                    if (distance != BoundingBox.MISS) {
+                        closest = i;
+                        maxDistance = distance;
+                    }
+                }
+
+                // Skips the nodes that are farther than the closest intersection found so far
+                node = stack.pop(maxDistance);
+            }
+        } finally {
+            stack.end(bottom);
+        }
+
+        return closest < 0 ? null : createGeoPoint(closest, ray, maxDistance);
+    }
+
+    /**
+     * Checks every triangle without the hierarchy.
+     */
+    @Override
+    public double occlusion(Ray ray, double maxDistance, double threshold) {
+        double ktr = 1.0;
+        for (int i = 0; i < getTriangleCount(); ++i) {
+            if (intersect(i, ray, maxDistance) != BoundingBox.MISS) {
+                ktr *= _materials[_materialIndices[i]].kT;
+                if (ktr < threshold) {
+                    return 0.0;
+                }
+            }
+        }
+        return ktr;
+    }
+
+    @Override
+    public double occlusion(Ray ray, double maxDistance, double threshold, boolean useBB) {
+        double ktr = 1.0;
+        TraversalStack stack = TraversalStack.get();
+        int bottom = stack.begin(_depth);
+        try {
+            int node = findRoot(ray, maxDistance, useBB);
+            while (node >= 0) {
+                int count = _nodes[node * 2];
+                if (count == LinearBVH.INNER_NODE) {
+                    Metrics.count(Metrics.Counter.NODES_VISITED);
+                    node = stack.descend(_bounds, _nodes, node, ray, maxDistance);
+                    continue;
+                }
+
+                int offset = _nodes[node * 2 + 1];
+                for (int i = offset; i < offset + count; ++i) {
+                    if (intersect(i, ray, maxDistance) != BoundingBox.MISS) {
+                        ktr *= _materials[_materialIndices[i]].kT;
+                        // Stops on the first blocking triangles that reduce the transmittance under the threshold
+                        if (ktr < threshold) {
+                            return 0.0;
+                        }
+                    }
+                }
+
+                node = stack.pop(maxDistance);
+            }
+        } finally {
+            stack.end(bottom);
+        }
+
+        return ktr;
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return _boundingBox;
+    }
+
+    /**
+     * Chaining method for setting the emission color of all the triangles.
+     * @param emission the new emission color to set
+     * @return the current mesh
+     */
+    public TriangleMesh setEmission(Color emission) {
+        _emissions = new Color[]{emission};
+        Arrays.fill(_emissionIndices, 0);
+        return this;
+    }
+
+    /**
+     * Chaining method for setting the material of all the triangles.
+     * @param material the new material to set
+     * @return the current mesh
+     */
+    public TriangleMesh setMaterial(Material material) {
+        _materials = new Material[]{material};
+        Arrays.fill(_materialIndices, 0);
+        return this;
+    }
+
+    /**
+     * Helper function that sets the emission color of a single triangle, added to the palette if it isn't in it.
+     * @param triangle the index of the triangle, in the order of the leaves of the hierarchy
+     */
+    private void setEmission(int triangle, Color emission) {
+        int index = indexOf(_emissions, emission);
+        if (index < 0) {
+            index = _emissions.length;
+            _emissions = Arrays.copyOf(_emissions, index + 1);
+            _emissions[index] = emission;
+        }
+        _emissionIndices[triangle] = index;
+    }
+
+    /**
+     * Helper function that sets the material of a single triangle, added to the palette if it isn't in it.
+     * @param triangle the index of the triangle, in the order of the leaves of the hierarchy
+     */
+    private void setMaterial(int triangle, Material material) {
+        int index = indexOf(_materials, material);
+        if (index < 0) {
+            index = _materials.length;
+            _materials = Arrays.copyOf(_materials, index + 1);
+            _materials[index] = material;
+        }
+        _materialIndices[triangle] = index;
+    }
+
+    /**
+     * Helper function that finds an entry of a palette by identity.
+     * @return the index of the entry, or -1 if it isn't in the palette
+     */
+    private static int indexOf(Object[] palette, Object entry) {
+        for (int i = 0; i < palette.length; ++i) {
+            if (palette[i] == entry) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the number of triangles in the mesh.
+     */
+    public int getTriangleCount() {
+        return _materialIndices.length;
+    }
+
+    /**
+     * Returns the number of vertices in the mesh.
+     */
+    public int getVertexCount() {
+        return _vertices.length / 3;
+    }
+
+    /**
+     * Returns the number of nodes in the hierarchy of the triangles.
+     */
+    public int getNodeCount() {
+        return _nodes.length / 2;
+    }
+
+    /**
+     * Returns the number of levels of the hierarchy of the triangles.
+     */
+    public int getDepth() {
+        return _depth;
+    }
+
+    /**
+     * Returns the coordinates of the vertices - (x, y, z) for every vertex.
+     * The array itself is returned for saving the mesh, it must not be modified (as all the following arrays).
+     */
+    public double[] getVertices() {
+        return _vertices;
+    }
+
+    /**
+     * Returns the indices of the vertices of every triangle - (a, b, c), in the order of the leaves of the hierarchy.
+     */
+    public int[] getIndices() {
+        return _indices;
+    }
+
+    /**
+     * Returns the unit normal of every triangle - (x, y, z), zero for a degenerate triangle.
+     */
+    public double[] getNormals() {
+        return _normals;
+    }
+
+    /**
+     * Returns the palette of the materials.
+     */
+    public Material[] getMaterials() {
+        return _materials;
+    }
+
+    /**
+     * Returns the index of the material of every triangle.
+     */
+    public int[] getMaterialIndices() {
+        return _materialIndices;
+    }
+
+    /**
+     * Returns the palette of the emission colors.
+     */
+    public Color[] getEmissions() {
+        return _emissions;
+    }
+
+    /**
+     * Returns the index of the emission of every triangle.
+     */
+    public int[] getEmissionIndices() {
+        return _emissionIndices;
+    }
+
+    /**
+     * Returns the bounds of every node of the hierarchy - (minX, minY, minZ, maxX, maxY, maxZ).
+     */
+    public double[] getBounds() {
+        return _bounds;
+    }
+
+    /**
+     * Returns the (count, offset) of every node of the hierarchy, like {@link LinearBVH#getNodes()}.
+     */
+    public int[] getNodes() {
+        return _nodes;
+    }
+
+    @Override
+    public String toString() {
+        return "TriangleMesh{" +
+                "vertices=" + getVertexCount() +
+                ", triangles=" + getTriangleCount() +
+                '}';
+    }
+
+    /**
+     * A single triangle of a mesh, the geometry of the intersection points with the mesh.
+     * The faces are created only for the returned intersections, and two faces of the same triangle are equal.
+     * The material and the emission of a face are of its triangle, and setting them sets them for the triangle
+     * in the mesh (the faces that were already created keep the previous ones).
+     */
+    public static class Face extends Geometry {
+        private final TriangleMesh _mesh;
+        private final int _triangle;
+
+        /**
+         * Creates the face of a triangle of a mesh.
+         * @param mesh the mesh of the triangle
+         * @param triangle the index of the triangle in the mesh
+         */
+        private Face(TriangleMesh mesh, int triangle) {
+            super(mesh._emissions[mesh._emissionIndices[triangle]], mesh._materials[mesh._materialIndices[triangle]]);
+            _mesh = mesh;
+            _triangle = triangle;
+        }
+
+        /**
+         * Returns the mesh of the face.
+         */
+        public TriangleMesh getMesh() {
+            return _mesh;
+        }
+
+        /**
+         * Returns the vertices of the face's triangle.
+         */
+        public Point3D[] getVertices() {
+            Point3D[] vertices = new Point3D[3];
+            for (int i = 0; i < 3; ++i) {
+                int vertex = _mesh._indices[_triangle * 3 + i] * 3;
+                vertices[i] = new Point3D(
+                        _mesh._vertices[vertex], _mesh._vertices[vertex + 1], _mesh._vertices[vertex + 2]);
+            }
+            return vertices;
+        }
+
+        @Override
+        public Vector getNormal(Point3D point) {
+            double[] normals = _mesh._normals;
+            return new Vector(normals[_triangle * 3], normals[_triangle * 3 + 1], normals[_triangle * 3 + 2]);
+        }
+
+        /**
+         * Sets the emission color of the face's triangle in the mesh.
+         */
+        @Override
+        public Geometry setEmission(Color emission) {
+            _mesh.setEmission(_triangle, emission);
+            return super.setEmission(emission);
+        }
+
+        /**
+         * Sets the material of the face's triangle in the mesh.
+         */
+        @Override
+        public Geometry setMaterial(Material material) {
+            _mesh.setMaterial(_triangle, material);
+            return super.setMaterial(material);
+        }
+
+        @Override
+        public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+            // A triangle has at most one intersection, which is also the closest one
+            double distance = _mesh.intersect(_triangle, ray, maxDistance);
+            return distance == BoundingBox.MISS ? null : List.of(new GeoPoint(this, ray.getPoint(distance)));
+        }
+
+        @Override
+        protected BoundingBox calculateBoundingBox() {
+            Point3D[] vertices = getVertices();
+            return new BoundingBox(
+                    new Point3D(
+                            Point3D.getMinByAxis(Axis.X, vertices),
+                            Point3D.getMinByAxis(Axis.Y, vertices),
+                            Point3D.getMinByAxis(Axis.Z, vertices)
+                    ),
+                    new Point3D(
+                            Point3D.getMaxByAxis(Axis.X, vertices),
+                            Point3D.getMaxByAxis(Axis.Y, vertices),
+                            Point3D.getMaxByAxis(Axis.Z, vertices)
+                    )
+            );
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Face)) return false;
+            Face face = (Face) o;
+            return _mesh == face._mesh && _triangle == face._triangle;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(_mesh) + _triangle;
+        }
+
+        @Override
+        public String toString() {
+            return "Face{" +
+                    "vertices=" + Arrays.toString(getVertices()) +
+                    '}';
+        }
+    }
+
+    /**
+     * Builds a mesh vertex by vertex and triangle by triangle.
+     * Every added triangle gets the current material and emission of the builder.
+     */
+    public static class Builder {
+        private double[] _vertices = new double[48];
+        private int[] _indices = new int[48];
+        private int[] _materialIndices = new int[16];
+        private int[] _emissionIndices = new int[16];
+        private int _vertexCount = 0;
+        private int _triangleCount = 0;
+
+        private final List<Material> _materials = new ArrayList<>();
+        private final List<Color> _emissions = new ArrayList<>();
+        private final Map<Material, Integer> _materialIndex = new IdentityHashMap<>();
+        private final Map<Color, Integer> _emissionIndex = new IdentityHashMap<>();
+        private int _material;
+        private int _emission;
+
+        /**
+         * Creates a builder whose triangles have the default material and emission until they are set.
+         */
+        public Builder() {
+            setMaterial(new Material());
+            setEmission(Color.BLACK);
+        }
+
+        /**
+         * Adds a vertex, its index is the number of the vertices that were added before it.
+         * @param x the coordinate for the X axis
+         * @param y the coordinate for the Y axis
+         * @param z the coordinate for the Z axis
+         * @return the current builder
+         */
+        public Builder addVertex(double x, double y, double z) {
+            if (_vertexCount * 3 == _vertices.length) {
+                _vertices = Arrays.copyOf(_vertices, _vertices.length * 2);
+            }
+            _vertices[_vertexCount * 3] = x;
+            _vertices[_vertexCount * 3 + 1] = y;
+            _vertices[_vertexCount * 3 + 2] = z;
+            _vertexCount++;
+            return this;
+        }
+
+        /**
+         * Adds a vertex, its index is the number of the vertices that were added before it.
+         * @param point the vertex
+         * @return the current builder
+         */
+        public Builder addVertex(Point3D point) {
+            return addVertex(point.getX(), point.getY(), point.getZ());
+        }
+
+        /**
+         * Adds a triangle of the given vertices, with the current material and emission.
+         * @param a the index of the first vertex
+         * @param b the index of the second vertex
+         * @param c the index of the third vertex
+         * @return the current builder
+         */
+        public Builder addTriangle(int a, int b, int c) {
+            if (_triangleCount * 3 == _indices.length) {
+                _indices = Arrays.copyOf(_indices, _indices.length * 2);
+                _materialIndices = Arrays.copyOf(_materialIndices, _materialIndices.length * 2);
+                _emissionIndices = Arrays.copyOf(_emissionIndices, _emissionIndices.length * 2);
+            }
+            _indices[_triangleCount * 3] = a;
+            _indices[_triangleCount * 3 + 1] = b;
+            _indices[_triangleCount * 3 + 2] = c;
+            _materialIndices[_triangleCount] = _material;
+            _emissionIndices[_triangleCount] = _emission;
+            _triangleCount++;
+            return this;
+        }
+
+        /**
+         * Sets the material of the triangles that will be added from now on.
+         * @param material the material to set
+         * @return the current builder
+         */
+        public Builder setMaterial(Material material) {
+            _material = _materialIndex.computeIfAbsent(material, m -> {
+                _materials.add(m);
+                return _materials.size() - 1;
+            });
+            return this;
+        }
+
+        /**
+         * Sets the emission color of the triangles that will be added from now on.
+         * @param emission the emission color to set
+         * @return the current builder
+         */
+        public Builder setEmission(Color emission) {
+            _emission = _emissionIndex.computeIfAbsent(emission, e -> {
+                _emissions.add(e);
+                return _emissions.size() - 1;
+            });
+            return this;
+        }
+
+        /**
+         * Returns the number of the vertices that were added.
+         */
+        public int getVertexCount() {
+            return _vertexCount;
+        }
+
+        /**
+         * Returns the number of the triangles that were added.
+         */
+        public int getTriangleCount() {
+            return _triangleCount;
+        }
+
+        /**
+         * Builds the mesh of the added vertices and triangles.
+         * @return the created mesh
+         * @exception IllegalArgumentException When there are no triangles, or when a triangle has a missing vertex.
+         */
+        public TriangleMesh build() {
+            return new TriangleMesh(
+                    Arrays.copyOf(_vertices, _vertexCount * 3),
+                    Arrays.copyOf(_indices, _triangleCount * 3),
+                    _materials.toArray(Material[]::new), Arrays.copyOf(_materialIndices, _triangleCount),
+                    _emissions.toArray(Color[]::new), Arrays.copyOf(_emissionIndices, _triangleCount));
+        }
+    }
+}
@@ -2,6 +2,7 @@ package geometries;
 
 import primitives.Point3D;
 import primitives.Ray;
+import primitives.Vec3;
 import primitives.Vector;
 
 import java.util.List;
@@ -75,42 +76,71 @@ public class Tube extends Geometry {
 
     @Override
     public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+        double[] ts = findDistances(ray);
+        if (ts == null) {
+            return null;
+        }
+
+        double t1 = ts[0];
+        double t2 = ts[1];
+        if (t1 > 0 && t2 > 0 &&
+            alignZero(t1 - maxDistance) <= 0 &&
+            alignZero(t2 - maxDistance) <= 0) {
+            return List.of(
+                    new GeoPoint(this, ray.getPoint(t1)),
+                    new GeoPoint(this, ray.getPoint(t2))
+            );
+        }
+        if (t1 > 0 && alignZero(t1 - maxDistance) <= 0) {
+            return List.of(new GeoPoint(this, ray.getPoint(t1)));
+        }
+        if (t2 > 0 && alignZero(t2 - maxDistance) <= 0) {
+            return List.of(new GeoPoint(this, ray.getPoint(t2)));
+        }
+
+        return null;
+    }
+
+    @Override
+    public GeoPoint findClosestIntersection(Ray ray, double maxDistance) {
+        double[] ts = findDistances(ray);
+        if (ts == null) {
+            return null;
+        }
+
+        // t2 is always smaller than t1, so it is the closest one when it is in front of the ray
+        double t = ts[1] > 0 ? ts[1] : ts[0];
+        if (t > 0 && alignZero(t - maxDistance) <= 0) {
+            return new GeoPoint(this, ray.getPoint(t));
+        }
+
+        return null;
+    }
+
+    /**
+     * Helper function that finds the distances of the ray's intersections with the infinite tube.
+     * @param ray The ray to intersect with the tube.
+     * @return {@code {t1, t2}} where t2 is smaller than t1 (both may be behind the ray's origin),
+     * or {@code null} if the ray doesn't cross the tube.
+     */
+    private double[] findDistances(Ray ray) {
         // source: https://cs.nyu.edu/~dzorin/cg12/lecture19.pdf#page=12
 
         Vector v = ray.getDir();
         Vector v0 = _axisRay.getDir();
 
         // Calculating temp1 = v - v0 * (v,v0)
-        Vector temp1 = v;
-        double vv0 = v.dotProduct(v0);
-        if (!isZero(vv0)) {
-            Vector v0vv0 = v0.scale(vv0);
-            if (v.equals(v0vv0)) {
-                return null;
-            }
-            temp1 = v.subtract(v0vv0);
+        Vec3 temp1 = new Vec3().set(v).addScaled(v0, -v.dotProduct(v0));
+        // The ray is parallel to the tube
+        if (isZero(temp1.lengthSquared())) {
+            return null;
         }
 
         // Calculating temp2 = dp - v0 * (dp,v0) where dp = p0 - p
-        double temp1DotTemp2 = 0;
-        double squaredTemp2 = 0;
-        if (!ray.getP0().equals(_axisRay.getP0())) {
-            Vector dp = ray.getP0().subtract(_axisRay.getP0());
-            Vector temp2 = dp;
-            double dpv0 = dp.dotProduct(v0);
-            if (isZero(dpv0)) {
-                temp1DotTemp2 = temp1.dotProduct(temp2);
-                squaredTemp2 = temp2.lengthSquared();
-            }
-            else {
-                Vector v0dpv0 = v0.scale(dpv0);
-                if (!dp.equals(v0dpv0)) {
-                    temp2 = dp.subtract(v0dpv0);
-                    temp1DotTemp2 = temp1.dotProduct(temp2);
-                    squaredTemp2 = temp2.lengthSquared();
-                }
-            }
-        }
+        Vec3 temp2 = new Vec3().setSubtract(ray.getP0(), _axisRay.getP0());
+        temp2.addScaled(v0, -temp2.dotProduct(v0));
+        double temp1DotTemp2 = temp1.dotProduct(temp2);
+        double squaredTemp2 = temp2.lengthSquared();
 
         // Getting the quadratic equation: at^2 +bt + c = 0
         double a = temp1.lengthSquared();
@@ -126,22 +156,7 @@ public class Tube extends Geometry {
         double t1 = alignZero((-b + delta) / (2 * a));
         double t2 = alignZero((-b - delta) / (2 * a));
 
-        if (t1 > 0 && t2 > 0 &&
-            alignZero(t1 - maxDistance) <= 0 &&
-            alignZero(t2 - maxDistance) <= 0) {
-            return List.of(
-                    new GeoPoint(this, ray.getPoint(t1)),
-                    new GeoPoint(this, ray.getPoint(t2))
-            );
-        }
-        if (t1 > 0 && alignZero(t1 - maxDistance) <= 0) {
-            return List.of(new GeoPoint(this, ray.getPoint(t1)));
-        }
-        if (t2 > 0 && alignZero(t2 - maxDistance) <= 0) {
-            return List.of(new GeoPoint(this, ray.getPoint(t2)));
-        }
-
-        return null;
+        return new double[]{t1, t2};
     }
 
 
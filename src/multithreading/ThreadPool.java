@@ -1,19 +1,85 @@
 package multithreading;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.MissingResourceException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * This class is handling a thread pool.
+ * The threads can be run by one of several backends (see {@link Backend}).
+ * A failure of one of the threads stops the other threads and is thrown by {@link #join()}.
  * @param <T> the parameter for the thread's job
  */
 public class ThreadPool<T> {
     private static final int SPARE_THREADS = 2;
+    /**
+     * Seconds that an idle thread of the persistent backend is kept before it exits.
+     */
+    private static final long KEEP_ALIVE_SECONDS = 10;
     private int _numThreads;
-    private Thread[] _threads;
+    private Backend _backend = Backend.PERSISTENT;
     private ParamGetter<T> _getter;
     private Runnable<T> _target;
 
+    /**
+     * The executor of the threads, kept between executions by the backends that reuse their threads.
+     */
+    private ExecutorService _executor;
+    private List<Future<?>> _futures;
+    /**
+     * The failure of the first thread that failed, the other threads stop taking new jobs when it is set.
+     */
+    private final AtomicReference<Throwable> _failure = new AtomicReference<>();
+
+    /**
+     * The backends that can run the threads of the thread pool.
+     */
+    public enum Backend {
+        /**
+         * New platform threads are created on every execution.
+         */
+        THREADS,
+        /**
+         * The threads run as tasks of a {@link ForkJoinPool}, which is reused between executions.
+         */
+        FORK_JOIN,
+        /**
+         * New virtual threads are created on every execution. Requires Java 21 or later.
+         */
+        VIRTUAL_THREADS,
+        /**
+         * Platform threads that are created on the first execution and reused by the next executions.
+         * Threads that are idle for a few seconds exit, so the thread pool doesn't keep them when it isn't shut down.
+         */
+        PERSISTENT;
+
+        /**
+         * Returns whether the backend can run on the current Java runtime.
+         */
+        public boolean isSupported() {
+            if (this != VIRTUAL_THREADS) {
+                return true;
+            }
+
+            try {
+                Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return true;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    }
+
     /**
      * Default constructor.
      * Sets the number of threads to use all the cores minus 2 for spare (it will always be greater than 0).
@@ -32,15 +98,22 @@ public class ThreadPool<T> {
         return _numThreads;
     }
 
+    /**
+     * Returns the backend that runs the threads.
+     */
+    public Backend getBackend() {
+        return _backend;
+    }
+
     /**
      * Returns if the thread pool is currently using any threads.
      */
     public boolean isRunning() {
-        if (_threads == null) {
+        if (_futures == null) {
             return false;
         }
 
-        return Arrays.stream(_threads).anyMatch(Thread::isAlive);
+        return _futures.stream().anyMatch(future -> !future.isDone());
     }
 
     /**
@@ -54,10 +127,35 @@ public class ThreadPool<T> {
             throw new IllegalArgumentException("Number of threads must be greater than 0");
         }
 
+        if (numThreads != _numThreads) {
+            shutdown();
+        }
         _numThreads = numThreads;
         return this;
     }
 
+    /**
+     * Chaining method for setting the backend that runs the threads.
+     * @param backend the backend
+     * @exception NullPointerException when {@code backend} is {@code null}
+     * @exception UnsupportedOperationException when the backend isn't supported by the current Java runtime
+     * @return the current thread pool
+     */
+    public ThreadPool<T> setBackend(Backend backend) {
+        if (backend == null) {
+            throw new NullPointerException("backend cannot be null");
+        }
+        if (!backend.isSupported()) {
+            throw new UnsupportedOperationException(backend + " backend isn't supported by the current Java runtime");
+        }
+
+        if (backend != _backend) {
+            shutdown();
+        }
+        _backend = backend;
+        return this;
+    }
+
     /**
      * Chaining method for setting the method in order to give the threads the parameter for their job.
      * @param getter implementation of {@link ParamGetter<T>}
@@ -106,18 +204,15 @@ public class ThreadPool<T> {
                 throw new MissingResourceException("Missing resource", Runnable.class.getName(), "");
             }
 
-            // initialize all the threads
-            _threads = new Thread[_numThreads];
-            for (int i = 0; i < _numThreads; ++i) {
-                _threads[i] = new Thread(() -> {
-                    // running until target returns false
-                    while (_target.run(_getter.get()));
-                });
+            if (_executor == null) {
+                _executor = createExecutor();
             }
 
             // run all the threads
-            for (Thread thread : _threads) {
-                thread.start();
+            _failure.set(null);
+            _futures = new ArrayList<>(_numThreads);
+            for (int i = 0; i < _numThreads; ++i) {
+                _futures.add(_executor.submit(this::runThread));
             }
         }
         catch (MissingResourceException e) {
@@ -125,21 +220,98 @@ public class ThreadPool<T> {
         }
     }
 
+    /**
+     * The job of every thread - runs until target returns false, or until one of the threads fails.
+     */
+    private void runThread() {
+        try {
+            while (_failure.get() == null && _target.run(_getter.get()));
+        } catch (RuntimeException | Error e) {
+            _failure.compareAndSet(null, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Creates the executor of the threads by the backend.
+     */
+    private ExecutorService createExecutor() {
+        switch (_backend) {
+            case FORK_JOIN:
+                return new ForkJoinPool(_numThreads);
+            case VIRTUAL_THREADS:
+                try {
+                    return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+                } catch (ReflectiveOperationException e) {
+                    throw new UnsupportedOperationException("Virtual threads aren't supported by the current Java runtime", e);
+                }
+            default:
+                // Daemon threads, so the idle threads of the persistent backend don't keep the program alive
+                AtomicInteger count = new AtomicInteger();
+                ThreadPoolExecutor executor = new ThreadPoolExecutor(_numThreads, _numThreads,
+                        KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "ThreadPool-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                // The idle threads exit, so they are released even if the thread pool is never shut down
+                executor.allowCoreThreadTimeOut(true);
+                return executor;
+        }
+    }
+
     /**
      * Joins all the threads.
+     * @exception RuntimeException the failure of the first thread that failed
      */
     public void join() {
-        if (!isRunning()) {
-            _threads = null;
+        if (_futures == null) {
             return;
         }
 
-        for (Thread thread : _threads) {
-            try {
-                thread.join();
-            } catch (Exception e) { }
+        boolean interrupted = false;
+        for (Future<?> future : _futures) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (ExecutionException e) {
+                    // The failure is saved by the thread itself (some executors wrap it)
+                    break;
+                } catch (InterruptedException e) {
+                    // Keeps waiting, the threads are still running
+                    interrupted = true;
+                }
+            }
+        }
+        _futures = null;
+
+        // The backends that don't reuse their threads are done with the executor
+        if (_backend == Backend.THREADS || _backend == Backend.VIRTUAL_THREADS) {
+            shutdown();
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        Throwable failure = _failure.getAndSet(null);
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+    }
+
+    /**
+     * Releases the threads that are kept between executions.
+     * The thread pool can still be executed after it, the threads will be created again.
+     */
+    public void shutdown() {
+        if (_executor != null) {
+            _executor.shutdown();
+            _executor = null;
         }
-        _threads = null;
     }
 
     /**
@@ -15,6 +15,16 @@ public class BoundingBox {
      * The line between them sets the diagonal of the box
      */
     private final Point3D _min, _max;
+    /**
+     * The packed bounds of the box - (minX, minY, minZ, maxX, maxY, maxZ), for the slab test
+     */
+    private final double[] _bounds;
+
+    /**
+     * The value returned by the slab test when the ray misses the box.
+     * Infinite entry distance, so a missed box is always farther than any other.
+     */
+    public static final double MISS = Double.POSITIVE_INFINITY;
 
     /**
      * Bounding Box constructor, builds the BB by 2 points
@@ -31,6 +41,7 @@ public class BoundingBox {
 
         _min = min;
         _max = max;
+        _bounds = new double[]{min.getX(), min.getY(), min.getZ(), max.getX(), max.getY(), max.getZ()};
     }
 
     /**
@@ -56,6 +67,18 @@ public class BoundingBox {
         return Point3D.getCenter(_min, _max);
     }
 
+    /**
+     * Gets the surface area of the bounding box.
+     * Used by the surface area heuristic to estimate the probability of a ray hitting the box.
+     * @return The surface area
+     */
+    public double getSurfaceArea() {
+        double dx = _max.getX() - _min.getX();
+        double dy = _max.getY() - _min.getY();
+        double dz = _max.getZ() - _min.getZ();
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
     /**
      * Returns true if the given ray is intersecting with the bounding box
      * and false otherwise.
@@ -63,47 +86,72 @@ public class BoundingBox {
      * @return Whether the ray is intersecting with the bounding box or not
      */
     public boolean isIntersecting(Ray ray) {
-        Point3D origin = ray.getP0();
-        Vector dir = ray.getDir();
-
-        T tx = calculateTa(_min.getX(), _max.getX(), origin.getX(), dir.getX());
-        T ty = calculateTa(_min.getY(), _max.getY(), origin.getY(), dir.getY());
-        T tz = calculateTa(_min.getZ(), _max.getZ(), origin.getZ(), dir.getZ());
-
-        return tx.min <= ty.max && tx.min <= tz.max &&
-               ty.min <= tx.max && ty.min <= tz.max &&
-               tz.min <= tx.max && tz.min <= ty.max;
+        return isIntersecting(ray, Double.POSITIVE_INFINITY);
     }
 
     /**
-     * Source: Fundamentals of Computer Graphics Fourth Edition, Page 299.
-     * Calculates the min and max value for a given axis
-     * @param aMin The a axis's min point value
-     * @param aMax The a axis's max point value
-     * @param aOrigin The a axis's rays origin point value
-     * @param aDir The a axis's rays direction value
-     * @return The (min, max) value of the intersection
+     * Returns true if the given ray is intersecting with the bounding box within the given distance
+     * and false otherwise.
+     * @param ray The ray to check intersections with the bounding box
+     * @param maxDistance The maximum distance of the intersection
+     * @return Whether the ray is intersecting with the bounding box or not
      */
-    private T calculateTa(double aMin, double aMax, double aOrigin, double aDir) {
-        T ta = new T();
-        double a = 1 / aDir;
-
-        if (a >= 0) {
-            ta.min = (aMin - aOrigin) * a;
-            ta.max = (aMax - aOrigin) * a;
-        } else {
-            ta.min = (aMax - aOrigin) * a;
-            ta.max = (aMin - aOrigin) * a;
-        }
+    public boolean isIntersecting(Ray ray, double maxDistance) {
+        return intersect(ray, 0, maxDistance) != MISS;
+    }
 
-        return ta;
+    /**
+     * Finds the distance in which the given ray enters the bounding box
+     * within the range [tMin, tMax] of the ray.
+     * @param ray The ray to check intersections with the bounding box
+     * @param tMin The minimum distance on the ray
+     * @param tMax The maximum distance on the ray
+     * @return The entry distance (at least {@code tMin}), or {@link #MISS} if there is no intersection
+     */
+    public double intersect(Ray ray, double tMin, double tMax) {
+        return intersect(_bounds, 0, ray, tMin, tMax);
     }
 
     /**
-     * Helper class that saves 2 double values of min and max
+     * Source: Fundamentals of Computer Graphics Fourth Edition, Page 299.
+     * Finds the distance in which the given ray enters a box within the range [tMin, tMax] of the ray.
+     * Works on packed bounds so it doesn't have to allocate anything, and uses the inverse direction
+     * and the sign bits cached in the ray to pick the near and far slab on every axis.
+     * A direction parallel to an axis gives infinite distances, so the ray misses
+     * unless its origin is between the slabs of that axis.
+     * @param bounds The packed bounds of the boxes - (minX, minY, minZ, maxX, maxY, maxZ) for every box
+     * @param offset The index of the box's minX in {@code bounds}
+     * @param ray The ray to check intersections with the box
+     * @param tMin The minimum distance on the ray
+     * @param tMax The maximum distance on the ray
+     * @return The entry distance (at least {@code tMin}), or {@link #MISS} if there is no intersection
      */
-    private static class T {
-        public double min, max;
+    public static double intersect(double[] bounds, int offset, Ray ray, double tMin, double tMax) {
+        Metrics.count(Metrics.Counter.BOX_TESTS);
+        Point3D origin = ray.getP0();
+        double tNear = tMin, tFar = tMax;
+
+        // The near slab is the min one unless the direction is negative on the axis
+        int near = ray.isDirNegative(0) ? 3 : 0;
+        double t1 = (bounds[offset + near] - origin.getX()) * ray.getInvDirX();
+        double t2 = (bounds[offset + 3 - near] - origin.getX()) * ray.getInvDirX();
+        // Written as comparisons so a NaN (0 * infinity) doesn't narrow the range
+        tNear = t1 > tNear ? t1 : tNear;
+        tFar = t2 < tFar ? t2 : tFar;
+
+        near = ray.isDirNegative(1) ? 3 : 0;
+        t1 = (bounds[offset + 1 + near] - origin.getY()) * ray.getInvDirY();
+        t2 = (bounds[offset + 4 - near] - origin.getY()) * ray.getInvDirY();
+        tNear = t1 > tNear ? t1 : tNear;
+        tFar = t2 < tFar ? t2 : tFar;
+
+        near = ray.isDirNegative(2) ? 3 : 0;
+        t1 = (bounds[offset + 2 + near] - origin.getZ()) * ray.getInvDirZ();
+        t2 = (bounds[offset + 5 - near] - origin.getZ()) * ray.getInvDirZ();
+        tNear = t1 > tNear ? t1 : tNear;
+        tFar = t2 < tFar ? t2 : tFar;
+
+        return tNear <= tFar ? tNear : MISS;
     }
 
     /**
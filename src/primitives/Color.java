@@ -80,6 +80,33 @@ public class Color {
 		return new java.awt.Color(Math.min(ir, 255), Math.min(ig, 255), Math.min(ib, 255));
 	}
 
+	/**
+	 * Red component getter
+	 *
+	 * @return the red component (0..255 or more)
+	 */
+	public double getR() {
+		return _r;
+	}
+
+	/**
+	 * Green component getter
+	 *
+	 * @return the green component (0..255 or more)
+	 */
+	public double getG() {
+		return _g;
+	}
+
+	/**
+	 * Blue component getter
+	 *
+	 * @return the blue component (0..255 or more)
+	 */
+	public double getB() {
+		return _b;
+	}
+
 	/**
 	 * Operation of adding this and one or more other colors (by component)
 	 *
@@ -122,4 +149,15 @@ public class Color {
 		return new Color(_r / k, _g / k, _b / k);
 	}
 
+	/**
+	 * Calculates the difference between the color and another color,
+	 * which is the largest difference between their components
+	 * 
+	 * @param other the other color
+	 * @return the largest absolute difference between the components
+	 */
+	public double difference(Color other) {
+		return Math.max(Math.abs(_r - other._r), Math.max(Math.abs(_g - other._g), Math.abs(_b - other._b)));
+	}
+
 }
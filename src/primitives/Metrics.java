@@ -0,0 +1,123 @@
+package primitives;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Optional counters of the work of a rendering - the traced rays and the tests of the bounding boxes and the geometries.
+ * Every thread counts into its own counts (see {@link #startCounting(long[])}), so the counting doesn't need any
+ * synchronization, and the counts of the threads are merged when the rendering is over.
+ * While no thread counts, counting costs a single read of a shared number,
+ * and with the system property {@code metrics.disabled=true} the counting is removed altogether
+ * (the JIT drops the code of a constant false condition).
+ */
+public final class Metrics {
+    /**
+     * The counted events.
+     */
+    public enum Counter {
+        /**
+         * Rays from the camera.
+         */
+        PRIMARY_RAYS,
+        /**
+         * Rays from an intersection point towards a light source.
+         */
+        SHADOW_RAYS,
+        /**
+         * Reflected rays (including every glossy ray).
+         */
+        REFLECTION_RAYS,
+        /**
+         * Refracted rays (including every glossy ray).
+         */
+        REFRACTION_RAYS,
+        /**
+         * Inner nodes of the bounding volume hierarchies that were visited.
+         */
+        NODES_VISITED,
+        /**
+         * Intersection tests of a ray with a bounding box.
+         */
+        BOX_TESTS,
+        /**
+         * Intersection tests of a ray with a geometry.
+         */
+        PRIMITIVE_TESTS
+    }
+
+    /**
+     * Whether the counting is compiled in, false by the system property {@code metrics.disabled=true}.
+     */
+    public static final boolean AVAILABLE = !Boolean.getBoolean("metrics.disabled");
+
+    private static final int COUNTERS = Counter.values().length;
+    /**
+     * The counts of the current thread, null when the thread doesn't count.
+     */
+    private static final ThreadLocal<long[]> COUNTS = new ThreadLocal<>();
+    /**
+     * The number of threads that count now, so the other threads don't look for their counts.
+     */
+    private static final AtomicInteger COUNTING_THREADS = new AtomicInteger();
+
+    /**
+     * Empty private ctor to hide the public one
+     */
+    private Metrics() {
+    }
+
+    /**
+     * Creates new counts for a thread, all zero.
+     * @return the counts, indexed by the ordinals of the counters.
+     */
+    public static long[] newCounts() {
+        return new long[COUNTERS];
+    }
+
+    /**
+     * Starts counting the events of the current thread into given counts, until {@link #stopCounting()}.
+     * @param counts the counts of the thread (see {@link #newCounts()}).
+     */
+    public static void startCounting(long[] counts) {
+        if (!AVAILABLE) {
+            return;
+        }
+
+        if (COUNTS.get() == null) {
+            COUNTING_THREADS.incrementAndGet();
+        }
+        COUNTS.set(counts);
+    }
+
+    /**
+     * Stops counting the events of the current thread.
+     */
+    public static void stopCounting() {
+        if (AVAILABLE && COUNTS.get() != null) {
+            COUNTS.remove();
+            COUNTING_THREADS.decrementAndGet();
+        }
+    }
+
+    /**
+     * Counts an event of the current thread, when it counts.
+     * @param counter the event.
+     */
+    public static void count(Counter counter) {
+        count(counter, 1);
+    }
+
+    /**
+     * Counts a number of events of the current thread, when it counts.
+     * @param counter the events.
+     * @param n the number of the events.
+     */
+    public static void count(Counter counter, long n) {
+        if (AVAILABLE && COUNTING_THREADS.get() > 0) {
+            long[] counts = COUNTS.get();
+            if (counts != null) {
+                counts[counter.ordinal()] += n;
+            }
+        }
+    }
+}
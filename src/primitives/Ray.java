@@ -13,6 +13,14 @@ public class Ray {
 	private static final double DELTA = 0.1;
 	private final Point3D _p0;
 	private final Vector _dir;
+	/**
+	 * The inverse of the direction's coordinates (1/x, 1/y, 1/z), cached for the bounding boxes' slab test.
+	 */
+	private final double _invDirX, _invDirY, _invDirZ;
+	/**
+	 * Bit for every axis (x - 1, y - 2, z - 4) that is set when the direction is negative on that axis.
+	 */
+	private final int _dirSigns;
 
 	/**
 	 * Creates a new ray with a given point and vector.
@@ -23,6 +31,11 @@ public class Ray {
 	public Ray(Point3D p0, Vector dir) {
 		_dir = dir.normalized();
 		_p0 = p0;
+
+		_invDirX = 1 / _dir.getX();
+		_invDirY = 1 / _dir.getY();
+		_invDirZ = 1 / _dir.getZ();
+		_dirSigns = calculateDirSigns();
 	}
 
 	/**
@@ -44,6 +57,20 @@ public class Ray {
 		}
 		else
 			_p0 = p0;
+
+		_invDirX = 1 / _dir.getX();
+		_invDirY = 1 / _dir.getY();
+		_invDirZ = 1 / _dir.getZ();
+		_dirSigns = calculateDirSigns();
+	}
+
+	/**
+	 * Helper function that calculates the sign bits of the direction by the inverse direction,
+	 * so a negative zero coordinate is also considered negative.
+	 * @return the sign bits
+	 */
+	private int calculateDirSigns() {
+		return (_invDirX < 0 ? 1 : 0) | (_invDirY < 0 ? 2 : 0) | (_invDirZ < 0 ? 4 : 0);
 	}
 
 	/**
@@ -65,7 +92,12 @@ public class Ray {
 			return _p0;
 		}
 
-		return _p0.add(_dir.scale(t));
+		// Calculates straight on the coordinates instead of creating the scaled vector
+		Point3D dir = _dir._head;
+		return new Point3D(
+				_p0._x._coord + dir._x._coord * t,
+				_p0._y._coord + dir._y._coord * t,
+				_p0._z._coord + dir._z._coord * t);
 	}
 
 	/**
@@ -77,6 +109,36 @@ public class Ray {
 		return _dir;
 	}
 
+	/**
+	 * Returns the inverse of the direction's x coordinate (1/x).
+	 */
+	public double getInvDirX() {
+		return _invDirX;
+	}
+
+	/**
+	 * Returns the inverse of the direction's y coordinate (1/y).
+	 */
+	public double getInvDirY() {
+		return _invDirY;
+	}
+
+	/**
+	 * Returns the inverse of the direction's z coordinate (1/z).
+	 */
+	public double getInvDirZ() {
+		return _invDirZ;
+	}
+
+	/**
+	 * Checks whether the direction is negative on a given axis.
+	 * @param axis the index of the axis (see {@link Axis#getIndex()})
+	 * @return true if the direction is negative on the axis
+	 */
+	public boolean isDirNegative(int axis) {
+		return (_dirSigns >> axis & 1) != 0;
+	}
+
 	/**
 	 * Finds the closest point to the ray
 	 * @param points list of points to choose one of
@@ -0,0 +1,163 @@
+package primitives;
+
+import java.util.Random;
+
+/**
+ * Creates sets of sample points in the unit square [0,1) x [0,1), e.g. for the rays through a pixel
+ * or the glossy rays on a hemisphere (see {@link #toCosineHemisphere(double, double, Vec3)}).
+ * The samplers take the random numbers from a given generator, so every thread can use its own generator
+ * (see {@link Util#getRandom()}).
+ * Better distributed samples than the independent random samples reach the same noise with fewer rays.
+ */
+public interface Sampler {
+    /**
+     * Independent uniform random samples.
+     */
+    Sampler RANDOM = Sampler::randomSamples;
+    /**
+     * Jittered grid - the square is split to a grid of about {@code n} cells,
+     * and every sample is at a random point of a different cell. The cells are in random order.
+     */
+    Sampler STRATIFIED = Sampler::stratifiedSamples;
+    /**
+     * The Halton sequence (bases 2 and 3), randomly shifted on every call (Cranley-Patterson rotation),
+     * so the samples of different calls aren't the same.
+     */
+    Sampler HALTON = Sampler::haltonSamples;
+    /**
+     * The first 2 dimensions of the Sobol sequence, randomly scrambled on every call (random digital shift),
+     * which keeps every power of 2 of samples stratified.
+     */
+    Sampler SOBOL = Sampler::sobolSamples;
+
+    /**
+     * Creates sample points in the unit square.
+     *
+     * @param n      the number of points
+     * @param random the generator of the random numbers
+     * @return the coordinates of the points - (u0, v0, u1, v1, ...)
+     */
+    double[] samples(int n, Random random);
+
+    /**
+     * Maps a point of the unit square to a direction on the unit hemisphere with a cosine-weighted distribution
+     * (more directions near the top), by the concentric mapping of the square to the unit disk
+     * and lifting the point of the disk up to the hemisphere.
+     *
+     * @param u      the first coordinate of the point [0,1)
+     * @param v      the second coordinate of the point [0,1)
+     * @param result the direction in the local base of the hemisphere - x, y on the bottom and z up
+     * @return the result
+     */
+    static Vec3 toCosineHemisphere(double u, double v, Vec3 result) {
+        // The square [-1,1) x [-1,1)
+        double a = 2 * u - 1;
+        double b = 2 * v - 1;
+
+        double r, phi;
+        if (a == 0 && b == 0) {
+            r = phi = 0;
+        } else if (Math.abs(a) > Math.abs(b)) {
+            r = a;
+            phi = Math.PI / 4 * (b / a);
+        } else {
+            r = b;
+            phi = Math.PI / 2 - Math.PI / 4 * (a / b);
+        }
+
+        double x = r * Math.cos(phi);
+        double y = r * Math.sin(phi);
+        return result.set(x, y, Math.sqrt(Math.max(0, 1 - x * x - y * y)));
+    }
+
+    private static double[] randomSamples(int n, Random random) {
+        double[] samples = new double[2 * n];
+        for (int i = 0; i < samples.length; ++i) {
+            samples[i] = random.nextDouble();
+        }
+        return samples;
+    }
+
+    private static double[] stratifiedSamples(int n, Random random) {
+        int columns = (int) Math.ceil(Math.sqrt(n));
+        int rows = (n + columns - 1) / columns;
+
+        // Every sample takes a different random cell, in random order, so even the first samples are spread
+        // over the square (e.g. when only some of them are used) and there may be more cells than samples
+        int[] cells = new int[columns * rows];
+        for (int i = 0; i < cells.length; ++i) {
+            cells[i] = i;
+        }
+        for (int i = 0; i < n; ++i) {
+            int j = i + random.nextInt(cells.length - i);
+            int cell = cells[i];
+            cells[i] = cells[j];
+            cells[j] = cell;
+        }
+
+        double[] samples = new double[2 * n];
+        for (int i = 0; i < n; ++i) {
+            samples[2 * i] = (cells[i] % columns + random.nextDouble()) / columns;
+            samples[2 * i + 1] = (cells[i] / columns + random.nextDouble()) / rows;
+        }
+        return samples;
+    }
+
+    private static double[] haltonSamples(int n, Random random) {
+        double shiftU = random.nextDouble();
+        double shiftV = random.nextDouble();
+
+        double[] samples = new double[2 * n];
+        for (int i = 0; i < n; ++i) {
+            samples[2 * i] = fraction(radicalInverse(i, 2) + shiftU);
+            samples[2 * i + 1] = fraction(radicalInverse(i, 3) + shiftV);
+        }
+        return samples;
+    }
+
+    private static double[] sobolSamples(int n, Random random) {
+        int scrambleU = random.nextInt();
+        int scrambleV = random.nextInt();
+
+        double[] samples = new double[2 * n];
+        for (int i = 0; i < n; ++i) {
+            // The first dimension is the radical inverse in base 2 - the reversed bits of the index
+            int u = Integer.reverse(i);
+            // The second dimension by the direction numbers of the polynomial x + 1
+            int v = 0;
+            for (int bits = i, direction = 1 << 31; bits != 0; bits >>>= 1, direction ^= direction >>> 1) {
+                if ((bits & 1) != 0) {
+                    v ^= direction;
+                }
+            }
+
+            samples[2 * i] = toUnit(u ^ scrambleU);
+            samples[2 * i + 1] = toUnit(v ^ scrambleV);
+        }
+        return samples;
+    }
+
+    /**
+     * Mirrors the digits of a given index in a given base around the decimal point.
+     */
+    private static double radicalInverse(int index, int base) {
+        double result = 0;
+        double digitValue = 1d / base;
+        for (int i = index; i > 0; i /= base) {
+            result += (i % base) * digitValue;
+            digitValue /= base;
+        }
+        return result;
+    }
+
+    /**
+     * Converts the bits of an integer to a fraction in [0,1).
+     */
+    private static double toUnit(int bits) {
+        return (bits & 0xFFFFFFFFL) / 4294967296d;
+    }
+
+    private static double fraction(double value) {
+        return value - Math.floor(value);
+    }
+}
@@ -1,5 +1,8 @@
 package primitives;
 
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
 /**
  * Util class is used for some internal utilities, e.g. controlling accuracy
  * 
@@ -9,6 +12,11 @@ public abstract class Util {
     // It is binary, equivalent to ~1/1,000,000,000,000 in decimal (12 digits)
     private static final int ACCURACY = -40;
 
+    /**
+     * The seeded generator of every thread, see {@link #seedRandom(long)}
+     */
+    private static final ThreadLocal<Random> SEEDED_RANDOM = new ThreadLocal<>();
+
     /**
      * Empty private ctor to hide the public one
      */
@@ -64,7 +72,42 @@ public abstract class Util {
 	 * @return the random value
 	 */
 	public static double random(double min, double max) {
-		return Math.random() * (max - min) + min;
+		return getRandom().nextDouble() * (max - min) + min;
+	}
+
+	/**
+	 * Provide the random numbers generator of the current thread, unlike
+	 * Math.random() the threads don't compete on a shared generator.
+	 * After {@link #seedRandom(long)} it is the seeded generator of the thread
+	 * 
+	 * @return the generator
+	 */
+	public static Random getRandom() {
+		Random seeded = SEEDED_RANDOM.get();
+		return seeded != null ? seeded : ThreadLocalRandom.current();
+	}
+
+	/**
+	 * Seed the random numbers of the current thread, so the same seed always
+	 * repeats the same numbers (e.g. for rendering a pixel the same way on any
+	 * thread), until {@link #unseedRandom()}
+	 * 
+	 * @param seed the seed
+	 */
+	public static void seedRandom(long seed) {
+		Random seeded = SEEDED_RANDOM.get();
+		if (seeded == null) {
+			SEEDED_RANDOM.set(new Random(seed));
+		} else {
+			seeded.setSeed(seed);
+		}
+	}
+
+	/**
+	 * Return the current thread to unseeded random numbers
+	 */
+	public static void unseedRandom() {
+		SEEDED_RANDOM.remove();
 	}
 	
 }
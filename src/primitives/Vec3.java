@@ -0,0 +1,216 @@
+package primitives;
+
+/**
+ * A mutable 3D vector of plain double coordinates, for the hot paths of the calculations.
+ * Unlike {@link Vector} and {@link Point3D} it doesn't wrap its coordinates with {@link Coordinate},
+ * doesn't align them to zero and doesn't check for the zero vector,
+ * and all the operations are done in place (or into the current vector as an out parameter),
+ * so a calculation can reuse the same object instead of allocating a new one on every step.
+ * Converts back to the immutable types with {@link #toPoint3D()} and {@link #toVector()}.
+ */
+public final class Vec3 {
+    public double x, y, z;
+
+    /**
+     * Creates a zero vector.
+     */
+    public Vec3() {
+    }
+
+    /**
+     * Creates a vector by a given coordinates.
+     * @param x The X axis coordinate.
+     * @param y The Y axis coordinate.
+     * @param z The Z axis coordinate.
+     */
+    public Vec3(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * Sets the coordinates of the current vector.
+     * @return the current vector
+     */
+    public Vec3 set(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    /**
+     * Sets the current vector to the coordinates of a given point.
+     * @return the current vector
+     */
+    public Vec3 set(Point3D point) {
+        x = point._x._coord;
+        y = point._y._coord;
+        z = point._z._coord;
+        return this;
+    }
+
+    /**
+     * Sets the current vector to the coordinates of a given vector.
+     * @return the current vector
+     */
+    public Vec3 set(Vector vector) {
+        return set(vector._head);
+    }
+
+    /**
+     * Sets the current vector to the coordinates of another one.
+     * @return the current vector
+     */
+    public Vec3 set(Vec3 other) {
+        x = other.x;
+        y = other.y;
+        z = other.z;
+        return this;
+    }
+
+    /**
+     * Sets the current vector to the vector from point b to point a (a - b).
+     * @return the current vector
+     */
+    public Vec3 setSubtract(Point3D a, Point3D b) {
+        x = a._x._coord - b._x._coord;
+        y = a._y._coord - b._y._coord;
+        z = a._z._coord - b._z._coord;
+        return this;
+    }
+
+    /**
+     * Sets the current vector to the cross product of two given vectors (a x b).
+     * The current vector may be one of the given vectors.
+     * @return the current vector
+     */
+    public Vec3 setCrossProduct(Vec3 a, Vec3 b) {
+        double cx = a.y * b.z - a.z * b.y;
+        double cy = a.z * b.x - a.x * b.z;
+        double cz = a.x * b.y - a.y * b.x;
+        return set(cx, cy, cz);
+    }
+
+    /**
+     * Adds another vector to the current vector.
+     * @return the current vector
+     */
+    public Vec3 add(Vec3 other) {
+        x += other.x;
+        y += other.y;
+        z += other.z;
+        return this;
+    }
+
+    /**
+     * Adds a given vector scaled by a given scalar to the current vector (this + vector * scalar).
+     * @return the current vector
+     */
+    public Vec3 addScaled(Vector vector, double scalar) {
+        Point3D head = vector._head;
+        x += head._x._coord * scalar;
+        y += head._y._coord * scalar;
+        z += head._z._coord * scalar;
+        return this;
+    }
+
+    /**
+     * Adds another vector scaled by a given scalar to the current vector (this + other * scalar).
+     * @return the current vector
+     */
+    public Vec3 addScaled(Vec3 other, double scalar) {
+        x += other.x * scalar;
+        y += other.y * scalar;
+        z += other.z * scalar;
+        return this;
+    }
+
+    /**
+     * Subtracts another vector from the current vector.
+     * @return the current vector
+     */
+    public Vec3 subtract(Vec3 other) {
+        x -= other.x;
+        y -= other.y;
+        z -= other.z;
+        return this;
+    }
+
+    /**
+     * Multiplies the current vector by a given scalar.
+     * @return the current vector
+     */
+    public Vec3 scale(double scalar) {
+        x *= scalar;
+        y *= scalar;
+        z *= scalar;
+        return this;
+    }
+
+    /**
+     * Performs a dot product between the current vector and another one.
+     * @return The scalar of the result.
+     */
+    public double dotProduct(Vec3 other) {
+        return x * other.x + y * other.y + z * other.z;
+    }
+
+    /**
+     * Performs a dot product between the current vector and a given vector.
+     * @return The scalar of the result.
+     */
+    public double dotProduct(Vector vector) {
+        Point3D head = vector._head;
+        return x * head._x._coord + y * head._y._coord + z * head._z._coord;
+    }
+
+    /**
+     * Calculates the squared length of the vector.
+     */
+    public double lengthSquared() {
+        return x * x + y * y + z * z;
+    }
+
+    /**
+     * Calculates the length of the vector.
+     */
+    public double length() {
+        return Math.sqrt(lengthSquared());
+    }
+
+    /**
+     * Normalizes the current vector.
+     * @return the current vector
+     */
+    public Vec3 normalize() {
+        double len = length();
+        x /= len;
+        y /= len;
+        z /= len;
+        return this;
+    }
+
+    /**
+     * Creates a point from the coordinates of the current vector.
+     * @return the created point
+     */
+    public Point3D toPoint3D() {
+        return new Point3D(x, y, z);
+    }
+
+    /**
+     * Creates a vector from the coordinates of the current vector.
+     * @return the created vector
+     * @exception IllegalArgumentException When the current vector is the zero vector.
+     */
+    public Vector toVector() {
+        return new Vector(x, y, z);
+    }
+
+    @Override
+    public String toString() {
+        return "Vec3(" + x + ", " + y + ", " + z + ')';
+    }
+}
@@ -0,0 +1,357 @@
+package renderer;
+
+import elements.Camera;
+import multithreading.ThreadPool;
+import org.w3c.dom.Node;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Class for rendering an animation - a sequence of frames of a scene from a moving camera.
+ * The camera of every frame is interpolated between keyframes (see {@link Camera#interpolate(Camera, double)}),
+ * so the frames don't share a camera and can be rendered at the same time.
+ * The frames are rendered in parallel when there are enough threads, every frame with its own {@link Render},
+ * which is faster than rendering the frames one after another for small frames,
+ * where splitting a single frame between many threads doesn't pay off.
+ * The animation can be written as an animated GIF and as an image file for every frame.
+ */
+public class Animation {
+    private static final String GIFS_PATH = System.getProperty("user.dir") + "/images/gifs";
+    private static final int DEFAULT_FRAME_DELAY = 100;
+
+    private final int _nX;
+    private final int _nY;
+    /**
+     * The cameras of the keyframes by the indices of their frames.
+     */
+    private final TreeMap<Integer, Camera> _keyframes = new TreeMap<>();
+    private int _frames = 0;
+    private RayTracerBase _rayTracer = null;
+    private Consumer<Render> _renderSettings = render -> {
+    };
+    private int _threads = Runtime.getRuntime().availableProcessors();
+    private String _gifName = null;
+    private int _frameDelay = DEFAULT_FRAME_DELAY;
+    private String _framesName = null;
+
+    /**
+     * Creates an animation with a given frame size.
+     * @param nX the number of columns in every frame.
+     * @param nY the number of rows in every frame.
+     */
+    public Animation(int nX, int nY) {
+        _nX = nX;
+        _nY = nY;
+    }
+
+    /**
+     * Chaining method for adding a keyframe - the camera of a given frame.
+     * The camera is copied, so it can be changed afterwards (e.g. for the next keyframe).
+     * @param frame the index of the frame.
+     * @param camera the camera of the frame.
+     * @exception IllegalArgumentException when frame is negative.
+     * @return the current animation.
+     */
+    public Animation addKeyframe(int frame, Camera camera) {
+        if (frame < 0) {
+            throw new IllegalArgumentException("frame can be equals or greater to 0");
+        }
+
+        _keyframes.put(frame, new Camera(camera));
+        return this;
+    }
+
+    /**
+     * Chaining method for setting the number of frames.
+     * By default the animation ends at the last keyframe.
+     * @param frames the number of frames.
+     * @exception IllegalArgumentException when frames isn't greater than 0.
+     * @return the current animation.
+     */
+    public Animation setFrames(int frames) {
+        if (frames <= 0) {
+            throw new IllegalArgumentException("frames should be greater than 0");
+        }
+
+        _frames = frames;
+        return this;
+    }
+
+    /**
+     * Chaining method for setting the ray tracer, which is shared by all the frames.
+     * @param rayTracer the ray tracer to set.
+     * @return the current animation.
+     */
+    public Animation setRayTracer(RayTracerBase rayTracer) {
+        _rayTracer = rayTracer;
+        return this;
+    }
+
+    /**
+     * Chaining method for setting the settings of the render of every frame (e.g. Anti-Aliasing).
+     * The camera, the image writer, the ray tracer and the threads of the render are set by the animation.
+     * @param renderSettings sets the render of a frame.
+     * @return the current animation.
+     */
+    public Animation setRenderSettings(Consumer<Render> renderSettings) {
+        if (renderSettings == null) {
+            throw new NullPointerException("render settings cannot be null");
+        }
+
+        _renderSettings = renderSettings;
+        return this;
+    }
+
+    /**
+     * Chaining method for setting the number of threads for the whole animation (all the cores by default).
+     * The threads render different frames at the same time, and when there are more threads than frames
+     * the rest of the threads are split between the frames.
+     * @param threads the number of threads.
+     * @exception IllegalArgumentException when threads isn't greater than 0.
+     * @return the current animation.
+     */
+    public Animation setThreads(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads should be greater than 0");
+        }
+
+        _threads = threads;
+        return this;
+    }
+
+    /**
+     * Chaining method for writing the animation as an animated GIF into the gifs directory of the images.
+     * @param name the name of the GIF file, null for not writing a GIF.
+     * @return the current animation.
+     */
+    public Animation setGifName(String name) {
+        _gifName = name;
+        return this;
+    }
+
+    /**
+     * Chaining method for setting the time between the frames of the GIF.
+     * @param millis the time in milliseconds (rounded to hundredths of a second).
+     * @exception IllegalArgumentException when millis is negative.
+     * @return the current animation.
+     */
+    public Animation setFrameDelay(int millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("frame delay can be equals or greater to 0");
+        }
+
+        _frameDelay = millis;
+        return this;
+    }
+
+    /**
+     * Chaining method for writing every frame as an image (see {@link ImageWriter#writeToImage()}),
+     * with the name followed by the number of the frame (starting at 1).
+     * @param name the name of the frames, null for not writing the frames.
+     * @return the current animation.
+     */
+    public Animation setFramesName(String name) {
+        _framesName = name;
+        return this;
+    }
+
+    /**
+     * Returns the camera of a given frame, interpolated between the keyframes around it.
+     * Before the first keyframe and after the last keyframe the camera doesn't move.
+     * @param frame the index of the frame.
+     * @exception IllegalStateException when there are no keyframes.
+     * @return a new camera for the frame.
+     */
+    public Camera getCamera(int frame) {
+        if (_keyframes.isEmpty()) {
+            throw new IllegalStateException("The animation has no keyframes");
+        }
+
+        Map.Entry<Integer, Camera> before = _keyframes.floorEntry(frame);
+        Map.Entry<Integer, Camera> after = _keyframes.ceilingEntry(frame);
+        if (before == null) {
+            return new Camera(after.getValue());
+        }
+        if (after == null || before.getKey().equals(after.getKey())) {
+            return new Camera(before.getValue());
+        }
+
+        double t = (frame - before.getKey()) / (double) (after.getKey() - before.getKey());
+        return before.getValue().interpolate(after.getValue(), t);
+    }
+
+    /**
+     * Renders all the frames of the animation and writes them.
+     * @exception UnsupportedOperationException when the animation didn't receive the ray tracer or the keyframes.
+     * @exception UncheckedIOException when failed to write the GIF.
+     */
+    public void render() {
+        try {
+            if (_rayTracer == null) {
+                throw new MissingResourceException("Missing resource", RayTracerBase.class.getName(), "");
+            }
+            if (_keyframes.isEmpty()) {
+                throw new MissingResourceException("Missing resource", Camera.class.getName(), "");
+            }
+        } catch (MissingResourceException e) {
+            throw new UnsupportedOperationException("Animation didn't receive " + e.getClassName());
+        }
+
+        int frames = _frames > 0 ? _frames : _keyframes.lastKey() + 1;
+        int frameThreads = Math.min(_threads, frames);
+        int renderThreads = Math.max(1, _threads / frameThreads);
+        BufferedImage[] images = new BufferedImage[frames];
+
+        if (frameThreads == 1) {
+            for (int frame = 0; frame < frames; ++frame) {
+                images[frame] = renderFrame(frame, renderThreads);
+            }
+        } else {
+            AtomicInteger nextFrame = new AtomicInteger();
+            ThreadPool<Integer> threadPool = new ThreadPool<Integer>()
+                    .setNumThreads(frameThreads)
+                    .setParamGetter(() -> {
+                        int frame = nextFrame.getAndIncrement();
+                        return frame < frames ? frame : null;
+                    })
+                    .setTarget(frame -> {
+                        if (frame == null) {
+                            return false; // kill the thread.
+                        }
+                        images[frame] = renderFrame(frame, renderThreads);
+                        return true;
+                    });
+            try {
+                threadPool.execute();
+                threadPool.join();
+            } finally {
+                threadPool.shutdown();
+            }
+        }
+
+        if (_gifName != null) {
+            try {
+                writeGif(new File(GIFS_PATH, _gifName + ".gif"), images);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Renders a single frame with its own camera, image writer and render.
+     * @param frame the index of the frame.
+     * @param threads the number of threads for rendering the frame.
+     * @return the image of the frame.
+     */
+    private BufferedImage renderFrame(int frame, int threads) {
+        String name = _framesName != null ? _framesName + (frame + 1) : "frame" + (frame + 1);
+        ImageWriter imageWriter = new ImageWriter(name, _nX, _nY);
+        try (Render render = new Render()) {
+            _renderSettings.accept(render);
+            render.setCamera(getCamera(frame))
+                    .setImageWriter(imageWriter)
+                    .setRayTracer(_rayTracer)
+                    .setMultithreading(threads);
+            render.renderImage();
+        }
+
+        if (_framesName != null) {
+            imageWriter.writeToImage();
+        }
+        return imageWriter.toImage();
+    }
+
+    /**
+     * Writes the frames as an animated GIF that loops forever.
+     * @param file the GIF file.
+     * @param images the frames.
+     * @throws IOException when failed to write the file.
+     */
+    private void writeGif(File file, BufferedImage[] images) throws IOException {
+        File directory = file.getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Failed to create the directory " + directory);
+        }
+
+        javax.imageio.ImageWriter writer = ImageIO.getImageWritersByFormatName("gif").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(file)) {
+            if (out == null) {
+                throw new IOException("Can't create an ImageOutputStream for " + file);
+            }
+
+            writer.setOutput(out);
+            writer.prepareWriteSequence(null);
+            for (int i = 0; i < images.length; ++i) {
+                IIOMetadata metadata = writer.getDefaultImageMetadata(
+                        ImageTypeSpecifier.createFromRenderedImage(images[i]), param);
+                setGifMetadata(metadata, i == 0);
+                writer.writeToSequence(new IIOImage(images[i], null, metadata), param);
+            }
+            writer.endWriteSequence();
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * Sets the delay of a GIF frame, and on the first frame the looping of the animation.
+     * @param metadata the metadata of the frame.
+     * @param first whether it is the first frame.
+     * @throws IOException when the metadata can't be set.
+     */
+    private void setGifMetadata(IIOMetadata metadata, boolean first) throws IOException {
+        String format = metadata.getNativeMetadataFormatName();
+        IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(format);
+
+        IIOMetadataNode control = getChild(root, "GraphicControlExtension");
+        control.setAttribute("disposalMethod", "none");
+        control.setAttribute("userInputFlag", "FALSE");
+        control.setAttribute("transparentColorFlag", "FALSE");
+        control.setAttribute("transparentColorIndex", "0");
+        // The delay of GIF is in hundredths of a second
+        control.setAttribute("delayTime", Integer.toString(Math.round(_frameDelay / 10f)));
+
+        if (first) {
+            // The Netscape extension with 0 repetitions loops forever
+            IIOMetadataNode extension = new IIOMetadataNode("ApplicationExtension");
+            extension.setAttribute("applicationID", "NETSCAPE");
+            extension.setAttribute("authenticationCode", "2.0");
+            extension.setUserObject(new byte[]{1, 0, 0});
+            getChild(root, "ApplicationExtensions").appendChild(extension);
+        }
+
+        metadata.setFromTree(format, root);
+    }
+
+    /**
+     * Returns the child node with a given name, creates it when it doesn't exist.
+     */
+    private static IIOMetadataNode getChild(IIOMetadataNode root, String name) {
+        for (Node node = root.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node.getNodeName().equals(name)) {
+                return (IIOMetadataNode) node;
+            }
+        }
+
+        IIOMetadataNode child = new IIOMetadataNode(name);
+        root.appendChild(child);
+        return child;
+    }
+}
@@ -4,11 +4,11 @@ import elements.LightSource;
 import primitives.*;
 import scene.Scene;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 import static geometries.Intersectable.GeoPoint;
-import static java.lang.Math.random;
 import static primitives.Util.isZero;
 
 /**
@@ -17,10 +17,21 @@ import static primitives.Util.isZero;
 public class BasicRayTracer extends RayTracerBase {
     private static final double INITIAL_K = 1.0;
     private static final double MIN_CALC_COLOR_K = 0.001;
+    /**
+     * The number of glossy rays traced before every convergence check of the adaptive glossiness.
+     */
+    private static final int GLOSSY_BATCH_SIZE = 4;
+    /**
+     * The adaptive glossiness stops when the standard error of the average color,
+     * multiplied by its effect on the pixel, is less than this (in color units).
+     */
+    private static final double GLOSSY_TOLERANCE = 1.0;
 
     private int _maxCalcColorLevel = 10;
     private int _glossinessRays = 10;
+    private boolean _adaptiveGlossiness = false;
     private boolean _useBoundingBoxes = true;
+    private Sampler _sampler = Sampler.RANDOM;
 
     /**
      * Constructs a ray tracer object with a given scene
@@ -32,7 +43,8 @@ public class BasicRayTracer extends RayTracerBase {
     }
 
     /**
-     * Chaining method, sets the number of glossiness rays to shoot from the object
+     * Chaining method, sets the number of glossiness rays to shoot from the object.
+     * With adaptive glossiness it is the maximum number of rays.
      * @param glossinessRays the number of rays to set
      * @return the BasicRayTracer itself.
      */
@@ -46,6 +58,33 @@ public class BasicRayTracer extends RayTracerBase {
         return this;
     }
 
+    /**
+     * Chaining method, Sets whether to use adaptive glossiness.
+     * The glossy rays are traced in small batches until the average color converges,
+     * and the maximum number of rays is reduced by the depth of the recursion and by the effect on the pixel.
+     * @param adaptive true to use adaptive glossiness
+     * @return the BasicRayTracer itself
+     */
+    public BasicRayTracer setAdaptiveGlossiness(boolean adaptive) {
+        _adaptiveGlossiness = adaptive;
+        return this;
+    }
+
+    /**
+     * Chaining method, Sets the distribution of the glossy rays on the hemisphere (independent random rays by default).
+     * Stratified or low-discrepancy rays cover the hemisphere more evenly, so they reach the same noise with fewer rays.
+     * @param sampler the distribution of the rays
+     * @return the BasicRayTracer itself
+     */
+    public BasicRayTracer setSampler(Sampler sampler) {
+        if (sampler == null) {
+            throw new NullPointerException("sampler cannot be null");
+        }
+
+        _sampler = sampler;
+        return this;
+    }
+
     /**
      * Chaining method, Sets the max level of calculations to the CalcColor function
      * @param level The number of levels to set
@@ -79,6 +118,7 @@ public class BasicRayTracer extends RayTracerBase {
      */
     @Override
     public Color traceRay(Ray ray) {
+        Metrics.count(Metrics.Counter.PRIMARY_RAYS);
         GeoPoint closestPoint = findClosestIntersection(ray);
         return closestPoint == null ? _scene.background : calcColor(closestPoint, ray);
     }
@@ -149,7 +189,7 @@ public class BasicRayTracer extends RayTracerBase {
                 continue;
             }
 
-            double ktr = transparency(ls, l, n, gp);
+            double ktr = transparency(ls, l, n, gp, k);
             // If the change is larger then the minimum k
             if (ktr * k > MIN_CALC_COLOR_K) {
                 Color lightIntensity = ls.getIntensity(gp.point).scale(ktr);
@@ -197,11 +237,9 @@ public class BasicRayTracer extends RayTracerBase {
      * @return the color affected by the specular of the material
      */
     private Color calcSpecular(double kS, Vector l, Vector n, double ln, Vector v, double nShininess, Color lightIntensity) {
-        Vector r = l;
-        if (!isZero(ln * 2)) {
-            r = l.subtract(n.scale(ln * 2));
-        }
-        double vr = Math.pow(v.scale(-1).dotProduct(r), nShininess);
+        // r = l - 2 * (l,n) * n
+        Vec3 r = new Vec3().set(l).addScaled(n, -2 * ln);
+        double vr = Math.pow(-r.dotProduct(v), nShininess);
         return lightIntensity.scale(kS * vr);
     }
 
@@ -214,34 +252,20 @@ public class BasicRayTracer extends RayTracerBase {
      * @param l     the ray's direction
      * @param n     the normal at the intersection
      * @param gp    the intersection point and geometry
+     * @param k     the effect's strength of the current level,
+     *              any shadow effect that makes it smaller than
+     *              {@code MIN_CALC_COLOR_K} is considered fully blocked
      * @return the shadow effect from 0 (fully blocked) to 1 (not blocked at all)
      */
-    private double transparency(LightSource light, Vector l, Vector n, GeoPoint gp) {
+    private double transparency(LightSource light, Vector l, Vector n, GeoPoint gp, double k) {
         Vector lightDirection = l.scale(-1); // from point to light source
         Ray lightRay = new Ray(gp.point, lightDirection, n);
         double lightDistance = light.getDistance(gp.point);
+        Metrics.count(Metrics.Counter.SHADOW_RAYS);
 
-        // Finds all intersections
-        List<GeoPoint> intersections = _scene.geometries
-                .findGeoIntersections(lightRay, lightDistance, _useBoundingBoxes);
-
-        // If there are no intersections, stop the check
-        if (intersections == null) {
-            return 1.0;
-        }
-
-        double ktr = 1.0;
-
-        // Loops on every intersection and multiplies their kT values
-        for (GeoPoint p : intersections) {
-            ktr *= p.geometry.getMaterial().kT;
-
-            // If the change is smaller then the minimum K, stop and return 0
-            if (ktr < MIN_CALC_COLOR_K) {
-                return 0.0;
-            }
-        }
-        return ktr;
+        // Stops on the first blocking objects that reduce the shadow effect under the minimum k
+        return _scene.geometries
+                .occlusion(lightRay, lightDistance, MIN_CALC_COLOR_K / k, _useBoundingBoxes);
     }
 
     /**
@@ -262,39 +286,129 @@ public class BasicRayTracer extends RayTracerBase {
         Material material = gp.geometry.getMaterial();
 
         Vector v = ray.getDir();
-        Vector n = gp.geometry.getNormal(gp.point);
-        if (v.dotProduct(n) > 0) {
-            n = n.scale(-1);
-        }
+        Vector normal = gp.geometry.getNormal(gp.point);
+        Vector n = v.dotProduct(normal) > 0 ? normal.scale(-1) : normal;
+
+        boolean adaptive = _adaptiveGlossiness && !isZero(material.kG - 1);
 
         // Adds the reflection effect
         double kkr = k * material.kR;
         if (kkr > MIN_CALC_COLOR_K) {
             // Constructs the reflected rays
-            Ray[] reflectedRays = constructReflectedRays(gp.point, v, n, material.kG, _glossinessRays);
-            // Loops on every ray and adds it's color to the sum
-            for (Ray reflectedRay : reflectedRays) {
-                color = color.add(calcGlobalEffect(reflectedRay, level, material.kR, kkr)
-                        .scale(1d / reflectedRays.length));
-            }
+            RaysConstructor reflected = numOfRays -> constructReflectedRays(gp.point, v, n, material.kG, numOfRays);
+            color = color.add(adaptive ?
+                    calcAdaptiveGlossyEffect(reflected, Metrics.Counter.REFLECTION_RAYS, level, material.kR, kkr) :
+                    calcGlossyEffect(reflected, Metrics.Counter.REFLECTION_RAYS, level, material.kR, kkr));
         }
 
         // Adds the refraction effect
         double kkt = k * material.kT;
         if (kkt > MIN_CALC_COLOR_K) {
             // Constructs the refracted rays
-            Ray[] refractedRays = constructRefractedRays(gp.point, v, n.scale(-1), material.kG, _glossinessRays);
-            // Loops on every ray and adds it's color to the sum
-            for (Ray refractedRay : refractedRays) {
-                color = color.add(calcGlobalEffect(refractedRay, level, material.kT, kkt)
-                        .scale(1d / refractedRays.length));
-            }
+            Vector inverseNormal = n.scale(-1);
+            RaysConstructor refracted = numOfRays -> constructRefractedRays(gp.point, v, inverseNormal, material.kG, numOfRays);
+            color = color.add(adaptive ?
+                    calcAdaptiveGlossyEffect(refracted, Metrics.Counter.REFRACTION_RAYS, level, material.kT, kkt) :
+                    calcGlossyEffect(refracted, Metrics.Counter.REFRACTION_RAYS, level, material.kT, kkt));
         }
 
         // Returns the final color after adding the reflection and refraction effects
         return color;
     }
 
+    /**
+     * Constructs a given number of reflection or refraction rays.
+     */
+    private interface RaysConstructor {
+        Ray[] construct(int numOfRays);
+    }
+
+    /**
+     * Calculates the average effect of {@code _glossinessRays} reflection or refraction rays.
+     *
+     * @param constructor constructs the reflection or refraction rays
+     * @param counter the counter of the traced rays (see {@link Metrics})
+     * @param level the number of the recursive calls
+     * @param kx    the strength's of the reflection or the refraction by the material
+     * @param kkx   the strength's of the reflection or the refraction affected
+     *              by the level of the tree
+     * @return the average color of the rays
+     */
+    private Color calcGlossyEffect(RaysConstructor constructor, Metrics.Counter counter,
+                                   int level, double kx, double kkx) {
+        Color color = Color.BLACK;
+        Ray[] rays = constructor.construct(_glossinessRays);
+        Metrics.count(counter, rays.length);
+        // Loops on every ray and adds it's color to the sum
+        for (Ray ray : rays) {
+            color = color.add(calcGlobalEffect(ray, level, kx, kkx)
+                    .scale(1d / rays.length));
+        }
+        return color;
+    }
+
+    /**
+     * Calculates the average effect of reflection or refraction rays adaptively.
+     * The maximum number of rays is {@code _glossinessRays}, reduced by the strength of the effect
+     * and divided by the depth of the recursion, and it is always at least 1.
+     * The rays are constructed at once, so they keep the distribution of the sampler,
+     * and are traced in batches of {@code GLOSSY_BATCH_SIZE} until the standard error of the average color
+     * is small enough for its effect on the pixel, or until all of them are traced.
+     *
+     * @param constructor constructs the reflection or refraction rays
+     * @param counter the counter of the traced rays (see {@link Metrics})
+     * @param level the number of the recursive calls
+     * @param kx    the strength's of the reflection or the refraction by the material
+     * @param kkx   the strength's of the reflection or the refraction affected
+     *              by the level of the tree
+     * @return the average color of the rays
+     */
+    private Color calcAdaptiveGlossyEffect(RaysConstructor constructor, Metrics.Counter counter,
+                                           int level, double kx, double kkx) {
+        int depth = _maxCalcColorLevel - level + 1;
+        int maxRays = (int) Math.ceil(_glossinessRays * Math.min(kkx, 1) / depth);
+        // The error that is allowed on the average color, so the error on the pixel is at most the tolerance
+        double tolerance = GLOSSY_TOLERANCE * kx / kkx;
+
+        Ray[] rays = constructor.construct(maxRays);
+        List<Color> colors = new ArrayList<>(rays.length);
+        Color sum = Color.BLACK;
+        while (colors.size() < rays.length) {
+            int end = Math.min(colors.size() + GLOSSY_BATCH_SIZE, rays.length);
+            for (int i = colors.size(); i < end; ++i) {
+                Color color = calcGlobalEffect(rays[i], level, kx, kkx);
+                colors.add(color);
+                sum = sum.add(color);
+            }
+
+            if (colors.size() > 1 && standardError(colors, sum.reduce(colors.size())) <= tolerance) {
+                break;
+            }
+        }
+
+        Metrics.count(counter, colors.size());
+        return sum.reduce(colors.size());
+    }
+
+    /**
+     * Calculates the standard error of an average color,
+     * by the differences (see {@link Color#difference(Color)}) of the colors from the average.
+     *
+     * @param colors  the colors (at least 2)
+     * @param average the average of the colors
+     * @return the standard error of the average
+     */
+    private static double standardError(List<Color> colors, Color average) {
+        double sumSquared = 0;
+        for (Color color : colors) {
+            double difference = color.difference(average);
+            sumSquared += difference * difference;
+        }
+
+        int n = colors.size();
+        return Math.sqrt(sumSquared / (n - 1) / n);
+    }
+
     /**
      * Calculates the effect of a reflection or a refraction
      * by the objects of the scene
@@ -327,12 +441,12 @@ public class BasicRayTracer extends RayTracerBase {
      * @return randomized reflection rays
      */
     private Ray[] constructReflectedRays(Point3D point, Vector v, Vector n, double kG, int numOfRays) {
-        Vector n2vn = n.scale(-2 * v.dotProduct(n));
-        Vector r = v.add(n2vn);
+        // r = v - 2 * (v,n) * n
+        Vec3 r = new Vec3().set(v).addScaled(n, -2 * v.dotProduct(n));
 
         // If kG is equals to 1 then return only 1 ray, the specular ray (r)
         if (isZero(kG - 1)) {
-            return new Ray[]{new Ray(point, r, n)};
+            return new Ray[]{new Ray(point, r.toVector(), n)};
         }
 
         Vector[] randomizedVectors = getRandomVectorsOnUnitHemisphere(n, numOfRays);
@@ -347,7 +461,7 @@ public class BasicRayTracer extends RayTracerBase {
         // If kG is in range (0,1) then move the randomized vectors towards the specular vector (v)
         return Arrays.stream(randomizedVectors)
                 .map(vector -> new Ray(point,
-                        vector.scale(1 - kG).add(r.scale(kG)), n))
+                        new Vec3().set(r).scale(kG).addScaled(vector, 1 - kG).toVector(), n))
                 .toArray(Ray[]::new);
     }
 
@@ -379,12 +493,13 @@ public class BasicRayTracer extends RayTracerBase {
         // If kG is in range (0,1) then move the randomized vectors towards the specular vector (v)
         return Arrays.stream(randomizedVectors)
                 .map(vector -> new Ray(point,
-                        vector.scale(1 - kG).add(v.scale(kG)), n))
+                        new Vec3().set(v).scale(kG).addScaled(vector, 1 - kG).toVector(), n))
                 .toArray(Ray[]::new);
     }
 
     /**
-     * Creates random vectors on the unit hemisphere with a given normal on the hemisphere's bottom.<br>
+     * Creates random vectors on the unit hemisphere with a given normal on the hemisphere's bottom,
+     * cosine-weighted around the normal and distributed by the sampler (see {@link Sampler#toCosineHemisphere}).<br>
      * source: https://my.eng.utah.edu/~cs6958/slides/pathtrace.pdf#page=18
      *
      * @param n normal to the hemisphere's bottom
@@ -407,24 +522,19 @@ public class BasicRayTracer extends RayTracerBase {
         Vector x = n.crossProduct(axis);
         Vector z = n.crossProduct(x);
 
+        double[] samples = _sampler.samples(numOfVectors, Util.getRandom());
+        Vec3 point = new Vec3();
         Vector[] randomVectors = new Vector[numOfVectors];
         for (int i = 0; i < numOfVectors; i++) {
-            // pick a point on the hemisphere bottom
-            double u, v, u_2, v_2;
-            do {
-                u = random() * 2 - 1;
-                v = random() * 2 - 1;
-                u_2 = u * u;
-                v_2 = v * v;
-            } while (u_2 + v_2 >= 1);
-
-            // calculate the height of the point
-            double w = Math.sqrt(1 - u_2 - v_2);
+            // pick a point on the hemisphere - (u, v) on the bottom and w the height
+            Sampler.toCosineHemisphere(samples[2 * i], samples[2 * i + 1], point);
 
             // create the new vector according to the base (x, n, z) and the coordinates (u, w, v)
-            randomVectors[i] = x.scale(u)
-                    .add(z.scale(v))
-                    .add(n.scale(w));
+            randomVectors[i] = new Vec3()
+                    .addScaled(x, point.x)
+                    .addScaled(z, point.y)
+                    .addScaled(n, point.z)
+                    .toVector();
         }
 
         return randomVectors;
@@ -437,11 +547,6 @@ public class BasicRayTracer extends RayTracerBase {
      * @return the closest point to the ray's origin
      */
     private GeoPoint findClosestIntersection(Ray ray) {
-        List<GeoPoint> intersections = _scene.geometries.findGeoIntersections(ray, _useBoundingBoxes);
-        if (intersections == null) {
-            return null;
-        }
-
-        return ray.findClosestGeoPoint(intersections);
+        return _scene.geometries.findClosestIntersection(ray, Double.POSITIVE_INFINITY, _useBoundingBoxes);
     }
 }
@@ -0,0 +1,34 @@
+package renderer;
+
+/**
+ * The file formats that {@link ImageWriter} can write the image in.
+ */
+public enum ImageFormat {
+    /**
+     * Lossless compressed 8 bits image, by the tone mapping of the image writer.
+     */
+    PNG(".png"),
+    /**
+     * Binary portable pixmap (P6) - uncompressed 8 bits image, by the tone mapping of the image writer.
+     * Much faster to write than PNG.
+     */
+    PPM(".ppm"),
+    /**
+     * Portable float map - the raw high dynamic range colors, without tone mapping.
+     * The components are divided by 255, so 1 is white.
+     */
+    PFM(".pfm");
+
+    private final String _extension;
+
+    ImageFormat(String extension) {
+        _extension = extension;
+    }
+
+    /**
+     * Returns the extension of the files of the format, including the dot.
+     */
+    public String getExtension() {
+        return _extension;
+    }
+}
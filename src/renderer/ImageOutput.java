@@ -0,0 +1,137 @@
+package renderer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Asynchronous output stage of images - encodes and writes the images of image writers
+ * (see {@link ImageWriter#setOutput(ImageOutput)}) on a background thread,
+ * so the next image can be rendered meanwhile.
+ * The number of images that wait to be written is bounded, when it is full the writing
+ * image writer waits for a place, so the renderer doesn't get ahead of the disk.
+ * The background thread doesn't keep the program alive, so {@link #close()} (or {@link #flush()})
+ * must be called to make sure all the images were written.
+ */
+public class ImageOutput implements AutoCloseable {
+    private static final int DEFAULT_CAPACITY = 4;
+
+    private final int _capacity;
+    /**
+     * The free places for images, an image takes a place until it is written.
+     */
+    private final Semaphore _places;
+    private final ExecutorService _executor;
+    /**
+     * The first failure to write an image, thrown by {@link #flush()} and {@link #close()}.
+     */
+    private final AtomicReference<IOException> _failure = new AtomicReference<>();
+
+    private final Logger _logger = Logger.getLogger("ImageOutput");
+
+    /**
+     * A job of writing an image.
+     */
+    interface Job {
+        void write() throws IOException;
+    }
+
+    /**
+     * Creates an output stage with the default number of images that can wait to be written.
+     */
+    public ImageOutput() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an output stage with a given number of images that can wait to be written.
+     * @param capacity the number of images that can wait to be written.
+     * @exception IllegalArgumentException when capacity isn't greater than 0.
+     */
+    public ImageOutput(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be greater than 0");
+        }
+
+        _capacity = capacity;
+        _places = new Semaphore(capacity);
+        _executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ImageOutput");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Submits a job of writing an image, waits when there is no place for it.
+     * @param job the job.
+     * @exception IllegalStateException when the output stage is closed.
+     */
+    void submit(Job job) {
+        _places.acquireUninterruptibly();
+        try {
+            _executor.execute(() -> {
+                try {
+                    job.write();
+                } catch (IOException e) {
+                    _logger.log(Level.SEVERE, "I/O error", e);
+                    _failure.compareAndSet(null, e);
+                } finally {
+                    _places.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            _places.release();
+            throw new IllegalStateException("The image output is closed", e);
+        }
+    }
+
+    /**
+     * Waits until all the submitted images are written.
+     * @exception UncheckedIOException the first failure to write an image since the last check.
+     */
+    public void flush() {
+        _places.acquireUninterruptibly(_capacity);
+        _places.release(_capacity);
+        throwFailure();
+    }
+
+    /**
+     * Writes all the submitted images and stops the background thread.
+     * @exception UncheckedIOException the first failure to write an image since the last check.
+     */
+    @Override
+    public void close() {
+        _executor.shutdown();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (_executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                // Keeps waiting, the images are still being written
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        throwFailure();
+    }
+
+    private void throwFailure() {
+        IOException failure = _failure.getAndSet(null);
+        if (failure != null) {
+            throw new UncheckedIOException(failure);
+        }
+    }
+}
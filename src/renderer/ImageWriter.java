@@ -2,19 +2,39 @@ package renderer;
 
 import primitives.Color;
 import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.imageio.*;
+import javax.imageio.stream.ImageOutputStream;
 
 /**
  * Image writer class combines accumulation of pixel color matrix and finally
  * producing a non-optimized jpeg image from this matrix. The class although is
  * responsible of holding image related parameters of View Plane - pixel matrix
  * size and resolution
- * 
+ * <p>
+ * The colors are kept in high dynamic range (as floats, without upper limit),
+ * and are converted to the 8 bits of the image only when it is written, by the
+ * tone mapping (see {@link ToneMapper}), the exposure and the gamma. Every pixel
+ * keeps the number of its samples, so samples can be accumulated into it and its
+ * color is their average. The pixels don't share any state, so different pixels
+ * can be written by different threads without locking (a single pixel should be
+ * written by a single thread at a time).
+ * <p>
+ * The image is written in one of the formats of {@link ImageFormat}, into the
+ * images directory of the project by default. When an {@link ImageOutput} is
+ * set, the image is encoded and written on its background thread, from a copy
+ * of the pixels, so the image writer can be changed meanwhile.
+ *
  * @author Dan
  */
 public class ImageWriter {
@@ -22,12 +42,57 @@ public class ImageWriter {
 	private final int _nY;
 
 	private static final String FOLDER_PATH = System.getProperty("user.dir") + "/images";
+	private static final int MAX_COMPRESSION_LEVEL = 9;
 
-	private final BufferedImage _image;
+	/**
+	 * The sums of the red, green and blue components of the pixels, row by row
+	 */
+	private final float[] _buffer;
+	/**
+	 * The number of samples of every pixel
+	 */
+	private final int[] _samples;
 	private final String _imageName;
-	
+
+	private ToneMapper _toneMapper = ToneMapper.CLAMP;
+	private double _exposure = 1;
+	private double _gamma = 1;
+
+	private String _directory = FOLDER_PATH;
+	private ImageFormat _format = ImageFormat.PNG;
+	private int _compressionLevel = -1;
+	private ImageOutput _output = null;
+
 	private final Logger _logger = Logger.getLogger("ImageWriter");
 
+	/**
+	 * Tone mapping of a color component from high dynamic range to the range of
+	 * the image. Both values are in the scale of the colors, where 255 is white.
+	 */
+	public interface ToneMapper {
+		/**
+		 * Cuts the components that are brighter than white (as java.awt.Color)
+		 */
+		ToneMapper CLAMP = value -> Math.min(value, 255);
+		/**
+		 * Reinhard operator - x / (1 + x), compresses the bright components
+		 * smoothly instead of cutting them
+		 */
+		ToneMapper REINHARD = value -> 255 * value / (255 + value);
+		/**
+		 * Exponential exposure operator - 1 - e^(-x), like the response of a film
+		 */
+		ToneMapper EXPOSURE = value -> 255 * (1 - Math.exp(-value / 255));
+
+		/**
+		 * Maps a color component to the range of the image
+		 *
+		 * @param value the component (0..255 or more)
+		 * @return the mapped component (0..255)
+		 */
+		double map(double value);
+	}
+
 	// ***************** Constructors ********************** //
 	/**
 	 * Image Writer constructor accepting image name and View Plane parameters,
@@ -40,13 +105,14 @@ public class ImageWriter {
 		this._nX = nX;
 		this._nY = nY;
 
-		_image = new BufferedImage(nX, nY, BufferedImage.TYPE_INT_RGB);
+		_buffer = new float[nX * nY * 3];
+		_samples = new int[nX * nY];
 	}
 
 	// ***************** Getters/Setters ********************** //
 	/**
 	 * View Plane Y axis resolution
-	 * 
+	 *
 	 * @return the amount of vertical pixels
 	 */
 	public int getNy() {
@@ -55,38 +121,384 @@ public class ImageWriter {
 
 	/**
 	 * View Plane X axis resolution
-	 * 
+	 *
 	 * @return the amount of horizontal pixels
 	 */
 	public int getNx() {
 		return _nX;
 	}
 
+	/**
+	 * Chaining method for setting the tone mapping, which is used when writing the
+	 * image (clamping by default)
+	 *
+	 * @param toneMapper the tone mapping
+	 * @return the current image writer
+	 */
+	public ImageWriter setToneMapper(ToneMapper toneMapper) {
+		if (toneMapper == null)
+			throw new NullPointerException("tone mapper cannot be null");
+		_toneMapper = toneMapper;
+		return this;
+	}
+
+	/**
+	 * Chaining method for setting the exposure - the colors are scaled by it before
+	 * the tone mapping (1 by default)
+	 *
+	 * @param exposure the exposure
+	 * @return the current image writer
+	 */
+	public ImageWriter setExposure(double exposure) {
+		if (exposure <= 0)
+			throw new IllegalArgumentException("exposure must be greater than 0");
+		_exposure = exposure;
+		return this;
+	}
+
+	/**
+	 * Chaining method for setting the gamma of the image - the colors are raised to
+	 * the power of 1/gamma after the tone mapping (1 by default, e.g. 2.2 for sRGB
+	 * screens)
+	 *
+	 * @param gamma the gamma
+	 * @return the current image writer
+	 */
+	public ImageWriter setGamma(double gamma) {
+		if (gamma <= 0)
+			throw new IllegalArgumentException("gamma must be greater than 0");
+		_gamma = gamma;
+		return this;
+	}
+
+	/**
+	 * Chaining method for setting the directory to write the image files into (the
+	 * images directory of the project by default). Missing directories are created.
+	 *
+	 * @param directory the path of the directory
+	 * @return the current image writer
+	 */
+	public ImageWriter setDirectory(String directory) {
+		if (directory == null)
+			throw new NullPointerException("directory cannot be null");
+		_directory = directory;
+		return this;
+	}
+
+	/**
+	 * Chaining method for setting the format of the image file (PNG by default)
+	 *
+	 * @param format the format
+	 * @return the current image writer
+	 */
+	public ImageWriter setFormat(ImageFormat format) {
+		if (format == null)
+			throw new NullPointerException("format cannot be null");
+		_format = format;
+		return this;
+	}
+
+	/**
+	 * Chaining method for setting the compression level of PNG files, from 0 (no
+	 * compression, fastest) to 9 (smallest file), or -1 for the default of the
+	 * encoder
+	 *
+	 * @param level the compression level
+	 * @return the current image writer
+	 */
+	public ImageWriter setCompressionLevel(int level) {
+		if (level < -1 || level > MAX_COMPRESSION_LEVEL)
+			throw new IllegalArgumentException("compression level must be between -1 and " + MAX_COMPRESSION_LEVEL);
+		_compressionLevel = level;
+		return this;
+	}
+
+	/**
+	 * Chaining method for writing the image files asynchronously by a given output
+	 * stage, or synchronously when {@code null} (the default)
+	 *
+	 * @param output the output stage
+	 * @return the current image writer
+	 */
+	public ImageWriter setOutput(ImageOutput output) {
+		_output = output;
+		return this;
+	}
+
 	// ***************** Operations ******************** //
 
 	/**
 	 * Function writeToImage produces unoptimized png file of the image according to
-	 * pixel color matrix in the directory of the project
+	 * pixel color matrix in the directory of the project (or in the format and
+	 * directory that were set)
 	 */
 	public void writeToImage() {
+		write(_imageName, _format);
+	}
+
+	/**
+	 * Function writeSnapshot produces png file of the image as it is at the moment,
+	 * with a suffix added to the image name, e.g. for previewing a rendering which
+	 * isn't finished yet. The image can still be changed and written again afterwards.
+	 *
+	 * @param suffix the suffix to add to the image name
+	 */
+	public void writeSnapshot(String suffix) {
+		write(_imageName + suffix, _format);
+	}
+
+	/**
+	 * Function writeToPfm produces PFM file of the raw high dynamic range colors,
+	 * without tone mapping, exposure and gamma (see {@link ImageFormat#PFM})
+	 */
+	public void writeToPfm() {
+		write(_imageName, ImageFormat.PFM);
+	}
+
+	/**
+	 * Converts the pixels to an 8 bits image, as it would be written (by the tone
+	 * mapping, the exposure and the gamma)
+	 *
+	 * @return the image
+	 */
+	BufferedImage toImage() {
+		return new Frame(null, ImageFormat.PNG).toImage();
+	}
+
+	/**
+	 * Writes the image file, synchronously or by the output stage
+	 *
+	 * @param fileName the name of the file without extension
+	 * @param format   the format of the file
+	 */
+	private void write(String fileName, ImageFormat format) {
+		Frame frame = new Frame(new File(_directory, fileName + format.getExtension()), format);
+		if (_output != null) {
+			_output.submit(frame::write);
+			return;
+		}
+
 		try {
-			File file = new File(FOLDER_PATH + '/' + _imageName + ".png");
-			ImageIO.write(_image, "png", file);
+			frame.write();
 		} catch (IOException e) {
 			_logger.log(Level.SEVERE, "I/O error", e);
 		}
 	}
 
+	/**
+	 * Copy of the image and of its settings at the moment of writing, which is
+	 * encoded into the file (maybe on another thread)
+	 */
+	private class Frame {
+		private final File _file;
+		private final ImageFormat _format;
+		/**
+		 * The averages of the components of the pixels, row by row
+		 */
+		private final float[] _colors;
+		private final ToneMapper _toneMapper = ImageWriter.this._toneMapper;
+		private final double _exposure = ImageWriter.this._exposure;
+		private final double _gamma = ImageWriter.this._gamma;
+		private final int _compressionLevel = ImageWriter.this._compressionLevel;
+
+		Frame(File file, ImageFormat format) {
+			_file = file;
+			_format = format;
+			_colors = new float[_buffer.length];
+			for (int pixel = 0; pixel < _samples.length; ++pixel) {
+				int samples = Math.max(_samples[pixel], 1);
+				for (int index = pixel * 3; index < pixel * 3 + 3; ++index) {
+					_colors[index] = _buffer[index] / samples;
+				}
+			}
+		}
+
+		/**
+		 * Encodes the image into the file
+		 *
+		 * @throws IOException when failed to write the file
+		 */
+		void write() throws IOException {
+			File directory = _file.getParentFile();
+			if (directory != null && !directory.isDirectory() && !directory.mkdirs())
+				throw new IOException("Failed to create the directory " + directory);
+
+			if (_format == ImageFormat.PNG) {
+				writePng();
+				return;
+			}
+
+			try (OutputStream out = new BufferedOutputStream(new FileOutputStream(_file))) {
+				if (_format == ImageFormat.PPM)
+					writePpm(out);
+				else
+					writePfm(new DataOutputStream(out));
+			}
+		}
+
+		private void writePng() throws IOException {
+			BufferedImage image = toImage();
+			if (_compressionLevel < 0) {
+				if (!ImageIO.write(image, "png", _file))
+					throw new IOException("No PNG encoder");
+				return;
+			}
+
+			javax.imageio.ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+			ImageWriteParam param = writer.getDefaultWriteParam();
+			param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+			// The quality of the PNG encoder is the opposite of the compression level
+			param.setCompressionQuality(1 - _compressionLevel / (float) MAX_COMPRESSION_LEVEL);
+			try (ImageOutputStream out = ImageIO.createImageOutputStream(_file)) {
+				if (out == null)
+					throw new IOException("Can't create an ImageOutputStream for " + _file);
+				writer.setOutput(out);
+				writer.write(null, new IIOImage(image, null, null), param);
+			} finally {
+				writer.dispose();
+			}
+		}
+
+		private void writePpm(OutputStream out) throws IOException {
+			out.write(("P6\n" + _nX + " " + _nY + "\n255\n").getBytes(StandardCharsets.US_ASCII));
+			byte[] row = new byte[_nX * 3];
+			for (int y = 0; y < _nY; ++y) {
+				for (int i = 0; i < row.length; ++i) {
+					row[i] = (byte) toByte(_colors[y * _nX * 3 + i]);
+				}
+				out.write(row);
+			}
+		}
+
+		private void writePfm(DataOutputStream out) throws IOException {
+			// Negative scale means little endian
+			out.write(("PF\n" + _nX + " " + _nY + "\n-1.0\n").getBytes(StandardCharsets.US_ASCII));
+			// The rows are written from the bottom to the top
+			for (int y = _nY - 1; y >= 0; --y) {
+				for (int i = y * _nX * 3; i < (y + 1) * _nX * 3; ++i) {
+					out.writeInt(Integer.reverseBytes(Float.floatToIntBits(_colors[i] / 255)));
+				}
+			}
+			out.flush();
+		}
+
+		/**
+		 * Converts the pixels to an 8 bits image by the tone mapping, the exposure
+		 * and the gamma
+		 *
+		 * @return the image
+		 */
+		private BufferedImage toImage() {
+			BufferedImage image = new BufferedImage(_nX, _nY, BufferedImage.TYPE_INT_RGB);
+			int[] row = new int[_nX];
+			for (int y = 0; y < _nY; ++y) {
+				for (int x = 0; x < _nX; ++x) {
+					int index = (y * _nX + x) * 3;
+					row[x] = toByte(_colors[index]) << 16 //
+							| toByte(_colors[index + 1]) << 8 //
+							| toByte(_colors[index + 2]);
+				}
+				image.setRGB(0, y, _nX, 1, row, 0, _nX);
+			}
+			return image;
+		}
+
+		/**
+		 * Converts a color component to its 8 bits value in the image
+		 *
+		 * @param value the component (0..255 or more)
+		 * @return the 8 bits value
+		 */
+		private int toByte(double value) {
+			double mapped = _toneMapper.map(value * _exposure);
+			if (_gamma != 1)
+				mapped = 255 * Math.pow(mapped / 255, 1 / _gamma);
+			return Math.max(0, Math.min((int) mapped, 255));
+		}
+	}
+
 	/**
 	 * The function writePixel writes a color of a specific pixel into pixel color
-	 * matrix
-	 * 
+	 * matrix, replacing its previous samples
+	 *
 	 * @param xIndex X axis index of the pixel
 	 * @param yIndex Y axis index of the pixel
 	 * @param color  final color of the pixel
 	 */
 	public void writePixel(int xIndex, int yIndex, Color color) {
-		_image.setRGB(xIndex, yIndex, color.getColor().getRGB());
+		int pixel = yIndex * _nX + xIndex;
+		int index = pixel * 3;
+		_buffer[index] = (float) color.getR();
+		_buffer[index + 1] = (float) color.getG();
+		_buffer[index + 2] = (float) color.getB();
+		_samples[pixel] = 1;
+	}
+
+	/**
+	 * The function addSample accumulates a color into a specific pixel, whose
+	 * color is the average of all its samples
+	 *
+	 * @param xIndex X axis index of the pixel
+	 * @param yIndex Y axis index of the pixel
+	 * @param color  the color of the sample
+	 * @return the largest change of a component of the average color of the pixel,
+	 *         or {@link Double#POSITIVE_INFINITY} on the first sample of the pixel
+	 */
+	public double addSample(int xIndex, int yIndex, Color color) {
+		int pixel = yIndex * _nX + xIndex;
+		int index = pixel * 3;
+		int samples = ++_samples[pixel];
+
+		double r = color.getR();
+		double g = color.getG();
+		double b = color.getB();
+		_buffer[index] += r;
+		_buffer[index + 1] += g;
+		_buffer[index + 2] += b;
+		if (samples == 1)
+			return Double.POSITIVE_INFINITY;
+
+		// The average moves towards the new sample by 1/samples of their difference
+		return Math.max(Math.abs(r - _buffer[index] / samples),
+				Math.max(Math.abs(g - _buffer[index + 1] / samples), Math.abs(b - _buffer[index + 2] / samples)))
+				/ (samples - 1);
+	}
+
+	/**
+	 * Returns the color of a specific pixel, which is the average of its samples
+	 * (black if it has no samples)
+	 *
+	 * @param xIndex X axis index of the pixel
+	 * @param yIndex Y axis index of the pixel
+	 * @return the color of the pixel
+	 */
+	public Color getPixel(int xIndex, int yIndex) {
+		int pixel = yIndex * _nX + xIndex;
+		int samples = _samples[pixel];
+		if (samples == 0)
+			return Color.BLACK;
+
+		int index = pixel * 3;
+		return new Color(_buffer[index] / samples, _buffer[index + 1] / samples, _buffer[index + 2] / samples);
+	}
+
+	/**
+	 * Returns the number of samples of a specific pixel
+	 *
+	 * @param xIndex X axis index of the pixel
+	 * @param yIndex Y axis index of the pixel
+	 * @return the number of samples
+	 */
+	public int getSamples(int xIndex, int yIndex) {
+		return _samples[yIndex * _nX + xIndex];
+	}
+
+	/**
+	 * Removes the samples of all the pixels, so the image is black
+	 */
+	public void clear() {
+		Arrays.fill(_buffer, 0);
+		Arrays.fill(_samples, 0);
 	}
 
 }
@@ -44,4 +44,83 @@ public abstract class RayTracerBase {
         }
         return color.reduce(rays.size());
     }
+
+    /**
+     * Creates a ray through a given point on the view plane (in pixel units).
+     */
+    public interface RayGenerator {
+        Ray constructRay(double x, double y);
+    }
+
+    /**
+     * Calculates the average color of a pixel with adaptive supersampling.
+     * Traces rays through the corners and the center of the pixel,
+     * and splits the pixel to 4 quarters (recursively) only where the colors
+     * are different from the center's color by more than the threshold.
+     * The rays through the corners are shared with the quarters, so they are traced only once.
+     *
+     * @param generator creates the rays through the points of the pixel.
+     * @param x the x coordinate of the pixel's center.
+     * @param y the y coordinate of the pixel's center.
+     * @param maxDepth the maximum number of times to split the pixel.
+     * @param threshold the maximum difference between colors (see {@link Color#difference(Color)})
+     *                  that doesn't require splitting.
+     * @return The average color of the pixel.
+     */
+    public Color adaptiveAverageColor(RayGenerator generator, double x, double y, int maxDepth, double threshold) {
+        double half = 0.5;
+        return adaptiveAverageColor(generator, x, y, half,
+                traceRay(generator.constructRay(x - half, y - half)),
+                traceRay(generator.constructRay(x + half, y - half)),
+                traceRay(generator.constructRay(x - half, y + half)),
+                traceRay(generator.constructRay(x + half, y + half)),
+                maxDepth, threshold);
+    }
+
+    /**
+     * Helper function that calculates the average color of a square with adaptive supersampling.
+     *
+     * @param generator creates the rays through the points of the square.
+     * @param x the x coordinate of the square's center.
+     * @param y the y coordinate of the square's center.
+     * @param half half of the square's size.
+     * @param topLeft the color of the top left corner.
+     * @param topRight the color of the top right corner.
+     * @param bottomLeft the color of the bottom left corner.
+     * @param bottomRight the color of the bottom right corner.
+     * @param depth the number of times the square may still be split.
+     * @param threshold the maximum difference between colors that doesn't require splitting.
+     * @return The average color of the square.
+     */
+    private Color adaptiveAverageColor(RayGenerator generator, double x, double y, double half,
+                                       Color topLeft, Color topRight, Color bottomLeft, Color bottomRight,
+                                       int depth, double threshold) {
+        Color center = traceRay(generator.constructRay(x, y));
+
+        // Stops when the corners are similar to the center
+        if (depth == 0 ||
+                (center.difference(topLeft) <= threshold &&
+                center.difference(topRight) <= threshold &&
+                center.difference(bottomLeft) <= threshold &&
+                center.difference(bottomRight) <= threshold)) {
+            return center.add(topLeft, topRight, bottomLeft, bottomRight).reduce(5);
+        }
+
+        // Traces the middles of the edges, which are corners of the quarters
+        Color top = traceRay(generator.constructRay(x, y - half));
+        Color bottom = traceRay(generator.constructRay(x, y + half));
+        Color left = traceRay(generator.constructRay(x - half, y));
+        Color right = traceRay(generator.constructRay(x + half, y));
+
+        double quarter = half / 2;
+        return adaptiveAverageColor(generator, x - quarter, y - quarter, quarter,
+                    topLeft, top, left, center, depth - 1, threshold)
+                .add(adaptiveAverageColor(generator, x + quarter, y - quarter, quarter,
+                    top, topRight, center, right, depth - 1, threshold),
+                adaptiveAverageColor(generator, x - quarter, y + quarter, quarter,
+                    left, center, bottomLeft, bottom, depth - 1, threshold),
+                adaptiveAverageColor(generator, x + quarter, y + quarter, quarter,
+                    center, right, bottom, bottomRight, depth - 1, threshold))
+                .reduce(4);
+    }
 }
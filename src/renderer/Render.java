@@ -1,24 +1,85 @@
 package renderer;
 
 import elements.Camera;
+import elements.CameraView;
 import multithreading.ThreadPool;
 import primitives.Color;
 import primitives.Ray;
+import primitives.Util;
 
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.MissingResourceException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.DoubleAdder;
+
+import static primitives.Util.random;
 
 /**
  * Class for rendering a scene with ray tracing.
  */
-public class Render {
+public class Render implements RenderMXBean, AutoCloseable {
+    /**
+     * Milliseconds between two checks of the progress on multithreaded rendering.
+     */
+    private static final long PRINT_PERCENT_INTERVAL = 100;
+
     private ImageWriter _imageWriter = null;
     private Camera _camera = null;
+    /**
+     * The snapshot of the camera for the current rendering, so the camera can be changed while rendering.
+     */
+    private CameraView _view = null;
     private RayTracerBase _rayTracer = null;
-    private ThreadPool<Pixel> _threadPool = null;
-    private Pixel _nextPixel = null;
+    private ThreadPool<Tile> _threadPool = null;
+    private int _tileSize = 16;
+    private Tile[] _tiles = null;
+    private final AtomicInteger _nextTile = new AtomicInteger();
+    private final AtomicInteger _renderedPixels = new AtomicInteger();
     private boolean _printPercent = false;
     private boolean _antiAliasing = false;
+    private int _adaptiveMaxDepth = 0;
+    private double _adaptiveThreshold = 0;
+    /**
+     * The seed of the random numbers of a deterministic rendering, null for different random numbers on every rendering.
+     */
+    private Long _seed = null;
+
+    private int _progressiveSamples = 0;
+    private long _timeBudget = 0;
+    private double _convergenceThreshold = 0;
+    private int _snapshotInterval = 0;
+    /**
+     * Whether the samples are accumulated in the image writer, only while rendering progressively.
+     */
+    private boolean _accumulateSamples = false;
+    /**
+     * The index of the current pass of the progressive rendering.
+     */
+    private int _pass = 0;
+    /**
+     * The time (by {@link System#nanoTime()}) to stop the current pass at.
+     */
+    private long _passDeadline = Long.MAX_VALUE;
+    /**
+     * The sum of the changes of the pixels' colors in the current pass of the progressive rendering.
+     */
+    private final DoubleAdder _passChange = new DoubleAdder();
+    /**
+     * The buffer of the rays of every thread, reused between the rows or tiles it renders.
+     */
+    private final ThreadLocal<Ray[]> _rays = new ThreadLocal<>();
+    private boolean _collectStatistics = false;
+    /**
+     * The collector of the statistics of the current rendering, null when the statistics aren't collected.
+     */
+    private RenderStatistics.Collector _collector = null;
+    private volatile RenderStatistics _statistics = null;
 
     /**
      * Chaining method for setting the image writer.
@@ -55,23 +116,45 @@ public class Render {
      * If set to 1, the render won't use the thread pool.
      * If set to greater than 1, the render will use the thread pool with the given threads.
      * If set to 0, the thread pool will pick the number of threads.
+     * The threads are kept between the renderings (see {@link ThreadPool.Backend#PERSISTENT}) until {@link #close()}.
      * @param threads number of threads to use.
      * @exception IllegalArgumentException when threads is less than 0.
      * @return the current render.
      */
     public Render setMultithreading(int threads) {
+        return setMultithreading(threads, ThreadPool.Backend.PERSISTENT);
+    }
+
+    /**
+     * Chaining method for setting number of threads and the backend that runs them.
+     * If set to 1, the render won't use the thread pool.
+     * If set to greater than 1, the render will use the thread pool with the given threads.
+     * If set to 0, the thread pool will pick the number of threads.
+     * @param threads number of threads to use.
+     * @param backend the backend that runs the threads.
+     * @exception IllegalArgumentException when threads is less than 0.
+     * @exception UnsupportedOperationException when the backend isn't supported by the current Java runtime.
+     * @return the current render.
+     */
+    public Render setMultithreading(int threads, ThreadPool.Backend backend) {
         if (threads < 0) {
             throw new IllegalArgumentException("threads can be equals or greater to 0");
         }
 
+        // releases the threads of the previous thread pool.
+        if (_threadPool != null) {
+            _threadPool.shutdown();
+        }
+
         // run as single threaded without the thread pool.
         if (threads == 1) {
             _threadPool = null;
             return this;
         }
 
-        _threadPool = new ThreadPool<Pixel>() // the thread pool choose the number of threads (in case threads is 0).
-                .setParamGetter(this::getNextPixel)
+        _threadPool = new ThreadPool<Tile>() // the thread pool choose the number of threads (in case threads is 0).
+                .setBackend(backend)
+                .setParamGetter(this::getNextTile)
                 .setTarget(this::renderImageMultithreaded);
         if (threads > 0) {
             _threadPool.setNumThreads(threads);
@@ -80,6 +163,34 @@ public class Render {
         return this;
     }
 
+    /**
+     * Releases the threads that are kept between the renderings (see {@link #setMultithreading(int)}).
+     * The render can still be used after it, the threads will be created again on the next rendering.
+     */
+    @Override
+    public void close() {
+        if (_threadPool != null) {
+            _threadPool.shutdown();
+        }
+    }
+
+    /**
+     * Chaining method for setting the size of the tiles that the image is split to on multithreaded rendering.
+     * Every thread renders a whole tile at a time, so the threads rarely compete on the next tile,
+     * and the pixels of a tile are close to each other in the scene.
+     * @param tileSize the width and height of a tile in pixels.
+     * @exception IllegalArgumentException when tileSize is not positive.
+     * @return the current render.
+     */
+    public Render setTileSize(int tileSize) {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("tile size should be greater than 0");
+        }
+
+        _tileSize = tileSize;
+        return this;
+    }
+
     /**
      * Chaining method for making the render to print the progress of the rendering in percents.
      * @param print if true, prints the percents.
@@ -100,6 +211,168 @@ public class Render {
         return this;
     }
 
+    /**
+     * Chaining method for using adaptive Anti-Aliasing instead of a fixed number of rays in every pixel.
+     * Every pixel starts with rays through its corners and center, and is split to quarters
+     * only where the colors are different (e.g. on edges), up to {@code maxDepth} times.
+     * Used only when the Anti-Aliasing is on (see {@link #setAntiAliasing(boolean)}).
+     * @param maxDepth the maximum number of times to split a pixel, 0 turns the adaptive Anti-Aliasing off.
+     * @param threshold the maximum difference between the color components (0-255) that doesn't require splitting.
+     * @exception IllegalArgumentException when maxDepth or threshold is negative.
+     * @return the current render.
+     */
+    public Render setAdaptiveAntiAliasing(int maxDepth, double threshold) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("max depth can be equals or greater to 0");
+        }
+        if (threshold < 0) {
+            throw new IllegalArgumentException("threshold can be equals or greater to 0");
+        }
+
+        _adaptiveMaxDepth = maxDepth;
+        _adaptiveThreshold = threshold;
+        return this;
+    }
+
+    /**
+     * Chaining method for rendering deterministically - the random numbers of every pixel (e.g. the Anti-Aliasing rays
+     * and the glossy rays) are seeded by the seed, the pixel's coordinates and the pass of the progressive rendering,
+     * so the same seed renders exactly the same image on every run, with any number of threads.
+     * The time budget of the progressive rendering isn't deterministic, and neither is a convergence threshold
+     * that is reached just at the rounding of the sum of the changes.
+     * @param seed the seed of the random numbers, null for different random numbers on every rendering (the default).
+     * @return the current render.
+     */
+    public Render setSeed(Long seed) {
+        _seed = seed;
+        return this;
+    }
+
+    /**
+     * Chaining method for collecting the statistics of every rendering (see {@link RenderStatistics}) -
+     * the counts of the rays and the intersection tests, and the time of the tiles and the threads.
+     * Every thread counts separately and the counts are merged when the rendering is over,
+     * so the rendering is only a little slower.
+     * @param collect if true, collects the statistics of every rendering.
+     * @return the current render.
+     */
+    public Render setStatistics(boolean collect) {
+        _collectStatistics = collect;
+        return this;
+    }
+
+    /**
+     * Returns the statistics of the last rendering, null when the statistics aren't collected.
+     */
+    @Override
+    public RenderStatistics getStatistics() {
+        return _statistics;
+    }
+
+    /**
+     * Chaining method for exposing the statistics of the render through JMX, under the name
+     * {@code renderer:type=Render,name=<name>} in the platform MBean server.
+     * @param name the name of the render.
+     * @exception IllegalStateException when the render can't be registered (e.g. the name is taken).
+     * @return the current render.
+     */
+    public Render registerMBean(String name) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, getObjectName(name));
+        } catch (JMException e) {
+            throw new IllegalStateException("Failed to register the render " + name, e);
+        }
+        return this;
+    }
+
+    /**
+     * Removes the render from JMX (see {@link #registerMBean(String)}).
+     * @param name the name of the render.
+     * @exception IllegalStateException when the render isn't registered under the name.
+     */
+    public void unregisterMBean(String name) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(getObjectName(name));
+        } catch (JMException e) {
+            throw new IllegalStateException("Failed to unregister the render " + name, e);
+        }
+    }
+
+    private static ObjectName getObjectName(String name) throws JMException {
+        return new ObjectName("renderer:type=Render,name=" + ObjectName.quote(name));
+    }
+
+    /**
+     * Chaining method for rendering the image progressively.
+     * The first pass traces a single ray through the center of every pixel, so a preview of the whole image
+     * is ready as soon as possible, and every next pass adds a ray through a random point of every pixel.
+     * The samples of every pixel are accumulated by the image writer (see {@link ImageWriter#addSample}).
+     * The rendering stops after {@code samples} passes, when the time budget is over
+     * (see {@link #setTimeBudget(long)}) or when the image converges (see {@link #setConvergenceThreshold(double)}).
+     * The Anti-Aliasing settings aren't used when rendering progressively.
+     * @param samples the maximum number of samples (passes) for every pixel, 0 turns the progressive rendering off.
+     * @exception IllegalArgumentException when samples is negative.
+     * @return the current render.
+     */
+    public Render setProgressiveRendering(int samples) {
+        if (samples < 0) {
+            throw new IllegalArgumentException("samples can be equals or greater to 0");
+        }
+
+        _progressiveSamples = samples;
+        return this;
+    }
+
+    /**
+     * Chaining method for limiting the time of a progressive rendering.
+     * When the time is over the current pass is stopped, the pixels it didn't reach keep their previous average.
+     * The first pass is always finished, so every pixel has at least 1 sample.
+     * @param millis the time budget in milliseconds, 0 for no limit.
+     * @exception IllegalArgumentException when millis is negative.
+     * @return the current render.
+     */
+    public Render setTimeBudget(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("time budget can be equals or greater to 0");
+        }
+
+        _timeBudget = millis;
+        return this;
+    }
+
+    /**
+     * Chaining method for stopping a progressive rendering when the image converges,
+     * which is when the average change of a pixel's color in a pass is lower than the threshold.
+     * @param threshold the average change of the color components (0-255) in a pass to stop at, 0 for never.
+     * @exception IllegalArgumentException when threshold is negative.
+     * @return the current render.
+     */
+    public Render setConvergenceThreshold(double threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("threshold can be equals or greater to 0");
+        }
+
+        _convergenceThreshold = threshold;
+        return this;
+    }
+
+    /**
+     * Chaining method for saving snapshots of a progressive rendering.
+     * Every {@code interval} passes the current image is written by {@link ImageWriter#writeSnapshot(String)}
+     * with the suffix "_pass" and the number of passes.
+     * @param interval the number of passes between snapshots, 0 for no snapshots.
+     * @exception IllegalArgumentException when interval is negative.
+     * @return the current render.
+     */
+    public Render setSnapshotInterval(int interval) {
+        if (interval < 0) {
+            throw new IllegalArgumentException("interval can be equals or greater to 0");
+        }
+
+        _snapshotInterval = interval;
+        return this;
+    }
+
     /**
      * Renders the image.
      *
@@ -119,10 +392,19 @@ public class Render {
 
             int nX = _imageWriter.getNx();
             int nY = _imageWriter.getNy();
+            _view = _camera.getView(nX, nY);
+            _collector = _collectStatistics ? new RenderStatistics.Collector() : null;
+
+            if (_progressiveSamples > 0) {
+                renderProgressively(nX, nY);
+                return;
+            }
 
             //rendering the image when multi-threaded.
             if (_threadPool != null) {
-                _nextPixel = new Pixel(0, 0);
+                _tiles = createTiles(nX, nY);
+                _nextTile.set(0);
+                _renderedPixels.set(0);
                 _threadPool.execute();
                 if (_printPercent) {
                     printPercentMultithreaded(); // blocks the main thread until finished and prints the progress.
@@ -135,13 +417,10 @@ public class Render {
             int lastPercent = -1;
             int pixels = nX * nY;
             for (int i = 0; i < nY; i++) {
-                for (int j = 0; j < nX; j++) {
-                    if (_printPercent) {
-                        int currentPixel = i * nX + j;
-                        lastPercent = printPercent(currentPixel, pixels, lastPercent);
-                    }
-                    castRay(nX, nY, j, i);
+                if (_printPercent) {
+                    lastPercent = printPercent(i * nX, pixels, lastPercent);
                 }
+                renderPixels(0, i, nX, 1);
             }
             // prints the 100% percent.
             if (_printPercent) {
@@ -149,28 +428,163 @@ public class Render {
             }
         } catch (MissingResourceException e) {
             throw new UnsupportedOperationException("Render didn't receive " + e.getClassName());
+        } finally {
+            if (_seed != null) {
+                Util.unseedRandom();
+            }
+            if (_collector != null) {
+                _statistics = _collector.finish(_imageWriter.getNx() * _imageWriter.getNy());
+                _collector = null;
+            }
         }
     }
 
     /**
-     * Casts a ray or multiple rays through a given pixel (depends on Anti-Aliasing).
-     * and writes the color to the image.
+     * Renders the image in passes, until one of the stop conditions of the progressive rendering.
      * @param nX the number of columns in the picture.
      * @param nY the number of rows in the picture.
+     */
+    private void renderProgressively(int nX, int nY) {
+        long deadline = _timeBudget > 0
+                ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(_timeBudget)
+                : Long.MAX_VALUE;
+        if (_threadPool != null) {
+            _tiles = createTiles(nX, nY);
+        }
+        _imageWriter.clear();
+        _accumulateSamples = true;
+
+        try {
+            _pass = 0;
+            while (true) {
+                _passChange.reset();
+                // the first pass is always finished
+                _passDeadline = _pass == 0 ? Long.MAX_VALUE : deadline;
+                renderPass(nX, nY);
+                ++_pass;
+
+                if (_printPercent) {
+                    System.out.printf("pass %d\n", _pass);
+                    System.out.flush();
+                }
+
+                boolean converged = _pass > 1 && _passChange.sum() / (nX * nY) < _convergenceThreshold;
+                if (_pass == _progressiveSamples || converged || System.nanoTime() >= deadline) {
+                    break;
+                }
+
+                if (_snapshotInterval > 0 && _pass % _snapshotInterval == 0) {
+                    _imageWriter.writeSnapshot("_pass" + _pass);
+                }
+            }
+        } finally {
+            _accumulateSamples = false;
+            _passDeadline = Long.MAX_VALUE;
+            _pass = 0;
+        }
+    }
+
+    /**
+     * Renders a single pass of the progressive rendering, stops at the deadline of the pass.
+     * @param nX the number of columns in the picture.
+     * @param nY the number of rows in the picture.
+     */
+    private void renderPass(int nX, int nY) {
+        if (_threadPool != null) {
+            _nextTile.set(0);
+            _threadPool.execute();
+            _threadPool.join();
+            return;
+        }
+
+        for (int i = 0; i < nY && System.nanoTime() < _passDeadline; i++) {
+            renderPixels(0, i, nX, 1);
+        }
+    }
+
+    /**
+     * Renders a rectangle of pixels (a row or a tile), and collects its statistics when needed.
+     * @param col the left column of the rectangle.
+     * @param row the top row of the rectangle.
+     * @param width the number of columns of the rectangle.
+     * @param height the number of rows of the rectangle.
+     */
+    private void renderPixels(int col, int row, int width, int height) {
+        RenderStatistics.Collector collector = _collector;
+        if (collector == null) {
+            tracePixels(col, row, width, height);
+            return;
+        }
+
+        collector.startTile();
+        try {
+            tracePixels(col, row, width, height);
+        } finally {
+            collector.endTile();
+        }
+    }
+
+    /**
+     * Traces the pixels of a rectangle (a row or a tile).
+     * Without Anti-Aliasing the rays through the centers of all the pixels are constructed together
+     * (see {@link CameraView#constructRaysThroughPixels}), into the buffer of the current thread.
+     * @param col the left column of the rectangle.
+     * @param row the top row of the rectangle.
+     * @param width the number of columns of the rectangle.
+     * @param height the number of rows of the rectangle.
+     */
+    private void tracePixels(int col, int row, int width, int height) {
+        if (_antiAliasing || _accumulateSamples) {
+            for (int i = row; i < row + height; ++i) {
+                for (int j = col; j < col + width; ++j) {
+                    castRay(j, i);
+                }
+            }
+            return;
+        }
+
+        Ray[] rays = _view.constructRaysThroughPixels(col, row, width, height, _rays.get());
+        _rays.set(rays);
+        int k = 0;
+        for (int i = row; i < row + height; ++i) {
+            for (int j = col; j < col + width; ++j) {
+                seedPixel(j, i);
+                _imageWriter.writePixel(j, i, _rayTracer.traceRay(rays[k++]));
+            }
+        }
+    }
+
+    /**
+     * Casts a ray or multiple rays through a given pixel (depends on Anti-Aliasing).
+     * and writes the color to the image.
      * @param col the column of the current pixel.
      * @param row the row of the current pixel.
      */
-    private void castRay(int nX, int nY, int col, int row) {
+    private void castRay(int col, int row) {
+        seedPixel(col, row);
+
+        // If we're rendering progressively
+        if (_accumulateSamples) {
+            castProgressiveRay(col, row);
+            return;
+        }
+
         Color pixelColor;
 
+        // If we're using adaptive AA
+        if (_antiAliasing && _adaptiveMaxDepth > 0) {
+            pixelColor = _rayTracer.adaptiveAverageColor(
+                    _view::constructRayThroughPoint,
+                    col, row, _adaptiveMaxDepth, _adaptiveThreshold);
+        }
         // If we're using AA
-        if (_antiAliasing) {
-            List<Ray> rays = _camera.constructRayPixelWithAA(nX, nY, col, row);
+        else if (_antiAliasing) {
+            List<Ray> rays = _view.constructRayPixelWithAA(col, row);
             pixelColor = _rayTracer.averageColor(rays);
         }
         // If we're not using AA
         else {
-            Ray ray = _camera.constructRayThroughPixel(nX, nY, col, row);
+            Ray ray = _view.constructRayThroughPixel(col, row);
             pixelColor = _rayTracer.traceRay(ray);
         }
 
@@ -178,6 +592,45 @@ public class Render {
         _imageWriter.writePixel(col, row, pixelColor);
     }
 
+    /**
+     * Casts a single ray through a given pixel in the current pass of the progressive rendering,
+     * through its center on the first pass and through a random point of it on the next passes,
+     * and adds the color to the samples of the pixel.
+     * @param col the column of the current pixel.
+     * @param row the row of the current pixel.
+     */
+    private void castProgressiveRay(int col, int row) {
+        Ray ray = _pass == 0
+                ? _view.constructRayThroughPixel(col, row)
+                : _view.constructRayThroughPoint(col + random(-0.5, 0.5), row + random(-0.5, 0.5));
+
+        double change = _imageWriter.addSample(col, row, _rayTracer.traceRay(ray));
+        if (_pass > 0) {
+            _passChange.add(change);
+        }
+    }
+
+    /**
+     * Seeds the random numbers of the current thread for a given pixel on deterministic rendering.
+     * @param col the column of the pixel.
+     * @param row the row of the pixel.
+     */
+    private void seedPixel(int col, int row) {
+        if (_seed != null) {
+            Util.seedRandom(mix(mix(mix(_seed) ^ ((long) row << 32 | col)) ^ _pass));
+        }
+    }
+
+    /**
+     * Mixes the bits of a number (the finalizer of SplitMix64),
+     * so close numbers (e.g. the coordinates of neighbour pixels) give unrelated seeds.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
     /**
      * Prints the progress in percents only if it is greater than the last time printed the progress.
      * @param currentPixel the index of the current pixel.
@@ -220,53 +673,92 @@ public class Render {
     }
 
     /**
-     * Returns the next pixel to draw on multithreaded rendering.
-     * If finished to draw all pixels, returns {@code null}.
+     * Splits the image to tiles of {@code _tileSize} and orders them along the Z-order (Morton) curve,
+     * so tiles that are rendered one after another are close to each other.
+     * @param nX the number of columns in the picture.
+     * @param nY the number of rows in the picture.
+     * @return the ordered tiles.
      */
-    private synchronized Pixel getNextPixel() {
-        if (_printPercent) {
-            // notifies the main thread in order to print the percent.
-            notifyAll();
+    private Tile[] createTiles(int nX, int nY) {
+        int tilesX = (nX + _tileSize - 1) / _tileSize;
+        int tilesY = (nY + _tileSize - 1) / _tileSize;
+
+        Tile[] tiles = new Tile[tilesX * tilesY];
+        for (int ty = 0; ty < tilesY; ++ty) {
+            for (int tx = 0; tx < tilesX; ++tx) {
+                int col = tx * _tileSize;
+                int row = ty * _tileSize;
+                tiles[ty * tilesX + tx] = new Tile(col, row,
+                        Math.min(_tileSize, nX - col), Math.min(_tileSize, nY - row),
+                        mortonCode(tx, ty));
+            }
         }
 
-        int nX = _imageWriter.getNx();
-        int nY = _imageWriter.getNy();
+        Arrays.sort(tiles, Comparator.comparingLong(tile -> tile.order));
+        return tiles;
+    }
 
-        // updates the row of the next pixel to draw.
-        // if got to the end, returns null.
-        if (_nextPixel.col >= nX) {
-            if (++_nextPixel.row >= nY) {
-                return null;
-            }
-            _nextPixel.col = 0;
+    /**
+     * Calculates the position of a tile on the Z-order curve by interleaving the bits of its indices.
+     * @param x the column of the tile.
+     * @param y the row of the tile.
+     * @return the Morton code of the tile.
+     */
+    private static long mortonCode(int x, int y) {
+        return spreadBits(x) | spreadBits(y) << 1;
+    }
+
+    /**
+     * Spreads the bits of a given number, so there is a zero bit between every 2 bits.
+     */
+    private static long spreadBits(int n) {
+        long x = n & 0xFFFFFFFFL;
+        x = (x | x << 16) & 0x0000FFFF0000FFFFL;
+        x = (x | x << 8) & 0x00FF00FF00FF00FFL;
+        x = (x | x << 4) & 0x0F0F0F0F0F0F0F0FL;
+        x = (x | x << 2) & 0x3333333333333333L;
+        x = (x | x << 1) & 0x5555555555555555L;
+        return x;
+    }
+
+    /**
+     * Returns the next tile to draw on multithreaded rendering.
+     * If finished to draw all tiles or the current pass is over, returns {@code null}.
+     * Lock free - every thread takes the next index from an atomic counter.
+     */
+    private Tile getNextTile() {
+        if (System.nanoTime() >= _passDeadline) {
+            return null;
         }
 
-        Pixel result = new Pixel();
-        result.col = _nextPixel.col++;
-        result.row = _nextPixel.row;
-        return result;
+        int index = _nextTile.getAndIncrement();
+        return index < _tiles.length ? _tiles[index] : null;
     }
 
     /**
-     * Renders a given pixel on multithreaded rendering.
-     * If the given pixel is null, returns false which means kill the thread.
-     * @param p the pixel to render.
+     * Renders a given tile on multithreaded rendering.
+     * If the given tile is null, returns false which means kill the thread.
+     * @param tile the tile to render.
      */
-    private boolean renderImageMultithreaded(Pixel p) {
-        if (p == null) {
+    private boolean renderImageMultithreaded(Tile tile) {
+        if (tile == null) {
+            if (_seed != null) {
+                Util.unseedRandom();
+            }
             return false; // kill the thread.
         }
 
-        int nX = _imageWriter.getNx();
-        int nY = _imageWriter.getNy();
-        castRay(nX, nY, p.col, p.row);
+        renderPixels(tile.col, tile.row, tile.width, tile.height);
 
+        if (_printPercent) {
+            _renderedPixels.addAndGet(tile.width * tile.height);
+        }
         return true; // continue the rendering.
     }
 
     /**
      * Must run on the main thread.
-     * Prints the percent on multithreaded rendering.
+     * Prints the percent on multithreaded rendering, by checking the number of rendered pixels periodically.
      */
     private void printPercentMultithreaded() {
         int nX = _imageWriter.getNx();
@@ -274,30 +766,34 @@ public class Render {
         int pixels = nX * nY;
         int lastPercent = -1;
 
-        while (_nextPixel.row < nY) {
-            // waits until got update from the rendering threads.
-            synchronized(this) {
-                try {
-                    wait();
-                } catch (InterruptedException e) { }
+        while (_threadPool.isRunning()) {
+            lastPercent = printPercent(_renderedPixels.get(), pixels, lastPercent);
+            try {
+                Thread.sleep(PRINT_PERCENT_INTERVAL);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
             }
-
-            int currentPixel = _nextPixel.row * nX + _nextPixel.col;
-            lastPercent = printPercent(currentPixel, pixels, lastPercent);
         }
+        printPercent(_renderedPixels.get(), pixels, lastPercent);
     }
 
     /**
-     * Helper class to represent a pixel to draw in a multithreading rendering.
+     * Helper class to represent a rectangle of pixels to draw in a multithreading rendering.
      */
-    private static class Pixel {
-        public int col, row;
-
-        public Pixel(int col, int row) {
+    private static class Tile {
+        public final int col, row, width, height;
+        /**
+         * The position of the tile in the rendering order.
+         */
+        public final long order;
+
+        public Tile(int col, int row, int width, int height, long order) {
             this.col = col;
             this.row = row;
+            this.width = width;
+            this.height = height;
+            this.order = order;
         }
-
-        public Pixel() {}
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,12 @@
+package renderer;
+
+/**
+ * Management interface of a render, exposes the statistics of its last rendering through JMX
+ * (see {@link Render#registerMBean(String)}).
+ */
+public interface RenderMXBean {
+    /**
+     * Returns the statistics of the last rendering, null when the statistics aren't collected.
+     */
+    RenderStatistics getStatistics();
+}
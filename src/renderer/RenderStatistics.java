@@ -0,0 +1,240 @@
+package renderer;
+
+import primitives.Metrics;
+import primitives.Metrics.Counter;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Report of the work of a single rendering (see {@link Render#setStatistics(boolean)}) -
+ * the counts of the rays and the intersection tests (see {@link Metrics}), and the time of the tiles and the threads.
+ * The report is immutable, every rendering creates a new one.
+ */
+public final class RenderStatistics {
+    private final long[] _counts;
+    private final long _elapsedNanos;
+    private final int _pixels;
+    private final long _tiles;
+    private final long _tileNanos;
+    private final long _maxTileNanos;
+    private final long[] _threadNanos;
+
+    private RenderStatistics(long[] counts, long elapsedNanos, int pixels,
+                             long tiles, long tileNanos, long maxTileNanos, long[] threadNanos) {
+        _counts = counts;
+        _elapsedNanos = elapsedNanos;
+        _pixels = pixels;
+        _tiles = tiles;
+        _tileNanos = tileNanos;
+        _maxTileNanos = maxTileNanos;
+        _threadNanos = threadNanos;
+    }
+
+    /**
+     * Returns the count of a given event.
+     * @param counter the event.
+     * @return the number of times it happened in the rendering.
+     */
+    public long getCount(Counter counter) {
+        return _counts[counter.ordinal()];
+    }
+
+    /**
+     * Returns the number of rays from the camera.
+     */
+    public long getPrimaryRays() {
+        return getCount(Counter.PRIMARY_RAYS);
+    }
+
+    /**
+     * Returns the number of rays towards the light sources.
+     */
+    public long getShadowRays() {
+        return getCount(Counter.SHADOW_RAYS);
+    }
+
+    /**
+     * Returns the number of reflected rays.
+     */
+    public long getReflectionRays() {
+        return getCount(Counter.REFLECTION_RAYS);
+    }
+
+    /**
+     * Returns the number of refracted rays.
+     */
+    public long getRefractionRays() {
+        return getCount(Counter.REFRACTION_RAYS);
+    }
+
+    /**
+     * Returns the number of visited inner nodes of the bounding volume hierarchies.
+     */
+    public long getNodesVisited() {
+        return getCount(Counter.NODES_VISITED);
+    }
+
+    /**
+     * Returns the number of intersection tests with bounding boxes.
+     */
+    public long getBoxTests() {
+        return getCount(Counter.BOX_TESTS);
+    }
+
+    /**
+     * Returns the number of intersection tests with geometries.
+     */
+    public long getPrimitiveTests() {
+        return getCount(Counter.PRIMITIVE_TESTS);
+    }
+
+    /**
+     * Returns the number of all the traced rays - primary, shadow, reflection and refraction.
+     */
+    public long getRays() {
+        return getPrimaryRays() + getShadowRays() + getReflectionRays() + getRefractionRays();
+    }
+
+    /**
+     * Returns the number of rendered pixels.
+     */
+    public int getPixels() {
+        return _pixels;
+    }
+
+    /**
+     * Returns the time of the whole rendering in milliseconds.
+     */
+    public double getElapsedMillis() {
+        return toMillis(_elapsedNanos);
+    }
+
+    /**
+     * Returns the number of traced rays per second of the whole rendering.
+     */
+    public double getRaysPerSecond() {
+        return _elapsedNanos == 0 ? 0 : getRays() * (double) TimeUnit.SECONDS.toNanos(1) / _elapsedNanos;
+    }
+
+    /**
+     * Returns the average number of intersection tests (of bounding boxes and of geometries) of a ray.
+     */
+    public double getTestsPerRay() {
+        long rays = getRays();
+        return rays == 0 ? 0 : (getBoxTests() + getPrimitiveTests()) / (double) rays;
+    }
+
+    /**
+     * Returns the number of rendered tiles (rows on single-threaded rendering), of all the passes of a progressive rendering.
+     */
+    public long getTiles() {
+        return _tiles;
+    }
+
+    /**
+     * Returns the average time of rendering a tile in milliseconds.
+     */
+    public double getAverageTileMillis() {
+        return _tiles == 0 ? 0 : toMillis(_tileNanos) / _tiles;
+    }
+
+    /**
+     * Returns the longest time of rendering a tile in milliseconds.
+     */
+    public double getMaxTileMillis() {
+        return toMillis(_maxTileNanos);
+    }
+
+    /**
+     * Returns the time that every thread spent on rendering tiles in milliseconds,
+     * the differences between the threads show how well the work was split.
+     */
+    public double[] getThreadMillis() {
+        return Arrays.stream(_threadNanos).mapToDouble(RenderStatistics::toMillis).toArray();
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RenderStatistics{pixels=%d, time=%.1fms, rays=%d (primary=%d, shadow=%d, reflection=%d, "
+                        + "refraction=%d), rays/sec=%.0f, nodesVisited=%d, boxTests=%d, primitiveTests=%d, "
+                        + "tests/ray=%.2f, tiles=%d, tileTime=%.3fms (max %.3fms), threadTime=%s}",
+                _pixels, getElapsedMillis(), getRays(), getPrimaryRays(), getShadowRays(), getReflectionRays(),
+                getRefractionRays(), getRaysPerSecond(), getNodesVisited(), getBoxTests(), getPrimitiveTests(),
+                getTestsPerRay(), _tiles, getAverageTileMillis(), getMaxTileMillis(),
+                Arrays.toString(getThreadMillis()));
+    }
+
+    /**
+     * Collects the statistics of a rendering, every thread into its own counts and times.
+     */
+    static class Collector {
+        private final ConcurrentLinkedQueue<ThreadCounts> _threads = new ConcurrentLinkedQueue<>();
+        private final ThreadLocal<ThreadCounts> _threadCounts = ThreadLocal.withInitial(() -> {
+            ThreadCounts counts = new ThreadCounts();
+            _threads.add(counts);
+            return counts;
+        });
+        private final long _start = System.nanoTime();
+
+        /**
+         * The counts and the times of a single thread.
+         */
+        private static class ThreadCounts {
+            final long[] counts = Metrics.newCounts();
+            long tiles;
+            long nanos;
+            long maxTileNanos;
+            long tileStart;
+        }
+
+        /**
+         * Starts counting a tile on the current thread.
+         */
+        void startTile() {
+            ThreadCounts counts = _threadCounts.get();
+            Metrics.startCounting(counts.counts);
+            counts.tileStart = System.nanoTime();
+        }
+
+        /**
+         * Stops counting the tile of the current thread.
+         */
+        void endTile() {
+            ThreadCounts counts = _threadCounts.get();
+            long nanos = System.nanoTime() - counts.tileStart;
+            Metrics.stopCounting();
+            counts.tiles++;
+            counts.nanos += nanos;
+            counts.maxTileNanos = Math.max(counts.maxTileNanos, nanos);
+        }
+
+        /**
+         * Merges the counts of all the threads, after they finished rendering.
+         * @param pixels the number of rendered pixels.
+         * @return the report of the rendering.
+         */
+        RenderStatistics finish(int pixels) {
+            long elapsed = System.nanoTime() - _start;
+            long[] counts = Metrics.newCounts();
+            long tiles = 0, tileNanos = 0, maxTileNanos = 0;
+            long[] threadNanos = new long[_threads.size()];
+            int i = 0;
+            for (ThreadCounts thread : _threads) {
+                for (int c = 0; c < counts.length; ++c) {
+                    counts[c] += thread.counts[c];
+                }
+                tiles += thread.tiles;
+                tileNanos += thread.nanos;
+                maxTileNanos = Math.max(maxTileNanos, thread.maxTileNanos);
+                threadNanos[i++] = thread.nanos;
+            }
+            return new RenderStatistics(counts, elapsed, pixels, tiles, tileNanos, maxTileNanos, threadNanos);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package scene;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Sequential binary output to a file through a direct buffer.
+ * Arrays are copied in bulk into the buffer, which is written to the channel whenever it is full,
+ * so it is the writing counterpart of {@link MappedInput}.
+ */
+final class ChannelOutput implements Closeable {
+    /**
+     * The size of the buffer.
+     */
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final FileChannel _channel;
+    private final ByteBuffer _buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private long _written = 0;
+
+    /**
+     * Creates a file, or truncates an existing one.
+     * @param path the path of the file
+     * @throws IOException When the file can't be created
+     */
+    ChannelOutput(Path path) throws IOException {
+        _channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Helper function that writes the buffer to the channel.
+     */
+    private void flush() throws IOException {
+        _buffer.flip();
+        while (_buffer.hasRemaining()) {
+            _written += _channel.write(_buffer);
+        }
+        _buffer.clear();
+    }
+
+    /**
+     * Helper function that makes sure the buffer has room for the given number of bytes.
+     */
+    private void ensure(int bytes) throws IOException {
+        if (_buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    /**
+     * Sets the byte order of the binary values.
+     * @param order the byte order
+     */
+    void order(ByteOrder order) {
+        _buffer.order(order);
+    }
+
+    /**
+     * Returns the position of the next byte in the file.
+     */
+    long position() {
+        return _written + _buffer.position();
+    }
+
+    /**
+     * Writes zero bytes until the position is a multiple of the given alignment.
+     * @param alignment the alignment in bytes
+     * @throws IOException When the file can't be written
+     */
+    void align(int alignment) throws IOException {
+        while (position() % alignment != 0) {
+            writeByte((byte) 0);
+        }
+    }
+
+    void writeByte(byte value) throws IOException {
+        ensure(Byte.BYTES);
+        _buffer.put(value);
+    }
+
+    void writeInt(int value) throws IOException {
+        ensure(Integer.BYTES);
+        _buffer.putInt(value);
+    }
+
+    void writeDouble(double value) throws IOException {
+        ensure(Double.BYTES);
+        _buffer.putDouble(value);
+    }
+
+    /**
+     * Writes all the values of an array, copied in bulk into the buffer.
+     * @param array the values to write
+     * @throws IOException When the file can't be written
+     */
+    void writeDoubles(double[] array) throws IOException {
+        int offset = 0;
+        while (offset < array.length) {
+            ensure(Double.BYTES);
+            int count = Math.min(array.length - offset, _buffer.remaining() / Double.BYTES);
+            _buffer.asDoubleBuffer().put(array, offset, count);
+            _buffer.position(_buffer.position() + count * Double.BYTES);
+            offset += count;
+        }
+    }
+
+    /**
+     * Writes all the values of an array, see {@link #writeDoubles(double[])}.
+     * @param array the values to write
+     * @throws IOException When the file can't be written
+     */
+    void writeInts(int[] array) throws IOException {
+        int offset = 0;
+        while (offset < array.length) {
+            ensure(Integer.BYTES);
+            int count = Math.min(array.length - offset, _buffer.remaining() / Integer.BYTES);
+            _buffer.asIntBuffer().put(array, offset, count);
+            _buffer.position(_buffer.position() + count * Integer.BYTES);
+            offset += count;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            _channel.close();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package scene;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Sequential input of a file through memory mapping.
+ * The file is mapped in windows, so files larger than a single mapping (2GB) can be read,
+ * and the pages are read by the operating system straight into the mapping without copying.
+ */
+final class MappedInput implements Closeable {
+    /**
+     * The size of a mapped window of the file.
+     */
+    private static final long WINDOW_SIZE = 1L << 28;
+
+    private final FileChannel _channel;
+    private final long _size;
+    private long _windowStart = 0;
+    private MappedByteBuffer _buffer;
+    private ByteOrder _order = ByteOrder.BIG_ENDIAN;
+
+    /**
+     * Opens a file and maps its first window.
+     * @param path the path of the file
+     * @throws IOException When the file can't be opened or mapped
+     */
+    MappedInput(Path path) throws IOException {
+        _channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            _size = _channel.size();
+            map(0);
+        } catch (IOException e) {
+            _channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Helper function that maps the window of the file that starts at the given position.
+     */
+    private void map(long position) throws IOException {
+        _windowStart = position;
+        _buffer = _channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW_SIZE, _size - position));
+        _buffer.order(_order);
+    }
+
+    /**
+     * Helper function that makes sure the mapped window has the given number of bytes left,
+     * by mapping the next window from the current position.
+     * @return false if the file has less bytes left
+     */
+    private boolean ensure(int bytes) throws IOException {
+        if (_buffer.remaining() >= bytes) {
+            return true;
+        }
+
+        long position = position();
+        if (_size - position < bytes) {
+            return false;
+        }
+        map(position);
+        return true;
+    }
+
+    /**
+     * Sets the byte order of the binary values.
+     * @param order the byte order
+     */
+    void order(ByteOrder order) {
+        _order = order;
+        _buffer.order(order);
+    }
+
+    /**
+     * Returns the position of the next byte in the file.
+     */
+    long position() {
+        return _windowStart + _buffer.position();
+    }
+
+    /**
+     * Returns the number of bytes left in the file.
+     */
+    long remaining() {
+        return _size - position();
+    }
+
+    /**
+     * Skips bytes until the position is a multiple of the given alignment.
+     * @param alignment the alignment in bytes
+     * @throws IOException When the file ends before the alignment
+     */
+    void align(int alignment) throws IOException {
+        while (position() % alignment != 0) {
+            readByte();
+        }
+    }
+
+    /**
+     * Reads the next byte.
+     * @return the byte as unsigned, or -1 at the end of the file
+     * @throws IOException When the file can't be mapped
+     */
+    int read() throws IOException {
+        return ensure(1) ? _buffer.get() & 0xFF : -1;
+    }
+
+    /**
+     * Returns the next byte without reading it.
+     * @return the byte as unsigned, or -1 at the end of the file
+     * @throws IOException When the file can't be mapped
+     */
+    int peek() throws IOException {
+        return ensure(1) ? _buffer.get(_buffer.position()) & 0xFF : -1;
+    }
+
+    /**
+     * Helper function that makes sure the given number of bytes are left for a binary value.
+     */
+    private void require(int bytes) throws IOException {
+        if (!ensure(bytes)) {
+            throw new EOFException("Unexpected end of file at " + position());
+        }
+    }
+
+    byte readByte() throws IOException {
+        require(Byte.BYTES);
+        return _buffer.get();
+    }
+
+    short readShort() throws IOException {
+        require(Short.BYTES);
+        return _buffer.getShort();
+    }
+
+    int readInt() throws IOException {
+        require(Integer.BYTES);
+        return _buffer.getInt();
+    }
+
+    float readFloat() throws IOException {
+        require(Float.BYTES);
+        return _buffer.getFloat();
+    }
+
+    double readDouble() throws IOException {
+        require(Double.BYTES);
+        return _buffer.getDouble();
+    }
+
+    /**
+     * Fills an array with the next binary values.
+     * The values are copied in bulk from the mapping, without decoding them one by one.
+     * @param array the array to fill
+     * @throws IOException When the file ends before the array is filled
+     */
+    void readDoubles(double[] array) throws IOException {
+        int offset = 0;
+        while (offset < array.length) {
+            require(Double.BYTES);
+            int count = Math.min(array.length - offset, _buffer.remaining() / Double.BYTES);
+            _buffer.asDoubleBuffer().get(array, offset, count);
+            _buffer.position(_buffer.position() + count * Double.BYTES);
+            offset += count;
+        }
+    }
+
+    /**
+     * Fills an array with the next binary values, see {@link #readDoubles(double[])}.
+     * @param array the array to fill
+     * @throws IOException When the file ends before the array is filled
+     */
+    void readInts(int[] array) throws IOException {
+        int offset = 0;
+        while (offset < array.length) {
+            require(Integer.BYTES);
+            int count = Math.min(array.length - offset, _buffer.remaining() / Integer.BYTES);
+            _buffer.asIntBuffer().get(array, offset, count);
+            _buffer.position(_buffer.position() + count * Integer.BYTES);
+            offset += count;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        _buffer = null;
+        _channel.close();
+    }
+}
@@ -0,0 +1,579 @@
+package scene;
+
+import geometries.TriangleMesh;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Loads triangle meshes from Wavefront OBJ files and from PLY files (ASCII or binary).
+ * The files are read through memory mapping (see {@link MappedInput}) and parsed straight from the bytes
+ * into the arrays of the mesh, without creating a string or a point for every vertex,
+ * so models of millions of triangles can be loaded. Polygons with more than 3 vertices are split to triangles
+ * around their first vertex. Only the positions of the vertices are loaded - texture coordinates, normals,
+ * colors and materials are skipped, the material and the emission are set on the loaded mesh
+ * (see {@link TriangleMesh#setMaterial(primitives.Material)}).
+ * Source: http://paulbourke.net/dataformats/obj/, http://paulbourke.net/dataformats/ply/
+ */
+public final class MeshLoader {
+    /**
+     * Empty private ctor to hide the public one
+     */
+    private MeshLoader() {
+    }
+
+    /**
+     * Loads a mesh by the extension of the file - ".obj" or ".ply".
+     * @param path the path of the file
+     * @return the loaded mesh
+     * @throws IOException When the file can't be read or isn't a valid file of its format
+     * @exception IllegalArgumentException When the extension isn't of a known format
+     */
+    public static TriangleMesh load(Path path) throws IOException {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".obj")) {
+            return loadObj(path);
+        }
+        if (name.endsWith(".ply")) {
+            return loadPly(path);
+        }
+        throw new IllegalArgumentException("Unknown mesh format of " + path);
+    }
+
+    /**
+     * Loads a mesh from a Wavefront OBJ file - its vertices ({@code v}) and faces ({@code f}).
+     * The vertices of a face can be negative (relative to the last vertex) and can have
+     * texture coordinates and normals ({@code v/vt/vn}), which are skipped.
+     * @param path the path of the file
+     * @return the loaded mesh
+     * @throws IOException When the file can't be read or isn't a valid OBJ file
+     */
+    public static TriangleMesh loadObj(Path path) throws IOException {
+        try (TextReader reader = new TextReader(path)) {
+            TriangleMesh.Builder builder = new TriangleMesh.Builder();
+            int[] polygon = new int[16];
+            while (!reader.atEnd()) {
+                reader.readToken();
+                if (reader.isToken("v")) {
+                    builder.addVertex(reader.readDouble(), reader.readDouble(), reader.readDouble());
+                } else if (reader.isToken("f")) {
+                    int count = 0;
+                    while (reader.skipSpaces()) {
+                        long index = reader.readLong();
+                        // Skips the texture coordinate and the normal
+                        reader.skipToken();
+                        if (count == polygon.length) {
+                            polygon = Arrays.copyOf(polygon, count * 2);
+                        }
+                        polygon[count++] = (int) (index < 0 ? builder.getVertexCount() + index : index - 1);
+                    }
+                    if (count < 3) {
+                        throw reader.error("A face should have at least 3 vertices");
+                    }
+                    for (int i = 1; i < count - 1; ++i) {
+                        builder.addTriangle(polygon[0], polygon[i], polygon[i + 1]);
+                    }
+                }
+                // Skips the rest of the line - comments, unsupported statements and optional values
+                reader.skipLine();
+            }
+
+            try {
+                return builder.build();
+            } catch (IllegalArgumentException e) {
+                throw new IOException(path + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * The types of the properties of a PLY file.
+     */
+    private enum PlyType {
+        INT8, UINT8, INT16, UINT16, INT32, UINT32, FLOAT32, FLOAT64;
+
+        /**
+         * Finds a type by its name in the header, either the old name (e.g. {@code uchar}) or the new one.
+         */
+        static PlyType of(String name) {
+            switch (name) {
+                case "char": case "int8": return INT8;
+                case "uchar": case "uint8": return UINT8;
+                case "short": case "int16": return INT16;
+                case "ushort": case "uint16": return UINT16;
+                case "int": case "int32": return INT32;
+                case "uint": case "uint32": return UINT32;
+                case "float": case "float32": return FLOAT32;
+                case "double": case "float64": return FLOAT64;
+                default: return null;
+            }
+        }
+    }
+
+    /**
+     * A property of an element of a PLY file, a list property has the type of its count.
+     */
+    private static final class PlyProperty {
+        final String name;
+        final PlyType type;
+        final PlyType countType;
+
+        PlyProperty(String name, PlyType type, PlyType countType) {
+            this.name = name;
+            this.type = type;
+            this.countType = countType;
+        }
+    }
+
+    /**
+     * An element of a PLY file (e.g. the vertices), with the number of its items and their properties.
+     */
+    private static final class PlyElement {
+        final String name;
+        final int count;
+        final List<PlyProperty> properties = new ArrayList<>();
+
+        PlyElement(String name, int count) {
+            this.name = name;
+            this.count = count;
+        }
+    }
+
+    /**
+     * Loads a mesh from a PLY file - the {@code x, y, z} properties of its {@code vertex} elements,
+     * and the {@code vertex_indices} list of its {@code face} elements.
+     * The body can be ASCII, binary little endian or binary big endian.
+     * @param path the path of the file
+     * @return the loaded mesh
+     * @throws IOException When the file can't be read or isn't a valid PLY file
+     */
+    public static TriangleMesh loadPly(Path path) throws IOException {
+        try (TextReader reader = new TextReader(path)) {
+            // Reads the header
+            reader.readToken();
+            if (!reader.isToken("ply")) {
+                throw reader.error("Not a PLY file");
+            }
+            reader.skipLine();
+
+            String format = null;
+            List<PlyElement> elements = new ArrayList<>();
+            while (true) {
+                if (reader.atEnd()) {
+                    throw reader.error("Missing end_header");
+                }
+                String keyword = reader.readString();
+                if (keyword.equals("end_header")) {
+                    reader.skipLine();
+                    break;
+                }
+                switch (keyword) {
+                    case "format":
+                        format = reader.readString();
+                        break;
+                    case "element":
+                        String name = reader.readString();
+                        elements.add(new PlyElement(name, readPlyCount(reader)));
+                        break;
+                    case "property":
+                        if (elements.isEmpty()) {
+                            throw reader.error("A property without an element");
+                        }
+                        elements.get(elements.size() - 1).properties.add(readPlyProperty(reader));
+                        break;
+                    default:
+                        // comment and obj_info
+                        break;
+                }
+                reader.skipLine();
+            }
+
+            boolean ascii;
+            if ("ascii".equals(format)) {
+                ascii = true;
+            } else if ("binary_little_endian".equals(format)) {
+                ascii = false;
+                reader.order(ByteOrder.LITTLE_ENDIAN);
+            } else if ("binary_big_endian".equals(format)) {
+                ascii = false;
+                reader.order(ByteOrder.BIG_ENDIAN);
+            } else {
+                throw reader.error("Unknown format " + format);
+            }
+
+            return readPlyBody(reader, elements, ascii, path);
+        }
+    }
+
+    /**
+     * Helper function that reads the number of items of an element in the header,
+     * and checks that the file can have them (every item takes at least a byte, and has at most 3 loaded values).
+     */
+    private static int readPlyCount(TextReader reader) throws IOException {
+        long count = reader.readLong();
+        if (count < 0 || count > reader.remaining() || count > Integer.MAX_VALUE / 3) {
+            throw reader.error("Invalid count " + count);
+        }
+        return (int) count;
+    }
+
+    /**
+     * Helper function that reads the type and the name of a property in the header.
+     */
+    private static PlyProperty readPlyProperty(TextReader reader) throws IOException {
+        String type = reader.readString();
+        PlyType countType = null;
+        if (type.equals("list")) {
+            countType = PlyType.of(reader.readString());
+            type = reader.readString();
+            if (countType == null) {
+                throw reader.error("Unknown type of a list's count");
+            }
+        }
+
+        PlyType plyType = PlyType.of(type);
+        if (plyType == null) {
+            throw reader.error("Unknown type " + type);
+        }
+        return new PlyProperty(reader.readString(), plyType, countType);
+    }
+
+    /**
+     * Helper function that reads the elements of a PLY file after the header.
+     */
+    private static TriangleMesh readPlyBody(TextReader reader, List<PlyElement> elements, boolean ascii, Path path)
+            throws IOException {
+        double[] vertices = null;
+        int[] indices = new int[0];
+        int triangles = 0;
+        int[] polygon = new int[16];
+
+        for (PlyElement element : elements) {
+            boolean isVertex = element.name.equals("vertex");
+            boolean isFace = element.name.equals("face");
+            if (isVertex) {
+                vertices = new double[element.count * 3];
+            } else if (isFace) {
+                indices = new int[element.count * 3];
+            }
+
+            // Finds the properties that are loaded before reading the items - the coordinates and the indices
+            int properties = element.properties.size();
+            int[] coordinates = new int[properties];
+            boolean[] isIndices = new boolean[properties];
+            for (int p = 0; p < properties; ++p) {
+                String name = element.properties.get(p).name;
+                coordinates[p] = isVertex && name.length() == 1 ? "xyz".indexOf(name.charAt(0)) : -1;
+                isIndices[p] = isFace && (name.equals("vertex_indices") || name.equals("vertex_index"));
+            }
+
+            for (int item = 0; item < element.count; ++item) {
+                for (int p = 0; p < properties; ++p) {
+                    PlyProperty property = element.properties.get(p);
+                    if (property.countType == null) {
+                        double value = reader.readValue(property.type, ascii);
+                        if (coordinates[p] >= 0) {
+                            vertices[item * 3 + coordinates[p]] = value;
+                        }
+                        continue;
+                    }
+
+                    int count = (int) reader.readValue(property.countType, ascii);
+                    if (!isIndices[p]) {
+                        for (int i = 0; i < count; ++i) {
+                            reader.readValue(property.type, ascii);
+                        }
+                        continue;
+                    }
+
+                    if (count < 3) {
+                        throw reader.error("A face should have at least 3 vertices");
+                    }
+                    if (count > polygon.length) {
+                        polygon = new int[count];
+                    }
+                    for (int i = 0; i < count; ++i) {
+                        polygon[i] = (int) reader.readValue(property.type, ascii);
+                    }
+
+                    // Splits the polygon to triangles around its first vertex
+                    if ((triangles + count - 2) * 3 > indices.length) {
+                        indices = Arrays.copyOf(indices, Math.max(indices.length * 2, (triangles + count - 2) * 3));
+                    }
+                    for (int i = 1; i < count - 1; ++i) {
+                        indices[triangles * 3] = polygon[0];
+                        indices[triangles * 3 + 1] = polygon[i];
+                        indices[triangles * 3 + 2] = polygon[i + 1];
+                        triangles++;
+                    }
+                }
+            }
+        }
+
+        if (vertices == null) {
+            throw reader.error("No vertex element");
+        }
+        try {
+            return new TriangleMesh(vertices, indices.length == triangles * 3
+                    ? indices : Arrays.copyOf(indices, triangles * 3));
+        } catch (IllegalArgumentException e) {
+            throw new IOException(path + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads the tokens, the numbers and the binary values of a file, straight from its mapped bytes.
+     * The numbers are parsed without creating a string unless they have too many digits for an exact fast parsing.
+     */
+    private static final class TextReader implements AutoCloseable {
+        /**
+         * The powers of 10 that are exact doubles.
+         */
+        private static final double[] POWERS_OF_10 = {
+                1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+                1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+        };
+        /**
+         * Every integer up to it is an exact double.
+         */
+        private static final long MAX_EXACT = 1L << 53;
+
+        private final MappedInput _input;
+        private final Path _path;
+        private final StringBuilder _token = new StringBuilder();
+        private int _line = 1;
+
+        TextReader(Path path) throws IOException {
+            _input = new MappedInput(path);
+            _path = path;
+        }
+
+        /**
+         * Creates an error of the current line.
+         */
+        IOException error(String message) {
+            return new IOException(_path + ":" + _line + ": " + message);
+        }
+
+        void order(ByteOrder order) {
+            _input.order(order);
+        }
+
+        /**
+         * Returns the number of bytes left in the file.
+         */
+        long remaining() {
+            return _input.remaining();
+        }
+
+        boolean atEnd() throws IOException {
+            return _input.peek() == -1;
+        }
+
+        /**
+         * Skips the spaces of the current line.
+         * @return whether there is another token in the line
+         */
+        boolean skipSpaces() throws IOException {
+            int c = _input.peek();
+            while (c == ' ' || c == '\t' || c == '\r') {
+                _input.read();
+                c = _input.peek();
+            }
+            return c != '\n' && c != -1;
+        }
+
+        /**
+         * Skips the spaces and the line breaks.
+         */
+        private void skipWhitespace() throws IOException {
+            int c = _input.peek();
+            while (Character.isWhitespace(c)) {
+                if (_input.read() == '\n') {
+                    _line++;
+                }
+                c = _input.peek();
+            }
+        }
+
+        /**
+         * Skips the rest of the current line, including its line break.
+         */
+        void skipLine() throws IOException {
+            int c = _input.read();
+            while (c != '\n' && c != -1) {
+                c = _input.read();
+            }
+            _line++;
+        }
+
+        /**
+         * Skips the rest of the current token.
+         */
+        void skipToken() throws IOException {
+            int c = _input.peek();
+            while (c != -1 && !Character.isWhitespace(c)) {
+                _input.read();
+                c = _input.peek();
+            }
+        }
+
+        /**
+         * Reads the next token of the current line, empty at the end of the line.
+         * The token is kept until the next one is read (see {@link #isToken(String)}).
+         */
+        void readToken() throws IOException {
+            skipSpaces();
+            _token.setLength(0);
+            int c = _input.peek();
+            while (c != -1 && !Character.isWhitespace(c)) {
+                _token.append((char) _input.read());
+                c = _input.peek();
+            }
+        }
+
+        /**
+         * Reads the next token of the current line as a string, for the few tokens that are kept (e.g. of a header).
+         */
+        String readString() throws IOException {
+            readToken();
+            return _token.toString();
+        }
+
+        /**
+         * Checks whether the last token is the given one.
+         */
+        boolean isToken(String token) {
+            return token.contentEquals(_token);
+        }
+
+        /**
+         * Reads the next number of the current line as a long.
+         */
+        long readLong() throws IOException {
+            skipSpaces();
+            int c = _input.peek();
+            boolean negative = c == '-';
+            if (c == '-' || c == '+') {
+                _input.read();
+                c = _input.peek();
+            }
+            if (c < '0' || c > '9') {
+                throw error("Expected a number");
+            }
+
+            long value = 0;
+            while (c >= '0' && c <= '9') {
+                value = value * 10 + _input.read() - '0';
+                c = _input.peek();
+            }
+            return negative ? -value : value;
+        }
+
+        /**
+         * Reads the next number of the current line as a double.
+         * The digits are collected into a long and scaled by an exact power of 10,
+         * which is correctly rounded while the digits and the power are exact doubles.
+         */
+        double readDouble() throws IOException {
+            skipSpaces();
+            _token.setLength(0);
+            int c = _input.peek();
+            boolean negative = c == '-';
+            if (c == '-' || c == '+') {
+                _token.append((char) _input.read());
+                c = _input.peek();
+            }
+
+            long mantissa = 0;
+            int exponent = 0;
+            boolean hasDigits = false, exact = true;
+            while (c >= '0' && c <= '9') {
+                hasDigits = true;
+                if (mantissa < MAX_EXACT) {
+                    mantissa = mantissa * 10 + c - '0';
+                } else {
+                    exact = false;
+                }
+                _token.append((char) _input.read());
+                c = _input.peek();
+            }
+            if (c == '.') {
+                _token.append((char) _input.read());
+                c = _input.peek();
+                while (c >= '0' && c <= '9') {
+                    hasDigits = true;
+                    if (mantissa < MAX_EXACT) {
+                        mantissa = mantissa * 10 + c - '0';
+                        exponent--;
+                    } else {
+                        exact = false;
+                    }
+                    _token.append((char) _input.read());
+                    c = _input.peek();
+                }
+            }
+            if (!hasDigits) {
+                throw error("Expected a number");
+            }
+
+            if (c == 'e' || c == 'E') {
+                _token.append((char) _input.read());
+                c = _input.peek();
+                boolean negativeExponent = c == '-';
+                if (c == '-' || c == '+') {
+                    _token.append((char) _input.read());
+                    c = _input.peek();
+                }
+                int value = 0;
+                while (c >= '0' && c <= '9') {
+                    value = Math.min(value * 10 + c - '0', 10000);
+                    _token.append((char) _input.read());
+                    c = _input.peek();
+                }
+                exponent += negativeExponent ? -value : value;
+            }
+
+            if (!exact || mantissa >= MAX_EXACT || exponent < -22 || exponent > 22) {
+                try {
+                    return Double.parseDouble(_token.toString());
+                } catch (NumberFormatException e) {
+                    throw error("Invalid number " + _token);
+                }
+            }
+            double value = exponent < 0 ? mantissa / POWERS_OF_10[-exponent] : mantissa * POWERS_OF_10[exponent];
+            return negative ? -value : value;
+        }
+
+        /**
+         * Reads a value of a property, as text or as binary.
+         */
+        double readValue(PlyType type, boolean ascii) throws IOException {
+            if (ascii) {
+                skipWhitespace();
+                return readDouble();
+            }
+
+            switch (type) {
+                case INT8: return _input.readByte();
+                case UINT8: return _input.readByte() & 0xFF;
+                case INT16: return _input.readShort();
+                case UINT16: return _input.readShort() & 0xFFFF;
+                case INT32: return _input.readInt();
+                case UINT32: return _input.readInt() & 0xFFFFFFFFL;
+                case FLOAT32: return _input.readFloat();
+                default: return _input.readDouble();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            _input.close();
+        }
+    }
+}
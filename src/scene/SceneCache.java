@@ -0,0 +1,626 @@
+package scene;
+
+import elements.AmbientLight;
+import elements.DirectionalLight;
+import elements.LightSource;
+import elements.PointLight;
+import elements.SpotLight;
+import geometries.*;
+import primitives.Color;
+import primitives.Material;
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Saves scenes to a compact binary file and loads them back, for reloading large scenes instantly.
+ * The file keeps the scene's settings, lights, materials and geometries together with their acceleration
+ * structures already built - a {@link LinearBVH} or a {@link TriangleMesh} is saved as its flattened arrays,
+ * and a {@link BVH} is saved flattened too (it is loaded as a {@link LinearBVH} of the same tree).
+ * The arrays are loaded through memory mapping (see {@link MappedInput}) by bulk copies,
+ * so no hierarchy is built and no number is parsed on loading.
+ * <p>
+ * The file is little endian and starts with a magic number and a version, every array is aligned to 8 bytes.
+ * A file of another version isn't loaded, see {@link #loadOrCreate(Path, Supplier)}.
+ */
+public final class SceneCache {
+    /**
+     * The magic number at the start of every file ("RTSC").
+     */
+    private static final int MAGIC = 0x43535452;
+    /**
+     * The version of the format, changed on every change of the format.
+     */
+    public static final int VERSION = 1;
+
+    // The types of the lights
+    private static final int DIRECTIONAL_LIGHT = 0;
+    private static final int POINT_LIGHT = 1;
+    private static final int SPOT_LIGHT = 2;
+
+    // The types of the intersectables
+    private static final int GEOMETRIES = 0;
+    private static final int LINEAR_BVH = 1;
+    private static final int TRIANGLE_MESH = 2;
+    private static final int SPHERE = 3;
+    private static final int PLANE = 4;
+    private static final int POLYGON = 5;
+    private static final int TRIANGLE = 6;
+    private static final int TUBE = 7;
+    private static final int CYLINDER = 8;
+
+    /**
+     * Empty private ctor to hide the public one
+     */
+    private SceneCache() {
+    }
+
+    /**
+     * Saves a scene. The file is written under a temporary name and then replaces the given file,
+     * so a file that is being written is never loaded.
+     * @param scene the scene to save
+     * @param path the path of the file
+     * @throws IOException When the file can't be written
+     * @exception IllegalArgumentException When the scene has a light or an intersectable of an unknown type
+     */
+    public static void save(Scene scene, Path path) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (ChannelOutput output = new ChannelOutput(temp)) {
+            new Writer(output).writeScene(scene);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads a saved scene.
+     * @param path the path of the file
+     * @return the loaded scene
+     * @throws IOException When the file can't be read, isn't a scene file of the current version or is corrupted
+     */
+    public static Scene load(Path path) throws IOException {
+        try (MappedInput input = new MappedInput(path)) {
+            input.order(ByteOrder.LITTLE_ENDIAN);
+            if (input.readInt() != MAGIC) {
+                throw new IOException(path + ": Not a scene file");
+            }
+            int version = input.readInt();
+            if (version != VERSION) {
+                throw new IOException(path + ": Unsupported version " + version);
+            }
+
+            return new Reader(input).readScene();
+        } catch (IllegalArgumentException e) {
+            throw new IOException(path + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Loads a saved scene if the file exists and is of the current version,
+     * otherwise creates the scene and saves it for the next time.
+     * The file isn't checked against the source of the scene, it should be deleted when the source changes.
+     * @param path the path of the file
+     * @param creator creates the scene from its source
+     * @return the loaded or created scene
+     * @throws IOException When the file can't be read or written
+     */
+    public static Scene loadOrCreate(Path path, Supplier<Scene> creator) throws IOException {
+        if (isCurrent(path)) {
+            return load(path);
+        }
+
+        Scene scene = creator.get();
+        save(scene, path);
+        return scene;
+    }
+
+    /**
+     * Helper function that checks whether a file is a scene file of the current version.
+     */
+    private static boolean isCurrent(Path path) throws IOException {
+        if (!Files.isRegularFile(path) || Files.size(path) < 2 * Integer.BYTES) {
+            return false;
+        }
+
+        try (MappedInput input = new MappedInput(path)) {
+            input.order(ByteOrder.LITTLE_ENDIAN);
+            return input.readInt() == MAGIC && input.readInt() == VERSION;
+        }
+    }
+
+    /**
+     * Writes a scene. The materials and the emission colors are saved once in palettes,
+     * and every geometry (or triangle of a mesh) has the indices of its material and emission.
+     */
+    private static final class Writer {
+        private final ChannelOutput _output;
+        private final List<Material> _materials = new ArrayList<>();
+        private final List<Color> _emissions = new ArrayList<>();
+        private final Map<Material, Integer> _materialIndex = new IdentityHashMap<>();
+        private final Map<Color, Integer> _emissionIndex = new IdentityHashMap<>();
+        /**
+         * The flattened trees of the BVHs, every BVH is flattened once.
+         */
+        private final Map<BVH, LinearBVH> _flattened = new IdentityHashMap<>();
+
+        Writer(ChannelOutput output) {
+            _output = output;
+            _output.order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        void writeScene(Scene scene) throws IOException {
+            List<Intersectable> geometries = scene.geometries.getIntersectables();
+            for (Intersectable intersectable : geometries) {
+                collectPalettes(intersectable);
+            }
+
+            _output.writeInt(MAGIC);
+            _output.writeInt(VERSION);
+            writeString(scene.name);
+            writeColor(scene.background);
+            writeColor(scene.ambientLight.getIntensity());
+
+            _output.writeInt(_materials.size());
+            for (Material material : _materials) {
+                _output.writeDouble(material.kD);
+                _output.writeDouble(material.kS);
+                _output.writeDouble(material.kT);
+                _output.writeDouble(material.kR);
+                _output.writeDouble(material.kG);
+                _output.writeInt(material.nShininess);
+            }
+            _output.writeInt(_emissions.size());
+            for (Color emission : _emissions) {
+                writeColor(emission);
+            }
+
+            _output.writeInt(scene.lights.size());
+            for (LightSource light : scene.lights) {
+                writeLight(light);
+            }
+
+            _output.writeInt(geometries.size());
+            for (Intersectable intersectable : geometries) {
+                writeIntersectable(intersectable);
+            }
+        }
+
+        /**
+         * Helper function that adds the materials and the emission colors of an intersectable to the palettes.
+         */
+        private void collectPalettes(Intersectable intersectable) {
+            if (intersectable instanceof Geometries) {
+                for (Intersectable child : ((Geometries) intersectable).getIntersectables()) {
+                    collectPalettes(child);
+                }
+            } else if (intersectable instanceof BVH) {
+                collectPalettes(flatten((BVH) intersectable));
+            } else if (intersectable instanceof LinearBVH) {
+                LinearBVH bvh = (LinearBVH) intersectable;
+                for (Intersectable child : bvh.getIntersectables()) {
+                    collectPalettes(child);
+                }
+                for (Intersectable child : bvh.getUnbounded()) {
+                    collectPalettes(child);
+                }
+            } else if (intersectable instanceof TriangleMesh) {
+                TriangleMesh mesh = (TriangleMesh) intersectable;
+                for (Material material : mesh.getMaterials()) {
+                    indexOf(material, _materials, _materialIndex);
+                }
+                for (Color emission : mesh.getEmissions()) {
+                    indexOf(emission, _emissions, _emissionIndex);
+                }
+            } else if (intersectable instanceof Geometry) {
+                Geometry geometry = (Geometry) intersectable;
+                indexOf(geometry.getMaterial(), _materials, _materialIndex);
+                indexOf(geometry.getEmission(), _emissions, _emissionIndex);
+            }
+        }
+
+        /**
+         * Helper function that finds the index of a value in a palette, adding it if needed.
+         */
+        private static <T> int indexOf(T value, List<T> palette, Map<T, Integer> index) {
+            return index.computeIfAbsent(value, v -> {
+                palette.add(v);
+                return palette.size() - 1;
+            });
+        }
+
+        private LinearBVH flatten(BVH bvh) {
+            return _flattened.computeIfAbsent(bvh, LinearBVH::new);
+        }
+
+        private void writeLight(LightSource light) throws IOException {
+            if (light.getClass() == DirectionalLight.class) {
+                DirectionalLight directional = (DirectionalLight) light;
+                _output.writeInt(DIRECTIONAL_LIGHT);
+                writeColor(directional.getIntensity());
+                writeVector(directional.getDirection());
+            } else if (light.getClass() == PointLight.class || light.getClass() == SpotLight.class) {
+                PointLight point = (PointLight) light;
+                _output.writeInt(light instanceof SpotLight ? SPOT_LIGHT : POINT_LIGHT);
+                writeColor(point.getIntensity());
+                writePoint(point.getPosition());
+                _output.writeDouble(point.getKc());
+                _output.writeDouble(point.getKl());
+                _output.writeDouble(point.getKq());
+                if (light instanceof SpotLight) {
+                    writeVector(((SpotLight) light).getDirection());
+                }
+            } else {
+                throw new IllegalArgumentException("Can't save a light of type " + light.getClass().getName());
+            }
+        }
+
+        private void writeIntersectable(Intersectable intersectable) throws IOException {
+            if (intersectable instanceof Geometries) {
+                List<Intersectable> children = ((Geometries) intersectable).getIntersectables();
+                _output.writeInt(GEOMETRIES);
+                _output.writeInt(children.size());
+                for (Intersectable child : children) {
+                    writeIntersectable(child);
+                }
+            } else if (intersectable instanceof BVH) {
+                writeIntersectable(flatten((BVH) intersectable));
+            } else if (intersectable instanceof LinearBVH) {
+                LinearBVH bvh = (LinearBVH) intersectable;
+                _output.writeInt(LINEAR_BVH);
+                writeDoubles(bvh.getBounds());
+                writeInts(bvh.getNodes());
+                _output.writeInt(bvh.getIntersectables().length);
+                for (Intersectable child : bvh.getIntersectables()) {
+                    writeIntersectable(child);
+                }
+                _output.writeInt(bvh.getUnbounded().length);
+                for (Intersectable child : bvh.getUnbounded()) {
+                    writeIntersectable(child);
+                }
+            } else if (intersectable instanceof TriangleMesh) {
+                writeMesh((TriangleMesh) intersectable);
+            } else if (intersectable instanceof Geometry) {
+                writeGeometry((Geometry) intersectable);
+            } else {
+                throw new IllegalArgumentException("Can't save an intersectable of type " +
+                        intersectable.getClass().getName());
+            }
+        }
+
+        private void writeMesh(TriangleMesh mesh) throws IOException {
+            _output.writeInt(TRIANGLE_MESH);
+            writeDoubles(mesh.getVertices());
+            writeInts(mesh.getIndices());
+            writeDoubles(mesh.getNormals());
+
+            // The palettes of the mesh are indices in the palettes of the scene
+            Material[] materials = mesh.getMaterials();
+            int[] materialPalette = new int[materials.length];
+            for (int i = 0; i < materials.length; ++i) {
+                materialPalette[i] = _materialIndex.get(materials[i]);
+            }
+            writeInts(materialPalette);
+            writeInts(mesh.getMaterialIndices());
+            Color[] emissions = mesh.getEmissions();
+            int[] emissionPalette = new int[emissions.length];
+            for (int i = 0; i < emissions.length; ++i) {
+                emissionPalette[i] = _emissionIndex.get(emissions[i]);
+            }
+            writeInts(emissionPalette);
+            writeInts(mesh.getEmissionIndices());
+
+            writeDoubles(mesh.getBounds());
+            writeInts(mesh.getNodes());
+        }
+
+        private void writeGeometry(Geometry geometry) throws IOException {
+            Class<?> type = geometry.getClass();
+            if (type == Sphere.class) {
+                Sphere sphere = (Sphere) geometry;
+                _output.writeInt(SPHERE);
+                writePoint(sphere.getCenter());
+                _output.writeDouble(sphere.getRadius());
+            } else if (type == Plane.class) {
+                Plane plane = (Plane) geometry;
+                _output.writeInt(PLANE);
+                writePoint(plane.getPoint());
+                writeVector(plane.getNormal(null));
+            } else if (type == Polygon.class || type == Triangle.class) {
+                List<Point3D> vertices = ((Polygon) geometry).getVertices();
+                if (type == Polygon.class) {
+                    _output.writeInt(POLYGON);
+                    _output.writeInt(vertices.size());
+                } else {
+                    _output.writeInt(TRIANGLE);
+                }
+                for (Point3D vertex : vertices) {
+                    writePoint(vertex);
+                }
+            } else if (type == Tube.class || type == Cylinder.class) {
+                Tube tube = (Tube) geometry;
+                _output.writeInt(type == Tube.class ? TUBE : CYLINDER);
+                writePoint(tube.getAxisRay().getP0());
+                writeVector(tube.getAxisRay().getDir());
+                _output.writeDouble(tube.getRadius());
+                if (type == Cylinder.class) {
+                    _output.writeDouble(((Cylinder) tube).getHeight());
+                }
+            } else {
+                throw new IllegalArgumentException("Can't save a geometry of type " + type.getName());
+            }
+
+            _output.writeInt(_materialIndex.get(geometry.getMaterial()));
+            _output.writeInt(_emissionIndex.get(geometry.getEmission()));
+        }
+
+        private void writeString(String value) throws IOException {
+            if (value == null) {
+                _output.writeInt(-1);
+                return;
+            }
+
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            _output.writeInt(bytes.length);
+            for (byte b : bytes) {
+                _output.writeByte(b);
+            }
+        }
+
+        private void writeColor(Color color) throws IOException {
+            _output.writeDouble(color.getR());
+            _output.writeDouble(color.getG());
+            _output.writeDouble(color.getB());
+        }
+
+        private void writePoint(Point3D point) throws IOException {
+            _output.writeDouble(point.getX());
+            _output.writeDouble(point.getY());
+            _output.writeDouble(point.getZ());
+        }
+
+        private void writeVector(Vector vector) throws IOException {
+            _output.writeDouble(vector.getX());
+            _output.writeDouble(vector.getY());
+            _output.writeDouble(vector.getZ());
+        }
+
+        private void writeDoubles(double[] array) throws IOException {
+            _output.writeInt(array.length);
+            _output.align(Double.BYTES);
+            _output.writeDoubles(array);
+        }
+
+        private void writeInts(int[] array) throws IOException {
+            _output.writeInt(array.length);
+            _output.align(Double.BYTES);
+            _output.writeInts(array);
+        }
+    }
+
+    /**
+     * Reads a scene in the order it was written by {@link Writer}.
+     */
+    private static final class Reader {
+        private final MappedInput _input;
+        private Material[] _materials;
+        private Color[] _emissions;
+
+        Reader(MappedInput input) {
+            _input = input;
+        }
+
+        Scene readScene() throws IOException {
+            Scene scene = new Scene(readString());
+            scene.background = readColor();
+            scene.ambientLight = new AmbientLight(readColor(), 1);
+
+            _materials = new Material[readLength(5 * Double.BYTES + Integer.BYTES)];
+            for (int i = 0; i < _materials.length; ++i) {
+                Material material = new Material();
+                material.kD = _input.readDouble();
+                material.kS = _input.readDouble();
+                material.kT = _input.readDouble();
+                material.kR = _input.readDouble();
+                material.kG = _input.readDouble();
+                material.nShininess = _input.readInt();
+                _materials[i] = material;
+            }
+            _emissions = new Color[readLength(3 * Double.BYTES)];
+            for (int i = 0; i < _emissions.length; ++i) {
+                _emissions[i] = readColor();
+            }
+
+            int lights = readLength(Integer.BYTES);
+            scene.lights = new LinkedList<>();
+            for (int i = 0; i < lights; ++i) {
+                scene.lights.add(readLight());
+            }
+
+            scene.geometries = new Geometries(readIntersectables());
+            return scene;
+        }
+
+        /**
+         * Helper function that reads the length of an array, and checks that the file can have it.
+         * @param itemSize the minimal size of an item in bytes
+         */
+        private int readLength(int itemSize) throws IOException {
+            int length = _input.readInt();
+            if (length < 0 || (long) length * itemSize > _input.remaining()) {
+                throw new IOException("Invalid length " + length + " at " + _input.position());
+            }
+            return length;
+        }
+
+        private LightSource readLight() throws IOException {
+            int type = _input.readInt();
+            switch (type) {
+                case DIRECTIONAL_LIGHT:
+                    return new DirectionalLight(readColor(), readVector());
+                case POINT_LIGHT:
+                case SPOT_LIGHT:
+                    Color intensity = readColor();
+                    Point3D position = readPoint();
+                    double kC = _input.readDouble();
+                    double kL = _input.readDouble();
+                    double kQ = _input.readDouble();
+                    PointLight light = type == SPOT_LIGHT
+                            ? new SpotLight(intensity, position, readVector())
+                            : new PointLight(intensity, position);
+                    return light.setKc(kC).setKl(kL).setKq(kQ);
+                default:
+                    throw new IOException("Unknown light type " + type + " at " + _input.position());
+            }
+        }
+
+        private Intersectable[] readIntersectables() throws IOException {
+            Intersectable[] intersectables = new Intersectable[readLength(Integer.BYTES)];
+            for (int i = 0; i < intersectables.length; ++i) {
+                intersectables[i] = readIntersectable();
+            }
+            return intersectables;
+        }
+
+        private Intersectable readIntersectable() throws IOException {
+            int type = _input.readInt();
+            switch (type) {
+                case GEOMETRIES:
+                    return new Geometries(readIntersectables());
+                case LINEAR_BVH:
+                    double[] bounds = readDoubles();
+                    int[] nodes = readInts();
+                    return new LinearBVH(bounds, nodes, readIntersectables(), readIntersectables());
+                case TRIANGLE_MESH:
+                    return readMesh();
+                default:
+                    return readGeometry(type);
+            }
+        }
+
+        private TriangleMesh readMesh() throws IOException {
+            double[] vertices = readDoubles();
+            int[] indices = readInts();
+            double[] normals = readDoubles();
+            int[] materialPalette = readInts();
+            int[] materialIndices = readInts();
+            int[] emissionPalette = readInts();
+            int[] emissionIndices = readInts();
+            double[] bounds = readDoubles();
+            int[] nodes = readInts();
+
+            Material[] materials = new Material[materialPalette.length];
+            for (int i = 0; i < materials.length; ++i) {
+                materials[i] = paletteEntry(_materials, materialPalette[i]);
+            }
+            Color[] emissions = new Color[emissionPalette.length];
+            for (int i = 0; i < emissions.length; ++i) {
+                emissions[i] = paletteEntry(_emissions, emissionPalette[i]);
+            }
+            return new TriangleMesh(vertices, indices, normals, materials, materialIndices,
+                    emissions, emissionIndices, bounds, nodes);
+        }
+
+        private Geometry readGeometry(int type) throws IOException {
+            Geometry geometry;
+            switch (type) {
+                case SPHERE:
+                    Point3D center = readPoint();
+                    geometry = new Sphere(_input.readDouble(), center);
+                    break;
+                case PLANE:
+                    geometry = new Plane(readPoint(), readVector());
+                    break;
+                case POLYGON:
+                    Point3D[] vertices = new Point3D[readLength(3 * Double.BYTES)];
+                    for (int i = 0; i < vertices.length; ++i) {
+                        vertices[i] = readPoint();
+                    }
+                    geometry = new Polygon(vertices);
+                    break;
+                case TRIANGLE:
+                    geometry = new Triangle(readPoint(), readPoint(), readPoint());
+                    break;
+                case TUBE:
+                case CYLINDER:
+                    Ray axisRay = new Ray(readPoint(), readVector());
+                    double radius = _input.readDouble();
+                    geometry = type == TUBE
+                            ? new Tube(axisRay, radius)
+                            : new Cylinder(axisRay, radius, _input.readDouble());
+                    break;
+                default:
+                    throw new IOException("Unknown intersectable type " + type + " at " + _input.position());
+            }
+
+            return geometry.setMaterial(paletteEntry(_materials, _input.readInt()))
+                    .setEmission(paletteEntry(_emissions, _input.readInt()));
+        }
+
+        /**
+         * Helper function that returns an entry of a palette by its index.
+         */
+        private <T> T paletteEntry(T[] palette, int index) throws IOException {
+            if (index < 0 || index >= palette.length) {
+                throw new IOException("No palette entry of index " + index + " at " + _input.position());
+            }
+            return palette[index];
+        }
+
+        private String readString() throws IOException {
+            int length = _input.readInt();
+            if (length < 0) {
+                return null;
+            }
+            if (length > _input.remaining()) {
+                throw new IOException("Invalid length " + length + " at " + _input.position());
+            }
+
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; ++i) {
+                bytes[i] = _input.readByte();
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private Color readColor() throws IOException {
+            return new Color(_input.readDouble(), _input.readDouble(), _input.readDouble());
+        }
+
+        private Point3D readPoint() throws IOException {
+            return new Point3D(_input.readDouble(), _input.readDouble(), _input.readDouble());
+        }
+
+        private Vector readVector() throws IOException {
+            return new Vector(_input.readDouble(), _input.readDouble(), _input.readDouble());
+        }
+
+        private double[] readDoubles() throws IOException {
+            double[] array = new double[readLength(Double.BYTES)];
+            _input.align(Double.BYTES);
+            _input.readDoubles(array);
+            return array;
+        }
+
+        private int[] readInts() throws IOException {
+            int[] array = new int[readLength(Integer.BYTES)];
+            _input.align(Double.BYTES);
+            _input.readInts(array);
+            return array;
+        }
+    }
+}
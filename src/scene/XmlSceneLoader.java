@@ -0,0 +1,532 @@
+package scene;
+
+import elements.AmbientLight;
+import elements.Camera;
+import elements.DirectionalLight;
+import elements.PointLight;
+import elements.SpotLight;
+import geometries.*;
+import primitives.*;
+import renderer.BasicRayTracer;
+import renderer.ImageFormat;
+import renderer.ImageWriter;
+import renderer.Render;
+
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Loads a scene, its camera and its render settings from an XML file.
+ * The file is read with a streaming (StAX) parser, element by element, so no document tree is kept in memory.
+ * The geometries of every {@code geometries} element are put in a {@link BVH} (the split method is set by
+ * its {@code bvh} attribute - {@code median}, {@code sah} or {@code none}), and nested {@code geometries}
+ * elements are nested groups. The structure of the file:
+ * <pre>{@code
+ * <scene name="..." background-color="r g b">
+ *     <ambient-light color="r g b" ka="1"/>
+ *     <camera p0="x y z" vTo="x y z" vUp="x y z" distance="..." width="..." height="..." rays="..." sampler="..."/>
+ *     <render width="..." height="..." image="..." threads="..." anti-aliasing="true" seed="..." .../>
+ *     <lights>
+ *         <directional-light intensity="r g b" direction="x y z"/>
+ *         <point-light intensity="r g b" position="x y z" kc="..." kl="..." kq="..."/>
+ *         <spot-light intensity="r g b" position="x y z" direction="x y z" kc="..." kl="..." kq="..."/>
+ *     </lights>
+ *     <materials>
+ *         <material id="..." kd="..." ks="..." kt="..." kr="..." kg="..." shininess="..."/>
+ *     </materials>
+ *     <geometries bvh="median">
+ *         <sphere center="x y z" radius="..." emission="r g b" material="id"/>
+ *         <triangle p0="x y z" p1="x y z" p2="x y z"/>
+ *         <polygon p0="x y z" p1="x y z" p2="x y z" p3="x y z" .../>
+ *         <plane point="x y z" normal="x y z"/> or <plane p0="x y z" p1="x y z" p2="x y z"/>
+ *         <tube origin="x y z" direction="x y z" radius="..."/>
+ *         <cylinder origin="x y z" direction="x y z" radius="..." height="..."/>
+ *         <mesh file="model.obj"/>
+ *     </geometries>
+ * </scene>
+ * }</pre>
+ * Instead of a {@code material} id, a geometry can have the attributes of a material ({@code kd, ks, ...}) itself.
+ * The files of the meshes are relative to the directory of the XML file (see {@link MeshLoader}).
+ */
+public class XmlSceneLoader {
+    private final Path _path;
+    private final Path _directory;
+    private XMLStreamReader _reader;
+
+    private Scene _scene;
+    private Camera _camera;
+    private Render _render;
+    private final Map<String, Material> _materials = new HashMap<>();
+    /**
+     * The geometries of the open {@code geometries} elements, the innermost last.
+     */
+    private final Deque<List<Intersectable>> _groups = new ArrayDeque<>();
+    private final Deque<String> _splitMethods = new ArrayDeque<>();
+
+    /**
+     * Loads the scene of an XML file.
+     * @param filename the path of the XML file
+     * @throws IOException When the file can't be read, isn't a valid scene file,
+     * or when one of its meshes can't be loaded
+     */
+    public XmlSceneLoader(String filename) throws IOException {
+        _path = Path.of(filename);
+        Path parent = _path.toAbsolutePath().getParent();
+        _directory = parent == null ? Path.of("") : parent;
+
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        // A scene file doesn't need a DTD, and external entities could read any file
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        try (InputStream input = Files.newInputStream(_path)) {
+            _reader = factory.createXMLStreamReader(input);
+            try {
+                parse();
+            } finally {
+                _reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException(_path + ": " + e.getMessage(), e);
+        } catch (IllegalArgumentException e) {
+            // Invalid values of the geometries, the lights or the camera
+            throw error(e.getMessage());
+        } finally {
+            _reader = null;
+        }
+
+        if (_render != null && _camera != null) {
+            _render.setCamera(_camera);
+        }
+    }
+
+    /**
+     * Returns the loaded scene.
+     */
+    public Scene getScene() {
+        return _scene;
+    }
+
+    /**
+     * Returns the camera of the scene, null if the file has no camera.
+     */
+    public Camera getCamera() {
+        return _camera;
+    }
+
+    /**
+     * Returns the render of the scene with its image writer and ray tracer,
+     * null if the file has no render settings or no camera.
+     */
+    public Render getRender() {
+        return _camera == null ? null : _render;
+    }
+
+    /**
+     * Helper function that reads the elements of the file one by one.
+     */
+    private void parse() throws XMLStreamException, IOException {
+        while (_reader.hasNext()) {
+            int event = _reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                startElement(_reader.getLocalName());
+            } else if (event == XMLStreamConstants.END_ELEMENT && _reader.getLocalName().equals("geometries")) {
+                endGeometries();
+            }
+        }
+
+        if (_scene == null) {
+            throw error("Missing scene element");
+        }
+    }
+
+    /**
+     * Helper function that handles the start of an element.
+     */
+    private void startElement(String name) throws IOException {
+        if (_scene == null) {
+            if (!name.equals("scene")) {
+                throw error("The root element should be scene");
+            }
+            String sceneName = attribute("name");
+            _scene = new Scene(sceneName == null ? _path.getFileName().toString() : sceneName);
+            if (attribute("background-color") != null) {
+                _scene.background = color("background-color");
+            }
+            return;
+        }
+
+        if (!_groups.isEmpty()) {
+            if (name.equals("geometries")) {
+                startGeometries();
+            } else {
+                _groups.getLast().add(parseGeometry(name));
+            }
+            return;
+        }
+
+        switch (name) {
+            case "ambient-light":
+                _scene.ambientLight = new AmbientLight(color("color"), number("ka", 1));
+                break;
+            case "camera":
+                parseCamera();
+                break;
+            case "render":
+                parseRender();
+                break;
+            case "directional-light":
+                _scene.lights.add(new DirectionalLight(color("intensity"), vector("direction")));
+                break;
+            case "point-light":
+                _scene.lights.add(setAttenuation(new PointLight(color("intensity"), point("position"))));
+                break;
+            case "spot-light":
+                _scene.lights.add(setAttenuation(
+                        new SpotLight(color("intensity"), point("position"), vector("direction"))));
+                break;
+            case "material":
+                String id = requiredAttribute("id");
+                _materials.put(id, parseMaterial());
+                break;
+            case "geometries":
+                startGeometries();
+                break;
+            default:
+                // The containers of the lights and the materials, and unknown elements
+                break;
+        }
+    }
+
+    /**
+     * Helper function that opens a group of geometries.
+     */
+    private void startGeometries() throws IOException {
+        String splitMethod = attribute("bvh");
+        splitMethod = splitMethod == null ? "median" : splitMethod.toLowerCase(Locale.ROOT);
+        if (!splitMethod.equals("median") && !splitMethod.equals("sah") && !splitMethod.equals("none")) {
+            throw error("Unknown bvh " + splitMethod);
+        }
+        _groups.addLast(new ArrayList<>());
+        _splitMethods.addLast(splitMethod);
+    }
+
+    /**
+     * Helper function that closes a group of geometries, and adds it to its parent group or to the scene.
+     * The geometries without a bounding box (e.g. planes) are added to the parent instead of the group,
+     * so the group keeps the bounding box of the others.
+     */
+    private void endGeometries() {
+        List<Intersectable> geometries = _groups.removeLast();
+        String splitMethod = _splitMethods.removeLast();
+
+        List<Intersectable> bounded = new ArrayList<>(geometries.size());
+        for (Intersectable geometry : geometries) {
+            if (geometry.getBoundingBox() == null) {
+                addToParent(geometry);
+            } else {
+                bounded.add(geometry);
+            }
+        }
+        if (bounded.isEmpty()) {
+            return;
+        }
+
+        Intersectable[] array = bounded.toArray(Intersectable[]::new);
+        addToParent(switch (splitMethod) {
+            case "sah" -> new BVH(BVH.SplitMethod.SAH, array);
+            case "median" -> new BVH(BVH.SplitMethod.MEDIAN, array);
+            default -> new Geometries(array);
+        });
+    }
+
+    /**
+     * Helper function that adds a geometry to the current group, or to the scene outside of the groups.
+     */
+    private void addToParent(Intersectable geometry) {
+        if (_groups.isEmpty()) {
+            _scene.geometries.add(geometry);
+        } else {
+            _groups.getLast().add(geometry);
+        }
+    }
+
+    /**
+     * Helper function that creates a geometry of an element.
+     */
+    private Intersectable parseGeometry(String name) throws IOException {
+        Intersectable intersectable;
+        switch (name) {
+            case "sphere":
+                intersectable = new Sphere(number("radius"), point("center"));
+                break;
+            case "triangle":
+                intersectable = new Triangle(point("p0"), point("p1"), point("p2"));
+                break;
+            case "polygon":
+                List<Point3D> vertices = new ArrayList<>();
+                for (int i = 0; attribute("p" + i) != null; ++i) {
+                    vertices.add(point("p" + i));
+                }
+                intersectable = new Polygon(vertices.toArray(Point3D[]::new));
+                break;
+            case "plane":
+                intersectable = attribute("normal") != null
+                        ? new Plane(point("point"), vector("normal"))
+                        : new Plane(point("p0"), point("p1"), point("p2"));
+                break;
+            case "tube":
+                intersectable = new Tube(new Ray(point("origin"), vector("direction")), number("radius"));
+                break;
+            case "cylinder":
+                intersectable = new Cylinder(new Ray(point("origin"), vector("direction")),
+                        number("radius"), number("height"));
+                break;
+            case "mesh":
+                TriangleMesh mesh = MeshLoader.load(_directory.resolve(requiredAttribute("file")));
+                Material meshMaterial = findMaterial();
+                if (meshMaterial != null) {
+                    mesh.setMaterial(meshMaterial);
+                }
+                if (attribute("emission") != null) {
+                    mesh.setEmission(color("emission"));
+                }
+                return mesh;
+            default:
+                throw error("Unknown geometry " + name);
+        }
+
+        Geometry geometry = (Geometry) intersectable;
+        Material material = findMaterial();
+        if (material != null) {
+            geometry.setMaterial(material);
+        }
+        if (attribute("emission") != null) {
+            geometry.setEmission(color("emission"));
+        }
+        return geometry;
+    }
+
+    /**
+     * Helper function that finds the material of a geometry, by its id or by its own attributes.
+     * @return the material, or null if the geometry has the default material
+     */
+    private Material findMaterial() throws IOException {
+        String id = attribute("material");
+        if (id != null) {
+            Material material = _materials.get(id);
+            if (material == null) {
+                throw error("Unknown material " + id);
+            }
+            return material;
+        }
+
+        for (String attribute : new String[]{"kd", "ks", "kt", "kr", "kg", "shininess"}) {
+            if (attribute(attribute) != null) {
+                return parseMaterial();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Helper function that creates a material of the attributes of the current element.
+     */
+    private Material parseMaterial() throws IOException {
+        return new Material()
+                .setKd(number("kd", 0))
+                .setKs(number("ks", 0))
+                .setKt(number("kt", 0))
+                .setKr(number("kr", 0))
+                .setKg(number("kg", 1))
+                .setShininess(integer("shininess", 0));
+    }
+
+    /**
+     * Helper function that sets the attenuation factors of a light from the current element.
+     */
+    private PointLight setAttenuation(PointLight light) throws IOException {
+        return light.setKc(number("kc", 1)).setKl(number("kl", 0)).setKq(number("kq", 0));
+    }
+
+    /**
+     * Helper function that creates the camera of the current element.
+     */
+    private void parseCamera() throws IOException {
+        _camera = new Camera(point("p0"), vector("vTo"), vector("vUp"))
+                .setViewPlaneSize(number("width"), number("height"))
+                .setDistance(number("distance"));
+        if (attribute("rays") != null) {
+            _camera.setNumOfRays(integer("rays"));
+        }
+
+        String sampler = attribute("sampler");
+        if (sampler != null) {
+            switch (sampler.toLowerCase(Locale.ROOT)) {
+                case "random": _camera.setSampler(Sampler.RANDOM); break;
+                case "stratified": _camera.setSampler(Sampler.STRATIFIED); break;
+                case "halton": _camera.setSampler(Sampler.HALTON); break;
+                case "sobol": _camera.setSampler(Sampler.SOBOL); break;
+                default: throw error("Unknown sampler " + sampler);
+            }
+        }
+    }
+
+    /**
+     * Helper function that creates the render, its image writer and its ray tracer of the current element.
+     */
+    private void parseRender() throws IOException {
+        String image = attribute("image");
+        ImageWriter imageWriter = new ImageWriter(image == null ? _scene.name : image,
+                integer("width"), integer("height"));
+        if (attribute("directory") != null) {
+            imageWriter.setDirectory(attribute("directory"));
+        }
+        if (attribute("format") != null) {
+            try {
+                imageWriter.setFormat(ImageFormat.valueOf(attribute("format").toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw error("Unknown format " + attribute("format"));
+            }
+        }
+        if (attribute("exposure") != null) {
+            imageWriter.setExposure(number("exposure"));
+        }
+        if (attribute("gamma") != null) {
+            imageWriter.setGamma(number("gamma"));
+        }
+
+        BasicRayTracer rayTracer = new BasicRayTracer(_scene)
+                .setAdaptiveGlossiness(bool("adaptive-glossiness", false))
+                .useBoundingBoxes(bool("bounding-boxes", true));
+        if (attribute("glossiness-rays") != null) {
+            rayTracer.setGlossinessRays(integer("glossiness-rays"));
+        }
+        if (attribute("max-level") != null) {
+            rayTracer.setMaxCalcColorLevel(integer("max-level"));
+        }
+
+        _render = new Render()
+                .setImageWriter(imageWriter)
+                .setRayTracer(rayTracer)
+                .setMultithreading(integer("threads", 1))
+                .setAntiAliasing(bool("anti-aliasing", false))
+                .setAdaptiveAntiAliasing(integer("adaptive-depth", 0), number("adaptive-threshold", 0));
+        if (attribute("tile-size") != null) {
+            _render.setTileSize(integer("tile-size"));
+        }
+        if (attribute("seed") != null) {
+            _render.setSeed(longInteger("seed"));
+        }
+        if (attribute("progressive-samples") != null) {
+            _render.setProgressiveRendering(integer("progressive-samples"));
+        }
+    }
+
+    /**
+     * Helper function that creates an error at the current location of the file.
+     */
+    private IOException error(String message) {
+        Location location = _reader == null ? null : _reader.getLocation();
+        return location == null
+                ? new IOException(_path + ": " + message)
+                : new IOException(_path + ":" + location.getLineNumber() + ":" + location.getColumnNumber()
+                + ": " + message);
+    }
+
+    /**
+     * Returns an attribute of the current element, null if it doesn't have it.
+     */
+    private String attribute(String name) {
+        return _reader.getAttributeValue(null, name);
+    }
+
+    private String requiredAttribute(String name) throws IOException {
+        String value = attribute(name);
+        if (value == null) {
+            throw error("Missing attribute " + name + " of " + _reader.getLocalName());
+        }
+        return value;
+    }
+
+    /**
+     * Helper function that parses an attribute of numbers separated by spaces.
+     */
+    private double[] numbers(String name, int count) throws IOException {
+        String[] values = requiredAttribute(name).trim().split("\\s+");
+        if (values.length != count) {
+            throw error("The attribute " + name + " should have " + count + " numbers");
+        }
+
+        double[] numbers = new double[count];
+        try {
+            for (int i = 0; i < count; ++i) {
+                numbers[i] = Double.parseDouble(values[i]);
+            }
+        } catch (NumberFormatException e) {
+            throw error("Invalid number in the attribute " + name);
+        }
+        return numbers;
+    }
+
+    private double number(String name) throws IOException {
+        return numbers(name, 1)[0];
+    }
+
+    private double number(String name, double defaultValue) throws IOException {
+        return attribute(name) == null ? defaultValue : number(name);
+    }
+
+    private long longInteger(String name) throws IOException {
+        try {
+            return Long.parseLong(requiredAttribute(name).trim());
+        } catch (NumberFormatException e) {
+            throw error("Invalid integer in the attribute " + name);
+        }
+    }
+
+    private int integer(String name) throws IOException {
+        long value = longInteger(name);
+        if (value != (int) value) {
+            throw error("The attribute " + name + " is too large");
+        }
+        return (int) value;
+    }
+
+    private int integer(String name, int defaultValue) throws IOException {
+        return attribute(name) == null ? defaultValue : integer(name);
+    }
+
+    private boolean bool(String name, boolean defaultValue) {
+        String value = attribute(name);
+        return value == null ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+
+    private Point3D point(String name) throws IOException {
+        double[] xyz = numbers(name, 3);
+        return new Point3D(xyz[0], xyz[1], xyz[2]);
+    }
+
+    private Vector vector(String name) throws IOException {
+        double[] xyz = numbers(name, 3);
+        return new Vector(xyz[0], xyz[1], xyz[2]);
+    }
+
+    private Color color(String name) throws IOException {
+        double[] rgb = numbers(name, 3);
+        return new Color(rgb[0], rgb[1], rgb[2]);
+    }
+}
@@ -54,6 +54,71 @@ public class CameraTest {
 
 	}
 
-}
+	/**
+	 * Test method for
+	 * {@link elements.Camera#constructRayThroughPoint(int, int, double, double)}.
+	 */
+	@Test
+	public void testConstructRayThroughPoint() {
+		Camera camera = new Camera(Point3D.ZERO, new Vector(0, 0, 1), new Vector(0, -1, 0)).setDistance(10)
+				.setViewPlaneSize(6, 6);
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: 3X3 Point inside the corner pixel (0,0)
+		assertEquals(new Ray(Point3D.ZERO, new Vector(-1.5, -2.5, 10)),
+				camera.constructRayThroughPoint(3, 3, 0.25, -0.25), "Bad ray");
+
+		// =============== Boundary Values Tests ==================
+		// TC11: 3X3 The center of a pixel is the ray through the pixel
+		assertEquals(camera.constructRayThroughPixel(3, 3, 2, 1),
+				camera.constructRayThroughPoint(3, 3, 2, 1), "Bad ray");
+
+		// TC12: 3X3 Corner of the view plane
+		assertEquals(new Ray(Point3D.ZERO, new Vector(-3, -3, 10)),
+				camera.constructRayThroughPoint(3, 3, -0.5, -0.5), "Bad ray");
+	}
 
+	/**
+	 * Test method for {@link elements.Camera#interpolate(Camera, double)}.
+	 */
+	@Test
+	public void testInterpolate() {
+		Camera camera = new Camera(Point3D.ZERO, new Vector(0, 0, -1), new Vector(0, 1, 0)).setDistance(100)
+				.setViewPlaneSize(100, 100);
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: Half way - the location and the view plane are in the middle, the camera turns half way
+		Camera other = new Camera(new Point3D(10, 0, 0), new Vector(1, 0, 0), new Vector(0, 1, 0)).setDistance(300)
+				.setViewPlaneSize(200, 300);
+		Camera middle = camera.interpolate(other, 0.5);
+		assertEquals(new Point3D(5, 0, 0), middle.getP0(), "Bad location");
+		assertEquals(new Vector(1, 0, -1).normalized(), middle.getVTo(), "Bad forward direction");
+		assertEquals(new Vector(0, 1, 0), middle.getVUp(), "Bad upper direction");
+		assertEquals(150, middle.getWidth(), 0.00001, "Bad width");
+		assertEquals(200, middle.getHeight(), 0.00001, "Bad height");
+		assertEquals(200, middle.getDistance(), 0.00001, "Bad distance");
+
+		// =============== Boundary Values Tests ==================
+		// TC11: The start of the interpolation is the current camera
+		Camera start = camera.interpolate(other, 0);
+		assertEquals(camera.getP0(), start.getP0(), "Bad location at the start");
+		assertEquals(camera.getVTo(), start.getVTo(), "Bad forward direction at the start");
+
+		// TC12: Turning to the opposite direction turns right
+		Camera back = new Camera(Point3D.ZERO, new Vector(0, 0, 1), new Vector(0, 1, 0));
+		assertEquals(camera.getVRight(), camera.interpolate(back, 0.5).getVTo(), "Bad forward direction");
+
+		// TC13: Turning upside down and to the opposite direction turns up
+		Camera flipped = new Camera(Point3D.ZERO, new Vector(0, 0, 1), new Vector(0, -1, 0));
+		middle = camera.interpolate(flipped, 0.5);
+		assertEquals(new Vector(0, 1, 0), middle.getVTo(), "Bad forward direction");
+		assertEquals(new Vector(0, 0, 1), middle.getVUp(), "Bad upper direction");
 
+		// TC14: The copy of a camera doesn't change with it
+		Camera copy = new Camera(camera);
+		camera.rotate(0, 90, 0);
+		assertEquals(new Vector(0, 0, -1), copy.getVTo(), "The copy was rotated");
+		assertEquals(100, copy.getWidth(), 0.00001, "The view plane wasn't copied");
+	}
+
+}
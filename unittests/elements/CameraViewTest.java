@@ -0,0 +1,67 @@
+package elements;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link elements.CameraView} class.
+ */
+class CameraViewTest {
+
+    /**
+     * Test method for {@link elements.CameraView#constructRayThroughPixel(int, int)}.
+     */
+    @Test
+    void testConstructRayThroughPixel() {
+        Camera camera = new Camera(Point3D.ZERO, new Vector(0, 0, 1), new Vector(0, -1, 0)).setDistance(10)
+                .setViewPlaneSize(6, 6);
+        CameraView view = camera.getView(3, 3);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: 3X3 Corner (0,0)
+        assertEquals(new Ray(Point3D.ZERO, new Vector(-2, -2, 10)), view.constructRayThroughPixel(0, 0), "Bad ray");
+
+        // TC02: The view doesn't change with the camera
+        camera.rotate(0, 90, 0).setP0(1, 2, 3).setViewPlaneSize(60, 60);
+        assertEquals(new Ray(Point3D.ZERO, new Vector(-2, -2, 10)), view.constructRayThroughPixel(0, 0),
+                "The view was changed by the camera");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: 3X3 Center (1,1)
+        assertEquals(new Ray(Point3D.ZERO, new Vector(0, 0, 10)), view.constructRayThroughPixel(1, 1), "Bad ray");
+
+        // TC12: 4X4 Corner (0,0) - the center of the view plane is between pixels
+        assertEquals(new Ray(Point3D.ZERO, new Vector(-3, -3, 10)),
+                new Camera(Point3D.ZERO, new Vector(0, 0, 1), new Vector(0, -1, 0)).setDistance(10)
+                        .setViewPlaneSize(8, 8).getView(4, 4).constructRayThroughPixel(0, 0), "Bad ray");
+    }
+
+    /**
+     * Test method for {@link elements.CameraView#constructRaysThroughPixels(int, int, int, int, Ray[])}.
+     */
+    @Test
+    void testConstructRaysThroughPixels() {
+        CameraView view = new Camera(new Point3D(1, 2, 3), new Vector(1, 1, 0), new Vector(0, 0, 1)).setDistance(10)
+                .setViewPlaneSize(8, 6).getView(8, 6);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The rays of a tile are the rays through its pixels, row by row
+        Ray[] rays = view.constructRaysThroughPixels(2, 1, 3, 2, null);
+        for (int i = 0; i < 2; ++i) {
+            for (int j = 0; j < 3; ++j) {
+                assertEquals(view.constructRayThroughPixel(2 + j, 1 + i), rays[i * 3 + j], "Bad ray");
+            }
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A big enough buffer is reused
+        assertSame(rays, view.constructRaysThroughPixels(0, 5, 6, 1, rays), "The buffer wasn't reused");
+
+        // TC12: A too small buffer is replaced
+        assertEquals(16, view.constructRaysThroughPixels(0, 0, 8, 2, rays).length, "Bad buffer size");
+    }
+}
@@ -0,0 +1,126 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link geometries.BVH} class.
+ */
+class BVHTest {
+
+    /**
+     * Creates a row of spheres along the x axis, and a triangle far from them.
+     */
+    private Intersectable[] createIntersectables() {
+        Intersectable[] intersectables = new Intersectable[9];
+        for (int i = 0; i < 8; ++i) {
+            intersectables[i] = new Sphere(0.5, new Point3D(i * 2, 0, 0));
+        }
+        intersectables[8] = new Triangle(
+                new Point3D(100, 0, 0),
+                new Point3D(101, 0, 0),
+                new Point3D(100, 1, 0));
+        return intersectables;
+    }
+
+    /**
+     * Test method for {@link geometries.BVH#findClosestIntersection(primitives.Ray, double, boolean)}.
+     */
+    @Test
+    void testFindClosestIntersection() {
+        for (BVH.SplitMethod splitMethod : BVH.SplitMethod.values()) {
+            BVH bvh = new BVH(splitMethod, createIntersectables());
+
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: The ray goes along the row of spheres, the first sphere is the closest
+            Intersectable.GeoPoint result = bvh.findClosestIntersection(
+                    new Ray(new Point3D(-1, 0, 0), new Vector(1, 0, 0)), Double.POSITIVE_INFINITY, true);
+            assertEquals(new Point3D(-0.5, 0, 0), result.point, splitMethod + ": Wrong closest point");
+
+            // TC02: The ray hits only the far triangle
+            result = bvh.findClosestIntersection(
+                    new Ray(new Point3D(100.2, 0.2, 1), new Vector(0, 0, -1)), Double.POSITIVE_INFINITY, true);
+            assertEquals(new Point3D(100.2, 0.2, 0), result.point, splitMethod + ": Wrong closest point");
+
+            // =============== Boundary Values Tests ==================
+            // TC03: The ray misses all the intersectables
+            assertNull(bvh.findClosestIntersection(
+                    new Ray(new Point3D(50, 5, 0), new Vector(0, 1, 0)), Double.POSITIVE_INFINITY, true),
+                    splitMethod + ": Found intersection while missing all the intersectables");
+        }
+    }
+
+    /**
+     * Test method for {@link geometries.BVH#getStatistics()}.
+     */
+    @Test
+    void testGetStatistics() {
+        BVH.Statistics median = new BVH(createIntersectables()).getStatistics();
+        BVH.Statistics sah = new BVH(BVH.SplitMethod.SAH, createIntersectables()).getStatistics();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Every intersectable is in a leaf
+        assertEquals(9, median.intersectables, "Wrong number of intersectables in the median tree");
+        assertEquals(9, sah.intersectables, "Wrong number of intersectables in the SAH tree");
+
+        // TC02: The median split creates a binary tree with a leaf for every intersectable
+        assertEquals(9, median.leaves, "Wrong number of leaves in the median tree");
+        assertEquals(17, median.getNodes(), "Wrong number of nodes in the median tree");
+
+        // TC03: The SAH tree isn't expected to cost more than the median tree
+        assertTrue(sah.sahCost <= median.sahCost, "SAH tree costs more than the median tree");
+    }
+
+    /**
+     * Test method for {@link geometries.BVH#BVH(BVH.SplitMethod, Intersectable...)}
+     * with enough intersectables to build the subtrees in parallel.
+     */
+    @Test
+    void testParallelBuild() {
+        // A grid of spheres, the number of which is over the parallel threshold, and a plane behind them
+        int size = 80;
+        Intersectable[] intersectables = new Intersectable[size * size + 1];
+        for (int i = 0; i < size; ++i) {
+            for (int j = 0; j < size; ++j) {
+                intersectables[i * size + j] = new Sphere(0.4, new Point3D(i, j, (i * 7 + j * 3) % 5));
+            }
+        }
+        intersectables[size * size] = new Plane(new Point3D(0, 0, -10), new Vector(0, 0, 1));
+        Geometries geometries = new Geometries(intersectables);
+
+        for (BVH.SplitMethod splitMethod : BVH.SplitMethod.values()) {
+            BVH bvh = new BVH(splitMethod, intersectables);
+
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: Every ray has the same closest intersection as without the tree
+            Point3D p0 = new Point3D(40, 40, 100);
+            for (int i = -2; i < size + 2; i += 3) {
+                for (int j = -2; j < size + 2; j += 3) {
+                    Ray ray = new Ray(p0, new Point3D(i + 0.1, j + 0.2, 0).subtract(p0));
+                    assertEquals(geometries.findClosestIntersection(ray).point,
+                            bvh.findClosestIntersection(ray, Double.POSITIVE_INFINITY, true).point,
+                            splitMethod + ": Wrong closest point");
+                }
+            }
+
+            // TC02: A ray that hits only the plane, outside of the bounding box of the spheres
+            Ray ray = new Ray(p0, new Vector(500, 500, -110));
+            Intersectable.GeoPoint plane = bvh.findClosestIntersection(ray, Double.POSITIVE_INFINITY, true);
+            assertNotNull(plane, splitMethod + ": The plane was culled by the bounding boxes");
+            assertEquals(new Point3D(540, 540, -10), plane.point, splitMethod + ": Wrong intersection with the plane");
+            assertEquals(0, bvh.occlusion(ray, Double.POSITIVE_INFINITY, 0.01, true),
+                    splitMethod + ": The plane doesn't block the ray");
+        }
+
+        // TC03: The median split creates a balanced tree with a leaf for every sphere
+        BVH.Statistics statistics = new BVH(Arrays.copyOf(intersectables, size * size)).getStatistics();
+        assertEquals(size * size, statistics.leaves, "Wrong number of leaves in the median tree");
+        assertEquals(14, statistics.depth, "The median tree isn't balanced");
+    }
+}
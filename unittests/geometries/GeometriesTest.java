@@ -1,6 +1,7 @@
 package geometries;
 
 import org.junit.jupiter.api.Test;
+import primitives.Material;
 import primitives.Point3D;
 import primitives.Ray;
 import primitives.Vector;
@@ -55,4 +56,79 @@ class GeometriesTest {
         result = geometries.findIntersections(new Ray(new Point3D(0.2, 0.2, -1), new Vector(0, 0, 1)));
         assertEquals(4, result.size(), "All geometries intersects");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Geometries#findClosestIntersection(primitives.Ray, double)}.
+     */
+    @Test
+    void testFindClosestIntersection() {
+        Sphere sphere = new Sphere(0.5, new Point3D(0, 0, 2));
+        Polygon polygon = new Polygon(
+                new Point3D( 1, 0, 0),
+                new Point3D(0,  1, 0),
+                new Point3D(-1, 0, 0),
+                new Point3D(0, -1, 0)
+        );
+        Geometries geometries = new Geometries(sphere, new BVH(polygon,
+                new Triangle(
+                        new Point3D(1, 0, 0),
+                        new Point3D(0, 1, 0),
+                        new Point3D(0, 0, 1)
+                )));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: All geometries intersects, the polygon is the closest
+        Intersectable.GeoPoint result = geometries.findClosestIntersection(
+                new Ray(new Point3D(0.2, 0.2, -1), new Vector(0, 0, 1)));
+        assertEquals(polygon, result.geometry, "Wrong closest geometry");
+        assertEquals(new Point3D(0.2, 0.2, 0), result.point, "Wrong closest point");
+
+        // TC02: The ray starts between the geometries, the sphere is the closest
+        result = geometries.findClosestIntersection(new Ray(new Point3D(0, 0, 1), new Vector(0, 0, 1)));
+        assertEquals(new Point3D(0, 0, 1.5), result.point, "Wrong closest point");
+
+        // =============== Boundary Values Tests ==================
+        // TC03: No geometries intersects
+        assertNull(geometries.findClosestIntersection(new Ray(new Point3D(-1, -1, -1), new Vector(-1, -1, -1))),
+                "No geometries intersects");
+
+        // TC04: All intersections are beyond the max distance
+        assertNull(geometries.findClosestIntersection(new Ray(new Point3D(0.2, 0.2, -1), new Vector(0, 0, 1)), 0.5),
+                "Intersections beyond the max distance");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#occlusion(primitives.Ray, double, double)}.
+     */
+    @Test
+    void testOcclusion() {
+        Geometries geometries = new Geometries(
+                new Sphere(0.5, new Point3D(0, 0, 2)).setMaterial(new Material().setKt(0.5)),
+                new BVH(new Polygon(
+                        new Point3D( 1, 0, 0),
+                        new Point3D(0,  1, 0),
+                        new Point3D(-1, 0, 0),
+                        new Point3D(0, -1, 0)
+                ).setMaterial(new Material().setKt(0.8)))
+        );
+        Ray ray = new Ray(new Point3D(0, 0, -1), new Vector(0, 0, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Light passes through all the transparent geometries (sphere twice)
+        assertEquals(0.8 * 0.5 * 0.5, geometries.occlusion(ray, 10, 0.001), 0.00001,
+                "Wrong transmittance through transparent geometries");
+
+        // TC02: Only the polygon is between the point and the light
+        assertEquals(0.8, geometries.occlusion(ray, 2, 0.001), 0.00001,
+                "Wrong transmittance within the max distance");
+
+        // TC03: The transmittance drops below the threshold
+        assertEquals(0, geometries.occlusion(ray, 10, 0.5), 0.00001,
+                "Transmittance under the threshold wasn't blocked");
+
+        // =============== Boundary Values Tests ==================
+        // TC04: No geometries intersects
+        assertEquals(1, geometries.occlusion(new Ray(new Point3D(0, 0, -1), new Vector(0, 0, -1)), 10, 0.001), 0.00001,
+                "Light blocked without intersections");
+    }
+}
@@ -0,0 +1,123 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Material;
+import primitives.Metrics;
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link geometries.LinearBVH} class.
+ */
+class LinearBVHTest {
+
+    /**
+     * Creates a grid of spheres on the xy plane and a plane behind them.
+     */
+    private Intersectable[] createIntersectables() {
+        Intersectable[] intersectables = new Intersectable[17];
+        for (int i = 0; i < 16; ++i) {
+            intersectables[i] = new Sphere(0.5, new Point3D(i % 4 * 2, i / 4 * 2, 0))
+                    .setMaterial(new Material().setKt(0.5));
+        }
+        intersectables[16] = new Plane(new Point3D(0, 0, -10), new Vector(0, 0, 1));
+        return intersectables;
+    }
+
+    /**
+     * Test method for {@link geometries.LinearBVH#findClosestIntersection(primitives.Ray, double, boolean)}.
+     */
+    @Test
+    void testFindClosestIntersection() {
+        for (BVH.SplitMethod splitMethod : BVH.SplitMethod.values()) {
+            LinearBVH bvh = new LinearBVH(splitMethod, createIntersectables());
+
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: The ray goes through a row of spheres from its end, the nearest sphere is the closest
+            Intersectable.GeoPoint result = bvh.findClosestIntersection(
+                    new Ray(new Point3D(10, 2, 0), new Vector(-1, 0, 0)), Double.POSITIVE_INFINITY, true);
+            assertEquals(new Point3D(6.5, 2, 0), result.point, splitMethod + ": Wrong closest point");
+
+            // TC02: The ray misses the spheres and hits the plane
+            result = bvh.findClosestIntersection(
+                    new Ray(new Point3D(1, 1, 5), new Vector(0, 0, -1)), Double.POSITIVE_INFINITY, true);
+            assertEquals(new Point3D(1, 1, -10), result.point, splitMethod + ": Wrong closest point");
+
+            // =============== Boundary Values Tests ==================
+            // TC03: The plane is beyond the max distance
+            assertNull(bvh.findClosestIntersection(
+                    new Ray(new Point3D(1, 1, 5), new Vector(0, 0, -1)), 10, true),
+                    splitMethod + ": Found intersection beyond the max distance");
+        }
+    }
+
+    /**
+     * Test method for {@link geometries.LinearBVH#findGeoIntersections(primitives.Ray, double, boolean)}.
+     */
+    @Test
+    void testFindGeoIntersections() {
+        LinearBVH bvh = new LinearBVH(createIntersectables());
+        Ray ray = new Ray(new Point3D(10, 2, 0), new Vector(-1, 0, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The ray goes through a row of 4 spheres
+        assertEquals(8, bvh.findGeoIntersections(ray, Double.POSITIVE_INFINITY, true).size(),
+                "Wrong number of intersections");
+
+        // TC02: Using the tree gives the same intersections as checking all the intersectables
+        assertEquals(bvh.findGeoIntersections(ray, 5, false).size(), bvh.findGeoIntersections(ray, 5, true).size(),
+                "Tree traversal and checking all the intersectables are different");
+    }
+
+    /**
+     * Test method for {@link geometries.LinearBVH#occlusion(primitives.Ray, double, double, boolean)}.
+     */
+    @Test
+    void testOcclusion() {
+        LinearBVH bvh = new LinearBVH(createIntersectables());
+        Ray ray = new Ray(new Point3D(10, 2, 0), new Vector(-1, 0, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The light passes through two spheres (4 intersections)
+        assertEquals(Math.pow(0.5, 4), bvh.occlusion(ray, 7, 0.001, true), 0.00001,
+                "Wrong transmittance");
+
+        // TC02: The light is blocked by the spheres
+        assertEquals(0, bvh.occlusion(ray, Double.POSITIVE_INFINITY, 0.01, true), 0.00001,
+                "Light wasn't blocked");
+    }
+
+    /**
+     * Test method for {@link geometries.LinearBVH} with a nested hierarchy alone in a leaf.
+     */
+    @Test
+    void testNestedHierarchy() {
+        // A BVH of a grid of 400 spheres and a far sphere, so each of them is alone in a leaf
+        Intersectable[] spheres = new Intersectable[400];
+        for (int i = 0; i < spheres.length; ++i) {
+            spheres[i] = new Sphere(0.4, new Point3D(i % 20, i / 20, 0));
+        }
+        LinearBVH bvh = new LinearBVH(new BVH(spheres), new Sphere(1, new Point3D(100, 100, 0)));
+        Ray ray = new Ray(new Point3D(5, 5, 10), new Vector(0, 0, -1));
+
+        long[] counts = Metrics.newCounts();
+        Metrics.startCounting(counts);
+        try {
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: The nested hierarchy is traversed with its bounding boxes, not checking every sphere
+            assertEquals(new Point3D(5, 5, 0.4),
+                    bvh.findClosestIntersection(ray, Double.POSITIVE_INFINITY, true).point, "Wrong closest point");
+            assertEquals(2, bvh.findGeoIntersections(ray, Double.POSITIVE_INFINITY, true).size(),
+                    "Wrong number of intersections");
+            assertEquals(0, bvh.occlusion(ray, Double.POSITIVE_INFINITY, 0.01, true), 0.00001,
+                    "Light wasn't blocked");
+        } finally {
+            Metrics.stopCounting();
+        }
+        assertTrue(counts[Metrics.Counter.PRIMITIVE_TESTS.ordinal()] < 30,
+                "Checked every sphere of the nested hierarchy: " + counts[Metrics.Counter.PRIMITIVE_TESTS.ordinal()]);
+    }
+}
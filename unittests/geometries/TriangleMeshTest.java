@@ -0,0 +1,218 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Material;
+import primitives.Metrics;
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link geometries.TriangleMesh} class.
+ */
+class TriangleMeshTest {
+
+    /**
+     * Creates a bumpy grid of 20X20 squares (800 triangles) parallel to the xy plane, every square split to 2 triangles.
+     * @param z the height of the grid
+     */
+    private TriangleMesh createGrid(double z) {
+        TriangleMesh.Builder builder = new TriangleMesh.Builder();
+        for (int y = 0; y <= 20; ++y) {
+            for (int x = 0; x <= 20; ++x) {
+                builder.addVertex(x, y, z + Math.sin(x) * Math.cos(y));
+            }
+        }
+        for (int y = 0; y < 20; ++y) {
+            for (int x = 0; x < 20; ++x) {
+                int a = y * 21 + x;
+                builder.addTriangle(a, a + 1, a + 22).addTriangle(a, a + 22, a + 21);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#TriangleMesh(double[], int[])}.
+     */
+    @Test
+    void testConstructor() {
+        double[] vertices = {0, 0, 0, 1, 0, 0, 0, 1, 0};
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A single triangle
+        assertEquals(1, new TriangleMesh(vertices, new int[]{0, 1, 2}).getTriangleCount(),
+                "Wrong number of triangles");
+
+        // TC02: A triangle of a missing vertex
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(vertices, new int[]{0, 1, 3}),
+                "Constructed a mesh with a missing vertex");
+
+        // =============== Boundary Values Tests ==================
+        // TC03: No triangles
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(vertices, new int[0]),
+                "Constructed a mesh without triangles");
+
+        // TC04: A partial triangle
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(vertices, new int[]{0, 1}),
+                "Constructed a mesh with a partial triangle");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#findGeoIntersections(primitives.Ray, double)}.
+     */
+    @Test
+    void testFindGeoIntersections() {
+        TriangleMesh mesh = new TriangleMesh(new double[]{0, 0, 1, 1, 0, 0, 0, 1, 0}, new int[]{0, 1, 2});
+        Vector v = new Vector(-1, -1, -1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The ray goes through the triangle (1 point)
+        List<Point3D> result = mesh.findIntersections(new Ray(new Point3D(1, 1, 1), v));
+        assertEquals(List.of(new Point3D(1d / 3, 1d / 3, 1d / 3)), result, "Wrong intersection point");
+
+        // TC02: The ray is outside against an edge (0 points)
+        assertNull(mesh.findIntersections(new Ray(new Point3D(3, 3, 1), v)), "Ray's line out of triangle");
+
+        // TC03: The ray starts after the triangle (0 points)
+        assertNull(mesh.findIntersections(new Ray(new Point3D(0, 0, 0), v)), "Ray starts after the triangle");
+
+        // =============== Boundary Values Tests ==================
+        // TC04: The ray goes through an edge, the edges are part of the triangles of a mesh (1 point)
+        assertEquals(1, mesh.findIntersections(new Ray(new Point3D(1.5, 1.5, 1), v)).size(),
+                "Ray through an edge of the triangle");
+
+        // TC05: The ray is parallel to the triangle (0 points)
+        assertNull(mesh.findIntersections(new Ray(new Point3D(1, 1, 1), new Vector(1, -1, 0))),
+                "Ray parallel to the triangle");
+
+        // TC06: The triangle is beyond the max distance (0 points)
+        assertNull(mesh.findGeoIntersections(new Ray(new Point3D(1, 1, 1), v), 1),
+                "Found intersection beyond the max distance");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#findClosestIntersection(primitives.Ray, double, boolean)}.
+     */
+    @Test
+    void testFindClosestIntersection() {
+        TriangleMesh mesh = createGrid(0);
+        Random random = new Random(1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The hierarchy finds the same intersections as checking every triangle
+        for (int i = 0; i < 200; ++i) {
+            Point3D p0 = new Point3D(random.nextDouble() * 30 - 5, random.nextDouble() * 30 - 5, 5);
+            Point3D target = new Point3D(random.nextDouble() * 20, random.nextDouble() * 20, 0);
+            Ray ray = new Ray(p0, target.subtract(p0));
+
+            Intersectable.GeoPoint expected = mesh.findClosestIntersection(ray, Double.POSITIVE_INFINITY);
+            for (boolean useBB : new boolean[]{false, true}) {
+                Intersectable.GeoPoint result = mesh.findClosestIntersection(ray, Double.POSITIVE_INFINITY, useBB);
+                assertEquals(expected == null, result == null,
+                        "Tree traversal and checking all the triangles are different");
+                if (expected != null) {
+                    assertEquals(expected, result, "Tree traversal found a different intersection");
+                }
+                List<Intersectable.GeoPoint> all = mesh.findGeoIntersections(ray, Double.POSITIVE_INFINITY);
+                List<Intersectable.GeoPoint> traversed = mesh.findGeoIntersections(ray, Double.POSITIVE_INFINITY, useBB);
+                assertEquals(all == null ? 0 : all.size(), traversed == null ? 0 : traversed.size(),
+                        "Tree traversal found different intersections");
+            }
+        }
+
+        // TC02: Meshes in the leaves of a hierarchy are traversed inside the traversal of the hierarchy
+        LinearBVH bvh = new LinearBVH(new Geometries(mesh, createGrid(-2)),
+                new Sphere(1, new Point3D(5, 5, 3)), new Sphere(1, new Point3D(15, 15, 3)));
+        for (int i = 0; i < 200; ++i) {
+            Point3D p0 = new Point3D(random.nextDouble() * 30 - 5, random.nextDouble() * 30 - 5, 5);
+            Point3D target = new Point3D(random.nextDouble() * 20, random.nextDouble() * 20, -2);
+            Ray ray = new Ray(p0, target.subtract(p0));
+
+            Intersectable.GeoPoint expected = bvh.findClosestIntersection(ray, Double.POSITIVE_INFINITY, false);
+            Intersectable.GeoPoint result = bvh.findClosestIntersection(ray, Double.POSITIVE_INFINITY, true);
+            assertEquals(expected == null ? null : expected.point, result == null ? null : result.point,
+                    "Nested tree traversal found a different intersection");
+            List<Intersectable.GeoPoint> all = bvh.findGeoIntersections(ray, Double.POSITIVE_INFINITY, false);
+            List<Intersectable.GeoPoint> traversed = bvh.findGeoIntersections(ray, Double.POSITIVE_INFINITY, true);
+            assertEquals(all == null ? 0 : all.size(), traversed == null ? 0 : traversed.size(),
+                    "Nested tree traversal found different intersections");
+        }
+
+        // TC03: A mesh alone in a leaf of a hierarchy is traversed with its own hierarchy
+        bvh = new LinearBVH(mesh, new Sphere(1, new Point3D(50, 50, 0)));
+        Ray ray = new Ray(new Point3D(5.5, 5.5, 5), new Vector(0, 0, -1));
+        long[] counts = Metrics.newCounts();
+        Metrics.startCounting(counts);
+        try {
+            assertNotNull(bvh.findClosestIntersection(ray, Double.POSITIVE_INFINITY, true), "Missed the mesh");
+            assertNotNull(bvh.findClosestIntersection(ray, Double.POSITIVE_INFINITY, false), "Missed the mesh");
+        } finally {
+            Metrics.stopCounting();
+        }
+        assertTrue(counts[Metrics.Counter.PRIMITIVE_TESTS.ordinal()] < 100,
+                "Checked every triangle of the mesh: " + counts[Metrics.Counter.PRIMITIVE_TESTS.ordinal()]);
+
+        // =============== Boundary Values Tests ==================
+        // TC04: The ray goes along the grid under it (0 points)
+        assertNull(mesh.findClosestIntersection(new Ray(new Point3D(-1, 10, -2), new Vector(1, 0, 0)),
+                Double.POSITIVE_INFINITY, true), "Ray under the grid");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh.Face}.
+     */
+    @Test
+    void testFace() {
+        Material red = new Material().setKd(0.5);
+        Material glass = new Material().setKt(0.8);
+        TriangleMesh mesh = new TriangleMesh.Builder()
+                .addVertex(0, 0, 0).addVertex(1, 0, 0).addVertex(1, 1, 0).addVertex(0, 1, 0)
+                .setMaterial(red).setEmission(new Color(100, 0, 0))
+                .addTriangle(0, 1, 2)
+                .setMaterial(glass)
+                .addTriangle(0, 2, 3)
+                .build();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Every triangle has its own material
+        Ray first = new Ray(new Point3D(0.8, 0.2, 1), new Vector(0, 0, -1));
+        Ray second = new Ray(new Point3D(0.2, 0.8, 1), new Vector(0, 0, -1));
+        assertSame(red, mesh.findClosestIntersection(first).geometry.getMaterial(), "Wrong material");
+        assertSame(glass, mesh.findClosestIntersection(second).geometry.getMaterial(), "Wrong material");
+
+        // TC02: The normal of a face is of its triangle
+        assertEquals(new Vector(0, 0, 1), mesh.findClosestIntersection(first).geometry.getNormal(Point3D.ZERO),
+                "Wrong normal");
+
+        // TC03: Faces of the same triangle are equal
+        assertEquals(mesh.findClosestIntersection(first).geometry, mesh.findClosestIntersection(first).geometry,
+                "Faces of the same triangle are different");
+
+        // TC04: The light passes only through the transparent triangle
+        assertEquals(0.8, mesh.occlusion(second, 2, 0.001, true), 0.00001, "Wrong occlusion");
+        assertEquals(0, mesh.occlusion(first, 2, 0.001, true), 0.00001, "Wrong occlusion");
+
+        // TC05: Setting the material and the emission of a face sets them for its triangle only
+        int materials = mesh.getMaterials().length;
+        mesh.findClosestIntersection(first).geometry.setMaterial(glass).setEmission(new Color(0, 100, 0));
+        assertSame(glass, mesh.findClosestIntersection(first).geometry.getMaterial(), "Wrong material");
+        assertEquals(0, mesh.findClosestIntersection(first).geometry.getEmission().difference(new Color(0, 100, 0)),
+                "Wrong emission");
+        assertEquals(0, mesh.findClosestIntersection(second).geometry.getEmission().difference(new Color(100, 0, 0)),
+                "Changed the emission of another triangle");
+        assertEquals(materials, mesh.getMaterials().length, "Added an existing material to the palette");
+        mesh.findClosestIntersection(first).geometry.setMaterial(red);
+
+        // =============== Boundary Values Tests ==================
+        // TC06: Setting the material of the mesh sets it for all the triangles
+        mesh.setMaterial(glass);
+        assertSame(glass, mesh.findClosestIntersection(first).geometry.getMaterial(), "Wrong material");
+    }
+}
@@ -0,0 +1,98 @@
+package multithreading;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link multithreading.ThreadPool} class.
+ */
+class ThreadPoolTest {
+
+    /**
+     * Creates a thread pool that sums the numbers from 1 to {@code count}.
+     */
+    private ThreadPool<Integer> createSumPool(ThreadPool.Backend backend, int count, AtomicInteger sum) {
+        AtomicInteger next = new AtomicInteger();
+        return new ThreadPool<Integer>()
+                .setBackend(backend)
+                .setNumThreads(4)
+                .setParamGetter(() -> {
+                    int n = next.incrementAndGet();
+                    return n <= count ? n : null;
+                })
+                .setTarget(n -> {
+                    if (n == null) {
+                        return false;
+                    }
+                    sum.addAndGet(n);
+                    return true;
+                });
+    }
+
+    /**
+     * Test method for {@link multithreading.ThreadPool#execute()}.
+     */
+    @Test
+    void testExecute() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Every supported backend runs all the jobs
+        for (ThreadPool.Backend backend : ThreadPool.Backend.values()) {
+            if (!backend.isSupported()) {
+                continue;
+            }
+
+            AtomicInteger sum = new AtomicInteger();
+            ThreadPool<Integer> threadPool = createSumPool(backend, 1000, sum);
+            threadPool.execute();
+            threadPool.join();
+            assertEquals(500500, sum.get(), backend + ": Not all the jobs were run");
+            assertFalse(threadPool.isRunning(), backend + ": Still running after join");
+
+            // =============== Boundary Values Tests ==================
+            // TC02: The thread pool runs again after join (reusing the threads of the persistent backends)
+            sum.set(0);
+            threadPool.setParamGetter(new AtomicInteger()::incrementAndGet)
+                    .setTarget(n -> {
+                        sum.incrementAndGet();
+                        return n < 100;
+                    });
+            threadPool.execute();
+            threadPool.join();
+            assertTrue(sum.get() >= 100, backend + ": Not all the jobs were run on the second execution");
+            threadPool.shutdown();
+        }
+    }
+
+    /**
+     * Test method for {@link multithreading.ThreadPool#join()}.
+     */
+    @Test
+    void testJoin() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A failure of a thread is thrown by join
+        for (ThreadPool.Backend backend : ThreadPool.Backend.values()) {
+            if (!backend.isSupported()) {
+                continue;
+            }
+
+            ThreadPool<Integer> threadPool = new ThreadPool<Integer>()
+                    .setBackend(backend)
+                    .setNumThreads(4)
+                    .setParamGetter(new AtomicInteger()::incrementAndGet)
+                    .setTarget(n -> {
+                        if (n == 50) {
+                            throw new IllegalStateException("failed on " + n);
+                        }
+                        return true;
+                    });
+            threadPool.execute();
+            IllegalStateException e = assertThrows(IllegalStateException.class, threadPool::join,
+                    backend + ": The failure wasn't thrown");
+            assertEquals("failed on 50", e.getMessage(), backend + ": Wrong failure");
+            threadPool.shutdown();
+        }
+    }
+}
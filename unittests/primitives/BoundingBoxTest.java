@@ -0,0 +1,53 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link primitives.BoundingBox} class.
+ */
+class BoundingBoxTest {
+
+    /**
+     * Test method for {@link primitives.BoundingBox#intersect(Ray, double, double)}.
+     */
+    @Test
+    void testIntersect() {
+        BoundingBox bb = new BoundingBox(new Point3D(0, 0, 0), new Point3D(2, 2, 2));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The ray enters the box
+        assertEquals(1, bb.intersect(new Ray(new Point3D(-1, 1, 1), new Vector(1, 0, 0)), 0, 10), 0.00001,
+                "Wrong entry distance");
+
+        // TC02: The ray enters the box in negative direction
+        assertEquals(2, bb.intersect(new Ray(new Point3D(1, 1, 4), new Vector(0, 0, -1)), 0, 10), 0.00001,
+                "Wrong entry distance");
+
+        // TC03: The ray starts inside the box
+        assertEquals(0, bb.intersect(new Ray(new Point3D(1, 1, 1), new Vector(1, 1, 1)), 0, 10), 0.00001,
+                "Wrong entry distance");
+
+        // TC04: The ray misses the box
+        assertEquals(BoundingBox.MISS, bb.intersect(new Ray(new Point3D(-1, 3, 1), new Vector(1, 0.5, 0)), 0, 10),
+                "Found intersection while missing the box");
+
+        // TC05: The box is behind the ray
+        assertEquals(BoundingBox.MISS, bb.intersect(new Ray(new Point3D(3, 1, 1), new Vector(1, 0, 0)), 0, 10),
+                "Found intersection behind the ray");
+
+        // =============== Boundary Values Tests ==================
+        // TC06: The box is beyond the max distance
+        assertEquals(BoundingBox.MISS, bb.intersect(new Ray(new Point3D(-1, 1, 1), new Vector(1, 0, 0)), 0, 0.5),
+                "Found intersection beyond the max distance");
+
+        // TC07: The ray is parallel to the x axis and outside the box's slab on the y axis
+        assertEquals(BoundingBox.MISS, bb.intersect(new Ray(new Point3D(-1, 3, 1), new Vector(1, 0, 0)), 0, 10),
+                "Found intersection with a parallel ray outside the box");
+
+        // TC08: The ray goes along a face of the box
+        assertEquals(1, bb.intersect(new Ray(new Point3D(-1, 0, 1), new Vector(1, 0, 0)), 0, 10), 0.00001,
+                "Wrong entry distance along a face");
+    }
+}
@@ -0,0 +1,83 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link primitives.Sampler} interface.
+ */
+class SamplerTest {
+
+    /**
+     * Test method for {@link primitives.Sampler#samples(int, java.util.Random)}.
+     */
+    @Test
+    void testSamples() {
+        Random random = new Random(1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Every sampler creates the points in the unit square
+        for (Sampler sampler : new Sampler[]{Sampler.RANDOM, Sampler.STRATIFIED, Sampler.HALTON, Sampler.SOBOL}) {
+            double[] samples = sampler.samples(10, random);
+            assertEquals(20, samples.length, "Bad number of samples");
+            for (double sample : samples) {
+                assertTrue(sample >= 0 && sample < 1, "The sample is out of the unit square");
+            }
+        }
+
+        // TC02: Stratified points are in different cells of the grid
+        assertCellsCovered(Sampler.STRATIFIED.samples(16, random), 4);
+
+        // TC03: Low-discrepancy points are in different cells of the grid
+        assertCellsCovered(Sampler.SOBOL.samples(16, random), 4);
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Fewer points than the cells of the grid (3 cells of 2X2)
+        double[] samples = Sampler.STRATIFIED.samples(3, random);
+        assertEquals(6, samples.length, "Bad number of samples");
+        boolean[] cells = new boolean[4];
+        for (int i = 0; i < 3; ++i) {
+            int cell = (int) (samples[2 * i + 1] * 2) * 2 + (int) (samples[2 * i] * 2);
+            assertFalse(cells[cell], "2 samples in the same cell");
+            cells[cell] = true;
+        }
+
+        // TC12: No points
+        assertEquals(0, Sampler.HALTON.samples(0, random).length, "Bad number of samples");
+    }
+
+    /**
+     * Test method for {@link primitives.Sampler#toCosineHemisphere(double, double, primitives.Vec3)}.
+     */
+    @Test
+    void testToCosineHemisphere() {
+        Vec3 result = new Vec3();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A point of the square is a unit direction above the bottom
+        Sampler.toCosineHemisphere(0.3, 0.8, result);
+        assertEquals(1, result.length(), 1e-10, "The direction isn't a unit vector");
+        assertTrue(result.z > 0, "The direction is under the bottom of the hemisphere");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The center of the square is the top of the hemisphere
+        Sampler.toCosineHemisphere(0.5, 0.5, result);
+        assertEquals(1, result.z, 1e-10, "The center isn't the top");
+    }
+
+    /**
+     * Checks that every cell of a grid has exactly one sample.
+     */
+    private static void assertCellsCovered(double[] samples, int size) {
+        int[] cells = new int[size * size];
+        for (int i = 0; i < samples.length / 2; ++i) {
+            ++cells[(int) (samples[2 * i + 1] * size) * size + (int) (samples[2 * i] * size)];
+        }
+        for (int cell : cells) {
+            assertEquals(1, cell, "The samples don't cover the grid");
+        }
+    }
+}
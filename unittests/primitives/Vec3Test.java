@@ -0,0 +1,64 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link primitives.Vec3} class.
+ */
+class Vec3Test {
+
+    /**
+     * Test method for {@link primitives.Vec3#addScaled(Vector, double)}.
+     */
+    @Test
+    void testAddScaled() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Same result as the immutable vector operations
+        Vector v1 = new Vector(1, 2, 3);
+        Vector v2 = new Vector(-2, 0.5, 4);
+        assertEquals(v1.add(v2.scale(3)), new Vec3().set(v1).addScaled(v2, 3).toVector(),
+                "addScaled() wrong result");
+
+        // =============== Boundary Values Tests ==================
+        // TC02: The result is the zero vector, which is allowed on a mutable vector
+        Vec3 zero = new Vec3().set(v1).addScaled(v1, -1);
+        assertEquals(0, zero.lengthSquared(), 0.00001, "addScaled() should allow the zero vector");
+        assertThrows(IllegalArgumentException.class, zero::toVector,
+                "toVector() should throw on the zero vector");
+    }
+
+    /**
+     * Test method for {@link primitives.Vec3#setCrossProduct(Vec3, Vec3)}.
+     */
+    @Test
+    void testSetCrossProduct() {
+        Vector v1 = new Vector(1, 2, 3);
+        Vector v2 = new Vector(-2, 0.5, 4);
+        Vec3 a = new Vec3().set(v1);
+        Vec3 b = new Vec3().set(v2);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Same result as the immutable cross product
+        assertEquals(v1.crossProduct(v2), new Vec3().setCrossProduct(a, b).toVector(),
+                "setCrossProduct() wrong result");
+
+        // =============== Boundary Values Tests ==================
+        // TC02: The result is saved into one of the operands
+        assertEquals(v1.crossProduct(v2), a.setCrossProduct(a, b).toVector(),
+                "setCrossProduct() wrong result when saved into an operand");
+    }
+
+    /**
+     * Test method for {@link primitives.Vec3#normalize()}.
+     */
+    @Test
+    void testNormalize() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The normalized vector has the same direction and a unit length
+        Vec3 v = new Vec3(3, 0, 4).normalize();
+        assertEquals(1, v.length(), 0.00001, "normalize() result isn't a unit vector");
+        assertEquals(new Vector(0.6, 0, 0.8), v.toVector(), "normalize() wrong direction");
+    }
+}
@@ -10,6 +10,8 @@ import org.junit.jupiter.api.Test;
 import primitives.*;
 import scene.Scene;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 public class GlossyReflectionRefractionTests {
 
     @Test
@@ -271,4 +273,137 @@ public class GlossyReflectionRefractionTests {
             render.writeToImage();
         }
     }
+
+    /**
+     * Renders a glossy scene with Anti-Aliasing twice with the same seed, with 1 thread and with 3 threads,
+     * the images must be identical.
+     */
+    @Test
+    public void deterministicRendering() {
+        Camera camera = new Camera(
+                new Point3D(0, 0, 1000),
+                new Vector(0, 0, -1),
+                new Vector(0, 1, 0))
+                .setViewPlaneSize(225, 150)
+                .setDistance(800)
+                .setNumOfRays(5)
+                .setSampler(Sampler.STRATIFIED);
+
+        Scene scene = Scene.Builder.create("Test Scene")
+                .setLights(
+                        new SpotLight(
+                                new Color(500, 500, 500),
+                                new Point3D(-50, 100, 100),
+                                new Vector(-0.5, -1, -0.5))
+                                .setKl(0.004)
+                                .setKq(0.000006))
+                .addGeometries(
+                        new Sphere(50, new Point3D(50, 0, 0))
+                                .setEmission(new Color(5, 5, 5))
+                                .setMaterial(new Material()
+                                        .setKr(1.0).setKg(0.8)),
+                        new Polygon(
+                                new Point3D(-100, -50, -150),
+                                new Point3D(-100, -50, 150),
+                                new Point3D(100, -50, 150),
+                                new Point3D(100, -50, -150))
+                                .setEmission(new Color(40, 40, 40))
+                                .setMaterial(new Material()
+                                        .setKd(0.6).setKs(0.4)
+                                        .setShininess(50))
+                ).build();
+        BasicRayTracer rayTracer = new BasicRayTracer(scene).setGlossinessRays(5);
+
+        ImageWriter[] images = new ImageWriter[2];
+        int[] threads = {1, 3};
+        for (int k = 0; k < 2; ++k) {
+            images[k] = new ImageWriter("deterministicGlossiness", 75, 50);
+            try (Render render = new Render()) {
+                render.setImageWriter(images[k])
+                        .setCamera(camera)
+                        .setAntiAliasing(true)
+                        .setSeed(42L)
+                        .setRayTracer(rayTracer)
+                        .setMultithreading(threads[k])
+                        .renderImage();
+            }
+        }
+
+        for (int i = 0; i < 50; ++i) {
+            for (int j = 0; j < 75; ++j) {
+                Color expected = images[0].getPixel(j, i);
+                Color actual = images[1].getPixel(j, i);
+                assertTrue(expected.getR() == actual.getR() && expected.getG() == actual.getG()
+                        && expected.getB() == actual.getB(), "The seeded renderings are different");
+            }
+        }
+    }
+
+    /**
+     * Renders a glossy scene with fixed and with adaptive glossiness.
+     * The adaptive glossiness must trace fewer rays and give about the same image.
+     */
+    @Test
+    public void adaptiveGlossiness() {
+        Camera camera = new Camera(
+                new Point3D(0, 0, 1000),
+                new Vector(0, 0, -1),
+                new Vector(0, 1, 0))
+                .setViewPlaneSize(225, 150)
+                .setDistance(800);
+
+        Scene scene = Scene.Builder.create("Test Scene")
+                .setBackground(new Color(20, 40, 80))
+                .setLights(
+                        new SpotLight(
+                                new Color(500, 500, 500),
+                                new Point3D(-50, 100, 100),
+                                new Vector(-0.5, -1, -0.5))
+                                .setKl(0.004)
+                                .setKq(0.000006))
+                .addGeometries(
+                        new Sphere(50, new Point3D(50, 0, 0))
+                                .setEmission(new Color(5, 5, 5))
+                                .setMaterial(new Material()
+                                        .setKr(1.0).setKg(0.8)),
+                        new Polygon(
+                                new Point3D(-100, -50, -150),
+                                new Point3D(-100, -50, 150),
+                                new Point3D(100, -50, 150),
+                                new Point3D(100, -50, -150))
+                                .setEmission(new Color(40, 40, 40))
+                                .setMaterial(new Material()
+                                        .setKd(0.6).setKs(0.4)
+                                        .setShininess(50)))
+                .build();
+
+        ImageWriter[] images = new ImageWriter[2];
+        long[] rays = new long[2];
+        for (int k = 0; k < 2; ++k) {
+            BasicRayTracer rayTracer = new BasicRayTracer(scene)
+                    .setGlossinessRays(64)
+                    .setSampler(Sampler.SOBOL)
+                    .setAdaptiveGlossiness(k == 1);
+            images[k] = new ImageWriter("adaptiveGlossiness", 75, 50);
+            try (Render render = new Render()) {
+                render.setImageWriter(images[k])
+                        .setCamera(camera)
+                        .setSeed(42L)
+                        .setStatistics(true)
+                        .setRayTracer(rayTracer)
+                        .renderImage();
+                RenderStatistics statistics = render.getStatistics();
+                rays[k] = statistics.getReflectionRays() + statistics.getRefractionRays();
+            }
+        }
+
+        assertTrue(rays[1] < rays[0] / 2, "The adaptive glossiness didn't reduce the rays");
+        double difference = 0;
+        for (int i = 0; i < 50; ++i) {
+            for (int j = 0; j < 75; ++j) {
+                difference += images[0].getPixel(j, i).difference(images[1].getPixel(j, i));
+            }
+        }
+        assertTrue(difference / (75 * 50) < 1, "The adaptive glossiness changed the image");
+    }
 }
@@ -1,12 +1,27 @@
 package renderer;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import primitives.Color;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
 /**
  * Unit tests for {@link renderer.ImageWriter} class.
  */
 public class ImageWriterTest {
+    /**
+     * The directory of the test's files, deleted after every test.
+     */
+    @TempDir
+    Path _directory;
+
     /**
      * Test method for {@link renderer.ImageWriter#writeToImage()}
      */
@@ -31,4 +46,77 @@ public class ImageWriterTest {
 
         imageWriter.writeToImage();
     }
+
+    /**
+     * Test method for {@link renderer.ImageWriter#addSample(int, int, Color)}
+     */
+    @Test
+    void testAddSample() {
+        ImageWriter imageWriter = new ImageWriter("test samples", 4, 3);
+
+        // =============== Boundary Values Tests ==================
+        // TC01: The first sample of a pixel
+        assertEquals(Double.POSITIVE_INFINITY, imageWriter.addSample(3, 2, new Color(100, 50, 0)),
+                "Wrong change on the first sample");
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC02: The change of the average on the next samples
+        assertEquals(50, imageWriter.addSample(3, 2, new Color(200, 50, 0)), 0.0001,
+                "Wrong change on the second sample");
+        assertEquals(10, imageWriter.addSample(3, 2, new Color(120, 80, 0)), 0.0001,
+                "Wrong change on the third sample");
+        assertEquals(3, imageWriter.getSamples(3, 2), "Wrong number of samples");
+
+        // TC03: The color of a pixel is the average of its samples, without the limit of 255
+        assertEquals(0, imageWriter.getPixel(3, 2).difference(new Color(140, 60, 0)), 0.0001,
+                "Wrong average color");
+        imageWriter.writePixel(0, 0, new Color(1000, 300, 0));
+        assertEquals(0, imageWriter.getPixel(0, 0).difference(new Color(1000, 300, 0)), 0.0001,
+                "The high dynamic range color was clamped");
+
+        // =============== Boundary Values Tests ==================
+        // TC04: A pixel without samples is black
+        assertEquals(0, imageWriter.getSamples(2, 2), "Wrong number of samples of another pixel");
+        assertEquals(0, imageWriter.getPixel(2, 2).difference(Color.BLACK), "Pixel without samples isn't black");
+
+        // TC05: Writing a pixel replaces its samples
+        imageWriter.writePixel(3, 2, new Color(10, 20, 30));
+        assertEquals(1, imageWriter.getSamples(3, 2), "Writing a pixel didn't replace its samples");
+    }
+
+    /**
+     * Test method for {@link renderer.ImageWriter#setOutput(ImageOutput)}
+     */
+    @Test
+    void testAsyncOutput() throws IOException {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The PPM file is written in the background, with the tone mapped colors
+        try (ImageOutput output = new ImageOutput(1)) {
+            ImageWriter imageWriter = new ImageWriter("test ppm", 2, 1)
+                    .setDirectory(_directory.toString())
+                    .setFormat(ImageFormat.PPM)
+                    .setOutput(output);
+            imageWriter.writePixel(0, 0, new Color(10, 20, 30));
+            imageWriter.writePixel(1, 0, new Color(1000, 0, 255));
+            imageWriter.writeToImage();
+            // the copy of the pixels was written, not the changed ones
+            imageWriter.writePixel(0, 0, Color.BLACK);
+        }
+
+        byte[] ppm = Files.readAllBytes(_directory.resolve("test ppm.ppm"));
+        byte[] header = "P6\n2 1\n255\n".getBytes();
+        assertEquals(header.length + 6, ppm.length, "Wrong size of the PPM file");
+        assertArrayEquals(new byte[]{10, 20, 30, (byte) 255, 0, (byte) 255},
+                Arrays.copyOfRange(ppm, header.length, ppm.length), "Wrong pixels in the PPM file");
+
+        // =============== Boundary Values Tests ==================
+        // TC02: A failure to write in the background is thrown on close
+        Path file = Files.createFile(_directory.resolve("not a directory"));
+        ImageOutput output = new ImageOutput();
+        new ImageWriter("test failure", 1, 1)
+                .setDirectory(file.resolve("images").toString())
+                .setOutput(output)
+                .writeToImage();
+        assertThrows(UncheckedIOException.class, output::close, "The failure wasn't thrown");
+    }
 }
@@ -3,17 +3,14 @@ package renderer;
 import org.junit.jupiter.api.Test;
 import elements.*;
 import geometries.*;
-import org.w3c.dom.*;
-import org.xml.sax.SAXException;
 import primitives.*;
 import scene.Scene;
+import scene.XmlSceneLoader;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import java.io.File;
 import java.io.IOException;
 
+import static org.junit.jupiter.api.Assertions.*;
+
 /**
  * Test rendering a basic image
  *
@@ -61,13 +58,8 @@ public class RenderTests {
      * Test for XML based scene - for bonus
      */
     @Test
-    public void basicRenderXml() {
-        Scene scene = null;
-        try {
-            scene = buildSceneFromXml("XML Test scene", "XmlFiles/basicRenderTestTwoColors.xml");
-        } catch (IOException | SAXException | ParserConfigurationException e) {
-            e.printStackTrace();
-        }
+    public void basicRenderXml() throws IOException {
+        Scene scene = new XmlSceneLoader("XmlFiles/basicRenderTestTwoColors.xml").getScene();
 
         ImageWriter imageWriter = new ImageWriter("xml render test", 1000, 1000);
         Render render = new Render() //
@@ -80,159 +72,6 @@ public class RenderTests {
         render.writeToImage();
     }
 
-    /**
-     * Builds a scene from a given xml file
-     * @param sceneName the name of the created scene
-     * @param filename the path for the xml file
-     * @return the created scene
-     */
-    public Scene buildSceneFromXml(String sceneName, String filename) throws IOException, SAXException, ParserConfigurationException {
-        Scene.Builder builder = Scene.Builder.create(sceneName);
-
-        File xmlFile = new File(filename);
-        DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-        Document doc = dBuilder.parse(xmlFile);
-
-        Element root = doc.getDocumentElement();
-
-        // gets the background of the scene
-        String[] backgroundRgb = root.getAttribute("background-color").split(" ");
-        if (backgroundRgb.length == 3) {
-            builder.setBackground(new Color(
-                    Double.parseDouble(backgroundRgb[0]),
-                    Double.parseDouble(backgroundRgb[1]),
-                    Double.parseDouble(backgroundRgb[2])
-            ));
-        }
-
-        // gets the ambient light of the scene
-        NodeList ambientLightNodes = root.getElementsByTagName("ambient-light");
-        if (ambientLightNodes.getLength() > 0) {
-            Node ambientLightNode = ambientLightNodes.item(0);
-            if (ambientLightNode.getNodeType() == Node.ELEMENT_NODE) {
-                Element ambientLightElement = (Element) ambientLightNode;
-                String[] ambientLightRgb = ambientLightElement.getAttribute("color").split(" ");
-                if (ambientLightRgb.length == 3) {
-                    builder.setAmbientLight(new AmbientLight(
-                            new Color(
-                                    Double.parseDouble(ambientLightRgb[0]),
-                                    Double.parseDouble(ambientLightRgb[1]),
-                                    Double.parseDouble(ambientLightRgb[2])
-                            ),
-                            1
-                    ));
-                }
-            }
-        }
-
-        // gets the geometries of the scene
-        NodeList geometriesNodes = root.getElementsByTagName("geometries");
-        if (geometriesNodes.getLength() > 0) {
-            Node geometriesNode = geometriesNodes.item(0);
-            if (geometriesNode.getNodeType() == Node.ELEMENT_NODE) {
-                Element geometriesElement = (Element) geometriesNode;
-                NodeList geometriesChildren = geometriesElement.getChildNodes();
-                // loops on every geometry
-                for (int i = 0; i < geometriesChildren.getLength(); i++) {
-                    Node geometryNode = geometriesChildren.item(i);
-                    if (geometryNode.getNodeType() != Node.ELEMENT_NODE) {
-                        continue;
-                    }
-
-                    Element geometryElement = (Element) geometryNode;
-                    switch (geometryElement.getNodeName()) {
-                        case "sphere": {
-                            String[] centerCoordinates = geometryElement.getAttribute("center").split(" ");
-                            if (centerCoordinates.length != 3) {
-                                continue;
-                            }
-                            double radius = Double.parseDouble(geometryElement.getAttribute("radius"));
-                            builder.addGeometries(new Sphere(
-                                    radius,
-                                    new Point3D(
-                                            Double.parseDouble(centerCoordinates[0]),
-                                            Double.parseDouble(centerCoordinates[1]),
-                                            Double.parseDouble(centerCoordinates[2])
-                                    )
-                            ));
-                        }
-                        break;
-                        case "triangle":
-                        case "polygon": {
-                            Point3D[] points = new Point3D[geometryElement.getAttributes().getLength()];
-                            for (int p = 0; p < points.length; p++) {
-                                String[] pointCoordinates = geometryElement.getAttribute("p" + p).split(" ");
-                                if (pointCoordinates.length != 3) {
-                                    continue;
-                                }
-                                points[p] = new Point3D(
-                                        Double.parseDouble(pointCoordinates[0]),
-                                        Double.parseDouble(pointCoordinates[1]),
-                                        Double.parseDouble(pointCoordinates[2])
-                                );
-                            }
-
-                            if (geometryElement.getNodeName().equals("triangle")) {
-                                builder.addGeometries(new Triangle(points[0], points[1], points[2]));
-                            } else {
-                                builder.addGeometries(new Polygon(points));
-                            }
-                        }
-                        break;
-                        case "plane": {
-                            int numOfAttributes = geometryElement.getAttributes().getLength();
-                            if (numOfAttributes == 3) {
-                                // creates a plane with 3 points
-                                Point3D[] points = new Point3D[numOfAttributes];
-                                for (int p = 0; p < points.length; p++) {
-                                    String[] pointCoordinates = geometryElement.getAttribute("p" + p).split(" ");
-                                    if (pointCoordinates.length != 3) {
-                                        continue;
-                                    }
-                                    points[p] = new Point3D(
-                                            Double.parseDouble(pointCoordinates[0]),
-                                            Double.parseDouble(pointCoordinates[1]),
-                                            Double.parseDouble(pointCoordinates[2])
-                                    );
-                                }
-
-                                builder.addGeometries(new Plane(points[0], points[1], points[2]));
-                            } else if (numOfAttributes == 2) {
-                                // creates a plane with a point and a normal
-                                String[] pointCoordinates = geometryElement.getAttribute("point").split(" ");
-                                if (pointCoordinates.length != 3) {
-                                    continue;
-                                }
-                                Point3D point = new Point3D(
-                                        Double.parseDouble(pointCoordinates[0]),
-                                        Double.parseDouble(pointCoordinates[1]),
-                                        Double.parseDouble(pointCoordinates[2])
-                                );
-
-                                String[] normalCoordinates = geometryElement.getAttribute("normal").split(" ");
-                                if (normalCoordinates.length != 3) {
-                                    continue;
-                                }
-                                Vector normal = new Vector(
-                                        Double.parseDouble(normalCoordinates[0]),
-                                        Double.parseDouble(normalCoordinates[1]),
-                                        Double.parseDouble(normalCoordinates[2])
-                                );
-
-                                builder.addGeometries(new Plane(point, normal));
-                            }
-                        }
-                        break;
-                        default:
-                            break;
-                    }
-                }
-            }
-        }
-
-        return builder.build();
-    }
     // For stage 6 - please disregard in stage 5
     /**
      * Produce a scene with basic 3D model - including individual lights of the bodies
@@ -265,5 +104,40 @@ public class RenderTests {
         render.writeToImage();
     }
 
+    /**
+     * Test for the statistics of a rendering
+     */
+    @Test
+    public void renderStatisticsTest() {
+        Scene scene = Scene.Builder.create("Test scene")
+                .setLights(new PointLight(new Color(500, 500, 500), new Point3D(0, 0, 0)))
+                .build();
+        scene.geometries.add(new BVH(
+                new Sphere(50, new Point3D(0, 0, -100)),
+                new Triangle(new Point3D(-100, 0, -100), new Point3D(0, 100, -100), new Point3D(-100, 100, -100))));
+
+        Render render = new Render()
+                .setImageWriter(new ImageWriter("statistics test", 10, 10))
+                .setCamera(camera)
+                .setRayTracer(new BasicRayTracer(scene));
 
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: No statistics by default
+        render.renderImage();
+        assertNull(render.getStatistics(), "The statistics were collected");
+
+        // TC02: A ray through every pixel, a shadow ray from every hit and tests of the bounding boxes
+        render.setStatistics(true).renderImage();
+        RenderStatistics statistics = render.getStatistics();
+        assertEquals(100, statistics.getPrimaryRays(), "Bad number of primary rays");
+        assertTrue(statistics.getShadowRays() > 0 && statistics.getShadowRays() < 100, "Bad number of shadow rays");
+        assertEquals(0, statistics.getReflectionRays() + statistics.getRefractionRays(), "Bad number of secondary rays");
+        assertTrue(statistics.getBoxTests() > 0, "The bounding boxes weren't counted");
+        assertTrue(statistics.getPrimitiveTests() > 0, "The geometries weren't counted");
+        assertEquals(10, statistics.getTiles(), "A tile should be a row on single-threaded rendering");
+
+        // TC03: Every rendering has its own statistics
+        render.renderImage();
+        assertEquals(100, render.getStatistics().getPrimaryRays(), "The statistics were accumulated");
+    }
 }
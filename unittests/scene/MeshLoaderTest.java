@@ -0,0 +1,134 @@
+package scene;
+
+import geometries.TriangleMesh;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link scene.MeshLoader} class.
+ */
+class MeshLoaderTest {
+    /**
+     * A ray that hits the unit square of the xy plane at (0.25, 0.75, 0).
+     */
+    private static final Ray RAY = new Ray(new Point3D(0.25, 0.75, 5), new Vector(0, 0, -1));
+
+    /**
+     * The directory of the test's files, deleted after every test.
+     */
+    @TempDir
+    Path _directory;
+
+    /**
+     * Creates a file with the given content in the test's directory.
+     */
+    private Path createFile(String name, byte[] content) throws IOException {
+        Path file = _directory.resolve(name);
+        Files.write(file, content);
+        return file;
+    }
+
+    /**
+     * Creates the header of a PLY file of the unit square, with a color for every vertex.
+     */
+    private String plyHeader(String format) {
+        return "ply\nformat " + format + " 1.0\ncomment the unit square\n" +
+                "element vertex 4\nproperty float x\nproperty float y\nproperty float z\nproperty uchar red\n" +
+                "element face 1\nproperty list uchar int vertex_indices\nend_header\n";
+    }
+
+    /**
+     * Test method for {@link scene.MeshLoader#loadObj(java.nio.file.Path)}.
+     */
+    @Test
+    void testLoadObj() throws IOException {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A square face with texture coordinates and normals is split to 2 triangles
+        Path file = createFile("square.obj", ("# the unit square\n" +
+                "v 0 0 0\nv 1.0 0 0\r\nv 1e0 1 0 1.0\nv 0 1 -0.0\n" +
+                "vt 0 0\nvn 0 0 1\n" +
+                "g square\nf 1/1/1 2/1/1 3/1/1 4/1/1\n").getBytes(StandardCharsets.US_ASCII));
+        TriangleMesh mesh = MeshLoader.load(file);
+        assertEquals(4, mesh.getVertexCount(), "Wrong number of vertices");
+        assertEquals(2, mesh.getTriangleCount(), "Wrong number of triangles");
+        assertEquals(List.of(new Point3D(0.25, 0.75, 0)), mesh.findIntersections(RAY), "Wrong intersection");
+
+        // TC02: The vertices of a face are relative to the last vertex
+        file = createFile("relative.obj", "v 0 0 0\nv 1 0 0\nv 0 1 0\nf -3 -2 -1\n"
+                .getBytes(StandardCharsets.US_ASCII));
+        assertEquals(1, MeshLoader.load(file).getTriangleCount(), "Wrong number of triangles");
+
+        // =============== Boundary Values Tests ==================
+        // TC03: A face of a missing vertex
+        Path missing = createFile("missing.obj", "v 0 0 0\nv 1 0 0\nv 0 1 0\nf 1 2 4\n"
+                .getBytes(StandardCharsets.US_ASCII));
+        assertThrows(IOException.class, () -> MeshLoader.load(missing), "Loaded a face of a missing vertex");
+
+        // TC04: A vertex without a number
+        Path invalid = createFile("invalid.obj", "v 0 zero 0\n".getBytes(StandardCharsets.US_ASCII));
+        assertThrows(IOException.class, () -> MeshLoader.load(invalid), "Loaded an invalid number");
+    }
+
+    /**
+     * Test method for {@link scene.MeshLoader#loadPly(java.nio.file.Path)}.
+     */
+    @Test
+    void testLoadPly() throws IOException {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: An ASCII file
+        Path file = createFile("ascii.ply", (plyHeader("ascii") +
+                "0 0 0 255\n1 0 0 255\n1 1 0 255\n0 1 0 255\n4 0 1 2 3\n").getBytes(StandardCharsets.US_ASCII));
+        TriangleMesh mesh = MeshLoader.load(file);
+        assertEquals(2, mesh.getTriangleCount(), "Wrong number of triangles");
+        assertEquals(List.of(new Point3D(0.25, 0.75, 0)), mesh.findIntersections(RAY), "Wrong intersection");
+
+        // TC02: Binary files of both byte orders
+        for (ByteOrder order : new ByteOrder[]{ByteOrder.LITTLE_ENDIAN, ByteOrder.BIG_ENDIAN}) {
+            byte[] header = plyHeader(order == ByteOrder.LITTLE_ENDIAN ? "binary_little_endian" : "binary_big_endian")
+                    .getBytes(StandardCharsets.US_ASCII);
+            ByteBuffer buffer = ByteBuffer.allocate(header.length + 4 * 13 + 1 + 4 * 4).order(order);
+            buffer.put(header);
+            float[][] vertices = {{0, 0, 0}, {1, 0, 0}, {1, 1, 0}, {0, 1, 0}};
+            for (float[] vertex : vertices) {
+                buffer.putFloat(vertex[0]).putFloat(vertex[1]).putFloat(vertex[2]).put((byte) 255);
+            }
+            buffer.put((byte) 4).putInt(0).putInt(1).putInt(2).putInt(3);
+
+            mesh = MeshLoader.load(createFile("binary.ply", buffer.array()));
+            assertEquals(2, mesh.getTriangleCount(), order + ": Wrong number of triangles");
+            assertEquals(List.of(new Point3D(0.25, 0.75, 0)), mesh.findIntersections(RAY),
+                    order + ": Wrong intersection");
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC03: A binary file that ends before its last face
+        byte[] header = plyHeader("binary_little_endian").getBytes(StandardCharsets.US_ASCII);
+        Path truncated = createFile("truncated.ply", ByteBuffer.allocate(header.length + 4 * 13)
+                .put(header).array());
+        assertThrows(IOException.class, () -> MeshLoader.load(truncated), "Loaded a truncated file");
+
+        // TC04: Element counts that are negative or larger than the file
+        for (String count : new String[]{"-1", "4000000000", "1000"}) {
+            String invalidHeader = plyHeader("ascii").replace("element vertex 4", "element vertex " + count);
+            Path invalid = createFile("count.ply", invalidHeader.getBytes(StandardCharsets.US_ASCII));
+            assertThrows(IOException.class, () -> MeshLoader.load(invalid), "Loaded an element count of " + count);
+        }
+
+        // TC05: An unknown format
+        Path unknown = createFile("square.stl", "solid square\n".getBytes(StandardCharsets.US_ASCII));
+        assertThrows(IllegalArgumentException.class, () -> MeshLoader.load(unknown), "Loaded an unknown format");
+    }
+}
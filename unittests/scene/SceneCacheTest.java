@@ -0,0 +1,253 @@
+package scene;
+
+import elements.AmbientLight;
+import elements.DirectionalLight;
+import elements.PointLight;
+import elements.SpotLight;
+import geometries.*;
+import geometries.Intersectable.GeoPoint;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import primitives.Color;
+import primitives.Material;
+import primitives.Metrics;
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link scene.SceneCache} class.
+ */
+class SceneCacheTest {
+    /**
+     * The directory of the test's files, deleted after every test.
+     */
+    @TempDir
+    Path _directory;
+
+    /**
+     * Creates a scene with every type of light and intersectable.
+     */
+    private Scene createScene() {
+        Material glass = new Material().setKt(0.8).setKd(0.1).setShininess(30);
+        TriangleMesh.Builder builder = new TriangleMesh.Builder().setMaterial(glass);
+        for (int i = 0; i <= 10; ++i) {
+            for (int j = 0; j <= 10; ++j) {
+                builder.addVertex(i, j, -10 + Math.sin(i + j));
+            }
+        }
+        for (int i = 0; i < 10; ++i) {
+            for (int j = 0; j < 10; ++j) {
+                builder.addTriangle(i * 11 + j, (i + 1) * 11 + j, i * 11 + j + 1);
+                builder.setEmission(new Color(0, 0, 20));
+                builder.addTriangle((i + 1) * 11 + j, (i + 1) * 11 + j + 1, i * 11 + j + 1);
+            }
+        }
+
+        return Scene.Builder.create("cache")
+                .setBackground(new Color(75, 127, 190))
+                .setAmbientLight(new AmbientLight(new Color(255, 191, 191), 0.1))
+                .setLights(
+                        new DirectionalLight(new Color(100, 100, 100), new Vector(0, 0, -1)),
+                        new PointLight(new Color(50, 50, 50), new Point3D(5, 5, 5)).setKl(0.01),
+                        new SpotLight(new Color(100, 0, 0), new Point3D(0, 0, 10), new Vector(1, 1, -1)).setKq(0.001))
+                .addGeometries(
+                        new Plane(new Point3D(0, 0, -20), new Vector(0, 0, 1)).setMaterial(glass),
+                        builder.build(),
+                        new BVH(BVH.SplitMethod.SAH,
+                                new Sphere(1, new Point3D(-5, -5, 0)).setEmission(new Color(10, 20, 30)),
+                                new Triangle(new Point3D(-10, 0, 0), new Point3D(-8, 0, 0), new Point3D(-8, 2, 0)),
+                                new Polygon(new Point3D(-10, -10, -1), new Point3D(-8, -10, -1),
+                                        new Point3D(-8, -8, -1), new Point3D(-10, -8, -1))),
+                        new LinearBVH(
+                                new Cylinder(new Ray(new Point3D(15, 0, -5), new Vector(0, 0, 1)), 1, 3),
+                                new Tube(new Ray(new Point3D(20, 0, 0), new Vector(0, 1, 0)), 0.5),
+                                new Geometries(new Sphere(2, new Point3D(15, 10, 0)))))
+                .build();
+    }
+
+    /**
+     * Test method for {@link scene.SceneCache#save(Scene, Path)} and {@link scene.SceneCache#load(Path)}.
+     */
+    @Test
+    void testSaveLoad() throws IOException {
+        Path file = _directory.resolve("scene.bin");
+        Scene scene = createScene();
+        SceneCache.save(scene, file);
+        Scene loaded = SceneCache.load(file);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The settings and the lights of the scene
+        assertEquals("cache", loaded.name, "Wrong name");
+        assertEquals(0, loaded.background.difference(scene.background), "Wrong background");
+        assertEquals(0, loaded.ambientLight.getIntensity().difference(scene.ambientLight.getIntensity()),
+                "Wrong ambient light");
+        assertEquals(scene.lights.size(), loaded.lights.size(), "Wrong number of lights");
+        Point3D point = new Point3D(1, 2, 3);
+        for (int i = 0; i < scene.lights.size(); ++i) {
+            assertEquals(scene.lights.get(i).getClass(), loaded.lights.get(i).getClass(), "Wrong type of light");
+            assertEquals(0, scene.lights.get(i).getIntensity(point).difference(loaded.lights.get(i).getIntensity(point)),
+                    "Wrong intensity of light");
+            assertEquals(scene.lights.get(i).getL(point), loaded.lights.get(i).getL(point), "Wrong direction of light");
+        }
+
+        // TC02: Every ray has the same closest intersection, with the same material and emission
+        Point3D p0 = new Point3D(2, 3, 50);
+        for (int i = -60; i <= 60; ++i) {
+            for (int j = -60; j <= 60; ++j) {
+                Ray ray = new Ray(p0, new Point3D(i * 0.5, j * 0.5, 0).subtract(p0));
+                GeoPoint expected = scene.geometries.findClosestIntersection(ray);
+                GeoPoint actual = loaded.geometries.findClosestIntersection(ray);
+                if (expected == null) {
+                    assertNull(actual, "Found an intersection of a missing geometry");
+                    continue;
+                }
+
+                assertNotNull(actual, "Missing an intersection");
+                assertEquals(expected.point, actual.point, "Wrong intersection");
+                assertEquals(expected.point,
+                        loaded.geometries.findClosestIntersection(ray, Double.POSITIVE_INFINITY, true).point,
+                        "Wrong intersection with the bounding boxes");
+                assertEquals(expected.geometry.getMaterial().kT, actual.geometry.getMaterial().kT, "Wrong material");
+                assertEquals(expected.geometry.getMaterial().nShininess, actual.geometry.getMaterial().nShininess,
+                        "Wrong material");
+                assertEquals(0, expected.geometry.getEmission().difference(actual.geometry.getEmission()),
+                        "Wrong emission");
+            }
+        }
+
+        // TC03: A mesh in a BVH is traversed as fast after loading (its hierarchy is used with the bounding boxes)
+        TriangleMesh.Builder grid = new TriangleMesh.Builder();
+        for (int i = 0; i <= 100; ++i) {
+            for (int j = 0; j <= 100; ++j) {
+                grid.addVertex(i, j, Math.sin(i) * Math.cos(j));
+            }
+        }
+        for (int i = 0; i < 100; ++i) {
+            for (int j = 0; j < 100; ++j) {
+                grid.addTriangle(i * 101 + j, (i + 1) * 101 + j, i * 101 + j + 1)
+                        .addTriangle((i + 1) * 101 + j, (i + 1) * 101 + j + 1, i * 101 + j + 1);
+            }
+        }
+        scene = new Scene("mesh");
+        scene.geometries.add(new BVH(BVH.SplitMethod.SAH, grid.build(), new Sphere(1, new Point3D(50, 50, 10))));
+        SceneCache.save(scene, file);
+        loaded = SceneCache.load(file);
+        // The order of the traversal may differ a little (the nearer child is visited first after loading)
+        long expected = countPrimitiveTests(scene);
+        long actual = countPrimitiveTests(loaded);
+        assertTrue(actual <= expected * 1.1, "The loaded scene is slower to traverse: " + expected + " / " + actual);
+
+        // =============== Boundary Values Tests ==================
+        // TC04: An empty scene
+        SceneCache.save(new Scene(null), file);
+        loaded = SceneCache.load(file);
+        assertNull(loaded.name, "Wrong name");
+        assertEquals(0, loaded.geometries.size(), "Wrong number of geometries");
+        assertTrue(loaded.lights.isEmpty(), "Wrong number of lights");
+
+        // TC05: A BVH with a plane, the plane isn't culled by the bounding boxes
+        scene = new Scene("plane");
+        scene.geometries.add(new BVH(BVH.SplitMethod.SAH,
+                new Sphere(1, new Point3D(0, 0, 0)),
+                new Plane(new Point3D(0, 0, -10), new Vector(0, 0, 1))));
+        SceneCache.save(scene, file);
+        loaded = SceneCache.load(file);
+        GeoPoint sphere = loaded.geometries.findClosestIntersection(
+                new Ray(new Point3D(0, 0, 10), new Vector(0, 0, -1)), Double.POSITIVE_INFINITY, true);
+        assertEquals(new Point3D(0, 0, 1), sphere.point, "Wrong intersection with the sphere");
+        GeoPoint plane = loaded.geometries.findClosestIntersection(
+                new Ray(new Point3D(0, 0, 10), new Vector(50, 50, -20)), Double.POSITIVE_INFINITY, true);
+        assertNotNull(plane, "The plane was culled by the bounding boxes");
+        assertEquals(new Point3D(50, 50, -10), plane.point, "Wrong intersection with the plane");
+    }
+
+    /**
+     * Counts the tests of the geometries by the closest intersections and all the intersections
+     * of a grid of rays with the bounding boxes.
+     */
+    private long countPrimitiveTests(Scene scene) {
+        long[] counts = Metrics.newCounts();
+        Metrics.startCounting(counts);
+        try {
+            Point3D p0 = new Point3D(50, 50, 100);
+            for (int i = 0; i <= 100; i += 10) {
+                for (int j = 0; j <= 100; j += 10) {
+                    Ray ray = new Ray(p0, new Point3D(i + 0.5, j + 0.5, 0).subtract(p0));
+                    scene.geometries.findClosestIntersection(ray, Double.POSITIVE_INFINITY, true);
+                    scene.geometries.findGeoIntersections(ray, Double.POSITIVE_INFINITY, true);
+                }
+            }
+        } finally {
+            Metrics.stopCounting();
+        }
+        return counts[Metrics.Counter.PRIMITIVE_TESTS.ordinal()];
+    }
+
+    /**
+     * Test method for {@link scene.SceneCache#load(Path)} with invalid files.
+     */
+    @Test
+    void testInvalidFiles() throws IOException {
+        Path file = _directory.resolve("scene.bin");
+        SceneCache.save(createScene(), file);
+        byte[] content = Files.readAllBytes(file);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A file of another format
+        Path other = _directory.resolve("other.bin");
+        Files.write(other, "<scene></scene>".getBytes());
+        assertThrows(IOException.class, () -> SceneCache.load(other), "Loaded a file of another format");
+
+        // TC02: A file of another version
+        Path version = _directory.resolve("version.bin");
+        content[4]++;
+        Files.write(version, content);
+        content[4]--;
+        assertThrows(IOException.class, () -> SceneCache.load(version), "Loaded a file of another version");
+
+        // =============== Boundary Values Tests ==================
+        // TC03: A truncated file
+        Path truncated = _directory.resolve("truncated.bin");
+        Files.write(truncated, Arrays.copyOf(content, content.length - 1));
+        assertThrows(IOException.class, () -> SceneCache.load(truncated), "Loaded a truncated file");
+    }
+
+    /**
+     * Test method for {@link scene.SceneCache#loadOrCreate(Path, java.util.function.Supplier)}.
+     */
+    @Test
+    void testLoadOrCreate() throws IOException {
+        Path file = _directory.resolve("scene.bin");
+        AtomicInteger created = new AtomicInteger();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The scene is created only when there is no file
+        for (int i = 0; i < 2; ++i) {
+            Scene scene = SceneCache.loadOrCreate(file, () -> {
+                created.incrementAndGet();
+                return createScene();
+            });
+            assertEquals("cache", scene.name, "Wrong scene");
+        }
+        assertEquals(1, created.get(), "Wrong number of created scenes");
+
+        // =============== Boundary Values Tests ==================
+        // TC02: A file of another format is replaced
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        SceneCache.loadOrCreate(file, () -> {
+            created.incrementAndGet();
+            return createScene();
+        });
+        assertEquals(2, created.get(), "Wrong number of created scenes");
+        assertEquals("cache", SceneCache.load(file).name, "The file wasn't replaced");
+    }
+}
@@ -0,0 +1,131 @@
+package scene;
+
+import elements.DirectionalLight;
+import elements.SpotLight;
+import geometries.Intersectable.GeoPoint;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import primitives.Color;
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link scene.XmlSceneLoader} class.
+ */
+class XmlSceneLoaderTest {
+    /**
+     * The directory of the test's files, deleted after every test.
+     */
+    @TempDir
+    Path _directory;
+
+    /**
+     * Creates the given scene file and a mesh of the unit square in the test's directory.
+     * @return the path of the scene file
+     */
+    private String createScene(String xml) throws IOException {
+        Files.write(_directory.resolve("square.obj"),
+                "v 0 0 0\nv 1 0 0\nv 1 1 0\nv 0 1 0\nf 1 2 3 4\n".getBytes(StandardCharsets.US_ASCII));
+        Path file = _directory.resolve("scene.xml");
+        Files.write(file, xml.getBytes(StandardCharsets.UTF_8));
+        return file.toString();
+    }
+
+    /**
+     * Test method for {@link scene.XmlSceneLoader#XmlSceneLoader(String)}.
+     */
+    @Test
+    void testLoad() throws IOException {
+        String file = createScene("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<scene name=\"test\" background-color=\"75 127 190\">\n" +
+                "  <ambient-light color=\"255 191 191\" ka=\"0.1\"/>\n" +
+                "  <camera p0=\"0 0 100\" vTo=\"0 0 -1\" vUp=\"0 1 0\" distance=\"100\" width=\"200\" height=\"200\"/>\n" +
+                "  <render width=\"20\" height=\"20\" threads=\"2\" seed=\"1\"/>\n" +
+                "  <lights>\n" +
+                "    <directional-light intensity=\"100 100 100\" direction=\"0 0 -1\"/>\n" +
+                "    <spot-light intensity=\"100 100 100\" position=\"0 0 50\" direction=\"0 0 -1\" kq=\"0.001\"/>\n" +
+                "  </lights>\n" +
+                "  <materials><material id=\"glass\" kt=\"0.8\" kd=\"0.1\"/></materials>\n" +
+                "  <geometries bvh=\"sah\">\n" +
+                "    <sphere center=\"10 10 0\" radius=\"2\" material=\"glass\" emission=\"10 20 30\"/>\n" +
+                "    <polygon p0=\"-10 -10 -5\" p1=\"-5 -10 -5\" p2=\"-5 -5 -5\" p3=\"-10 -5 -5\" ks=\"0.5\"/>\n" +
+                "    <cylinder origin=\"20 0 0\" direction=\"0 1 0\" radius=\"1\" height=\"2\"/>\n" +
+                "    <geometries bvh=\"none\">\n" +
+                "      <plane point=\"0 0 -100\" normal=\"0 0 1\"/>\n" +
+                "      <mesh file=\"square.obj\" kd=\"0.7\"/>\n" +
+                "    </geometries>\n" +
+                "  </geometries>\n" +
+                "</scene>\n");
+        XmlSceneLoader loader = new XmlSceneLoader(file);
+        Scene scene = loader.getScene();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The settings of the scene
+        assertEquals("test", scene.name, "Wrong name");
+        assertEquals(0, scene.background.difference(new Color(75, 127, 190)), "Wrong background");
+        assertEquals(2, scene.lights.size(), "Wrong number of lights");
+        assertTrue(scene.lights.get(0) instanceof DirectionalLight, "Wrong type of light");
+        assertTrue(scene.lights.get(1) instanceof SpotLight, "Wrong type of light");
+
+        // TC02: The geometries with their materials
+        GeoPoint sphere = scene.geometries.findClosestIntersection(
+                new Ray(new Point3D(10, 10, 10), new Vector(0, 0, -1)));
+        assertEquals(new Point3D(10, 10, 2), sphere.point, "Wrong intersection with the sphere");
+        assertEquals(0.8, sphere.geometry.getMaterial().kT, "Wrong material of the sphere");
+        assertEquals(0, sphere.geometry.getEmission().difference(new Color(10, 20, 30)), "Wrong emission");
+        GeoPoint polygon = scene.geometries.findClosestIntersection(
+                new Ray(new Point3D(-7, -7, 10), new Vector(0, 0, -1)));
+        assertEquals(0.5, polygon.geometry.getMaterial().kS, "Wrong material of the polygon");
+
+        // TC03: The nested group with the plane and the mesh, the plane isn't culled by the bounding boxes
+        GeoPoint mesh = scene.geometries.findClosestIntersection(
+                new Ray(new Point3D(0.5, 0.5, 10), new Vector(0, 0, -1)), Double.POSITIVE_INFINITY, true);
+        assertEquals(new Point3D(0.5, 0.5, 0), mesh.point, "Wrong intersection with the mesh");
+        assertEquals(0.7, mesh.geometry.getMaterial().kD, "Wrong material of the mesh");
+        GeoPoint plane = scene.geometries.findClosestIntersection(
+                new Ray(new Point3D(50, 50, 10), new Vector(0, 0, -1)), Double.POSITIVE_INFINITY, true);
+        assertNotNull(plane, "The plane was culled by the bounding boxes");
+        assertEquals(new Point3D(50, 50, -100), plane.point, "Wrong intersection with the plane");
+
+        // TC04: The camera and the render
+        assertEquals(new Point3D(0, 0, 100), loader.getCamera().getP0(), "Wrong camera");
+        assertNotNull(loader.getRender(), "Missing render");
+
+        // =============== Boundary Values Tests ==================
+        // TC05: A scene without a camera has no render
+        loader = new XmlSceneLoader(createScene("<scene><render width=\"10\" height=\"10\"/></scene>"));
+        assertNull(loader.getCamera(), "Found a missing camera");
+        assertNull(loader.getRender(), "Created a render without a camera");
+    }
+
+    /**
+     * Test method for {@link scene.XmlSceneLoader#XmlSceneLoader(String)} with invalid files.
+     */
+    @Test
+    void testInvalidFiles() throws IOException {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: An unknown geometry
+        String unknown = createScene("<scene><geometries><cube/></geometries></scene>");
+        IOException error = assertThrows(IOException.class, () -> new XmlSceneLoader(unknown),
+                "Loaded an unknown geometry");
+        assertTrue(error.getMessage().contains(":1:"), "The error has no line number");
+
+        // TC02: A missing attribute
+        String missing = createScene("<scene><geometries><sphere radius=\"1\"/></geometries></scene>");
+        assertThrows(IOException.class, () -> new XmlSceneLoader(missing), "Loaded a sphere without a center");
+
+        // =============== Boundary Values Tests ==================
+        // TC03: An invalid geometry
+        String invalid = createScene("<scene><geometries>" +
+                "<triangle p0=\"0 0 0\" p1=\"0 0 0\" p2=\"0 1 0\"/></geometries></scene>");
+        assertThrows(IOException.class, () -> new XmlSceneLoader(invalid), "Loaded a triangle of equal vertices");
+    }
+}
@@ -6,6 +6,7 @@ import elements.SpotLight;
 import geometries.*;
 import org.junit.jupiter.api.Test;
 import primitives.*;
+import renderer.Animation;
 import renderer.BasicRayTracer;
 import renderer.ImageWriter;
 import renderer.Render;
@@ -27,39 +28,38 @@ public class BVHTests {
         setLights(scene);
         setGeometries(scene);
 
-        Render render = new Render() //
-                .setCamera(camera) //
-                .setMultithreading(3)
-                .setPrintPercent(true)
-                .setAntiAliasing(true)
-                .setRayTracer(new BasicRayTracer(scene)
-                        .setGlossinessRays(20)
-                        .useBoundingBoxes(true));
-
         int frames = 10;
         double angle = 360d / frames;
         double angleRadians = 2 * Math.PI / frames;
 
         double radius = camera.getP0().subtract(Point3D.ZERO).length();
 
-        for (int i = 0; i < frames; i++) {
-            System.out.println("Start frame " + (i + 1));
+        Animation animation = new Animation(600, 450) //
+                .setFrames(frames)
+                .setThreads(3)
+                .setRenderSettings(render -> render.setAntiAliasing(true))
+                .setRayTracer(new BasicRayTracer(scene)
+                        .setGlossinessRays(20)
+                        .useBoundingBoxes(true))
+                .setFramesName("bvh/manyObjects/frame")
+                .setGifName("Many Objects Rotation");
 
+        // the camera of every frame is copied by the animation
+        for (int i = 0; i < frames; i++) {
             camera.rotate(0, angle, 0);
             camera.setP0(
                     Math.sin(angleRadians * (i + 1)) * radius,
                     0,
                     Math.cos(angleRadians * (i + 1)) * radius
             );
-
-            ImageWriter imageWriter = new ImageWriter("bvh/manyObjects/frame" + i, 600, 450);
-            render.setImageWriter(imageWriter);
-            render.renderImage();
-            render.writeToImage();
+            animation.addKeyframe(i, camera);
         }
+
+        // the frames are rendered in parallel
+        animation.render();
     }
 
-    private void setLights(Scene scene){
+    static void setLights(Scene scene){
         scene.lights.add(
                 new SpotLight(
                         new Color(400, 400, 400),
@@ -90,7 +90,7 @@ public class BVHTests {
 
     }
 
-    private void setGeometries(Scene scene) {
+    static void setGeometries(Scene scene) {
         //triangles
         Point3D h = new Point3D(60, -50, 30);
         Point3D g = new Point3D(45, -30, 0);
@@ -382,7 +382,7 @@ public class BVHTests {
         render.writeToImage();
     }
 
-    private static Geometries getTeapotModel(Color color, Material mat) {
+    static Geometries getTeapotModel(Color color, Material mat) {
         return new Geometries(new BVH( //
                 new Triangle(pnts[7], pnts[6], pnts[1]).setEmission(color).setMaterial(mat), //
                 new Triangle(pnts[1], pnts[2], pnts[7]).setEmission(color).setMaterial(mat), //
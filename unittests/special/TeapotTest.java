@@ -9,6 +9,7 @@ import primitives.Color;
 import primitives.Material;
 import primitives.Point3D;
 import primitives.Vector;
+import renderer.Animation;
 import renderer.BasicRayTracer;
 import renderer.ImageWriter;
 import renderer.Render;
@@ -598,34 +599,33 @@ public class TeapotTest {
                 .setNumOfRays(81)
                 .setDistance(1000).setViewPlaneSize(200, 200);
 
-        Render render = new Render() //
-                .setCamera(camera) //
-                .setMultithreading(3)
-                .setPrintPercent(true)
-                .setAntiAliasing(true)
-                .setRayTracer(new BasicRayTracer(scene));
-
         int frames = 10;
         double angle = 360d / frames;
         double angleRadians = 2 * Math.PI / frames;
 
         double radius = camera.getP0().subtract(Point3D.ZERO).length();
 
-        for (int i = 0; i < frames; i++) {
-            System.out.println("Start frame " + (i + 1));
+        Animation animation = new Animation(800, 800) //
+                .setFrames(frames)
+                .setThreads(3)
+                .setRenderSettings(render -> render.setAntiAliasing(true))
+                .setRayTracer(new BasicRayTracer(scene))
+                .setFramesName("teapotAnimation/teapotFrame")
+                .setGifName("Teapot Rotation");
 
+        // the camera of every frame is copied by the animation
+        for (int i = 0; i < frames; i++) {
             camera.rotate(0, angle, 0);
             camera.setP0(
                     Math.sin(angleRadians * (i + 1)) * radius,
                     0,
                     Math.cos(angleRadians * (i + 1)) * radius
             );
-
-            ImageWriter imageWriter = new ImageWriter("teapotAnimation/teapotFrame" + (i + 1), 800, 800);
-            render.setImageWriter(imageWriter);
-            render.renderImage();
-            render.writeToImage();
+            animation.addKeyframe(i, camera);
         }
+
+        // the frames are rendered in parallel
+        animation.render();
     }
 
     private void setupTeapot() {